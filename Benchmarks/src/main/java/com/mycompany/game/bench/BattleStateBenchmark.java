@@ -0,0 +1,118 @@
+package com.mycompany.game.bench;
+
+import com.mycompany.game.EffectStore;
+import com.mycompany.game.Hero;
+import com.mycompany.game.HeroType;
+import com.mycompany.game.Monster;
+import com.mycompany.game.PackedBattle;
+import com.mycompany.game.RenderSink;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of snapshotting a fight: deep-copying the Hero and Monster objects
+ * versus encoding, decoding, copying and hashing a PackedBattle, with the
+ * monster carrying a status queue of the given depth.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BattleStateBenchmark {
+
+    @Param({"0", "4", "16"})
+    public int queueDepth;
+
+    @Param({"MAGE"})
+    public HeroType heroType;
+
+    private Hero hero, scratchHero;
+    private Monster target, scratchTarget;
+    private final PackedBattle packed = new PackedBattle();
+    private final PackedBattle other = new PackedBattle();
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        RenderSink.bind(RenderSink.NULL);
+        hero = new Hero("Bench", heroType);
+        target = Monster.generate("Bench Imp", 10);
+        EntityBenchmark.fill(target, queueDepth);
+        for (int i = 0; i < hero.getSkillCount(); i++) {
+            if (hero.canCast(i)) hero.castSkill(i, target);
+        }
+        scratchHero = new Hero("Scratch", heroType);
+        scratchTarget = Monster.generate("Bench Imp", 10);
+        packed.encode(hero, target);
+        other.copyFrom(packed);
+    }
+
+    /** Baseline: a fresh Hero and Monster carrying the same battle state. */
+    @Benchmark
+    public Monster deepCopy() {
+        Hero h = new Hero(hero.name, hero.type);
+        h.level = hero.level;
+        h.hp = hero.hp;
+        h.mana = hero.mana;
+        h.stats = hero.stats.clone();
+        for (int i = 0; i < hero.getSkillCount(); i++) h.setSkillCooldown(i, hero.getSkillCooldown(i));
+        copyEffects(hero.effects, h.effects);
+        Monster m = new Monster(target.name, target.maxHp, target.atk, target.def);
+        m.hp = target.hp;
+        copyEffects(target.effects, m.effects);
+        return m;
+    }
+
+    private static void copyEffects(EffectStore from, EffectStore to) {
+        for (int i = 0; i < from.size(); i++) to.add(from.type(i), from.duration(i), from.magnitude(i), from.source(i));
+    }
+
+    @Benchmark
+    public PackedBattle encode() {
+        packed.encode(hero, target);
+        return packed;
+    }
+
+    @Benchmark
+    public Hero decode() {
+        packed.decode(scratchHero, scratchTarget);
+        return scratchHero;
+    }
+
+    @Benchmark
+    public PackedBattle copy() {
+        other.copyFrom(packed);
+        return other;
+    }
+
+    @Benchmark
+    public long hash() {
+        return packed.hash64();
+    }
+
+    @Benchmark
+    public boolean equality() {
+        return packed.equals(other);
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BattleStateBenchmark
+--------------------------------------------------------------------------------
+JMH benchmarks for battle snapshots: object deep copy (baseline) against
+PackedBattle encode/decode/copy/hash/equals, by status-queue depth.
+--------------------------------------------------------------------------------
+*/
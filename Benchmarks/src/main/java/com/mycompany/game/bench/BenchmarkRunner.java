@@ -0,0 +1,34 @@
+package com.mycompany.game.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar.
+ * Accepts the usual JMH command line and always attaches the gc profiler,
+ * so every run reports allocation rate (gc.alloc.rate.norm) next to throughput.
+ *
+ * Usage: java -jar Benchmarks/target/benchmarks.jar [JMH options] [regexp]
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BenchmarkRunner
+--------------------------------------------------------------------------------
+Launcher for the combat benchmarks (EntityBenchmark, HeroBenchmark,
+MonsterBenchmark, BattleStateBenchmark, DuelBatchBenchmark, GroupBattleBenchmark)
+with the GC/allocation profiler enabled by default.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,92 @@
+package com.mycompany.game.bench;
+
+import com.mycompany.game.BattleEngine;
+import com.mycompany.game.BattlePolicy;
+import com.mycompany.game.BattleResult;
+import com.mycompany.game.DuelBatch;
+import com.mycompany.game.Encounter;
+import com.mycompany.game.Hero;
+import com.mycompany.game.HeroType;
+import com.mycompany.game.Monster;
+import com.mycompany.game.RenderSink;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Basic-attack duels per microsecond: one BattleEngine fight at a time
+ * versus DuelBatch lanes resolved in lockstep. Both score one op per duel.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class DuelBatchBenchmark {
+    private static final int DUELS = 4096;
+
+    private Hero hero;
+    private Monster enemy;
+    private BattleEngine engine;
+    private DuelBatch batch;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        RenderSink.bind(RenderSink.NULL);
+        SplittableRandom rng = new SplittableRandom(42);
+        hero = new Hero("Bench", HeroType.ROGUE);
+        hero.rand = rng;
+        hero.gainExp(400);
+        enemy = Monster.generate("Bench Imp", 10);
+        engine = new BattleEngine(rng);
+        batch = new DuelBatch(DUELS, rng);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DUELS)
+    public int engine() {
+        int wins = 0;
+        for (int i = 0; i < DUELS; i++) {
+            hero.hp = hero.maxHp;
+            enemy.hp = enemy.maxHp;
+            BattleResult r = engine.fight(hero, enemy, Encounter.REGULAR, BattlePolicy.ALWAYS_ATTACK);
+            if (r.outcome == BattleResult.Outcome.VICTORY) wins++;
+        }
+        return wins;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DUELS)
+    public int vector() {
+        hero.hp = hero.maxHp;
+        enemy.hp = enemy.maxHp;
+        batch.clear();
+        for (int i = 0; i < DUELS; i++) batch.add(hero, enemy);
+        batch.resolve();
+        int wins = 0;
+        for (int i = 0; i < DUELS; i++) if (batch.heroWon(i)) wins++;
+        return wins;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: DuelBatchBenchmark
+--------------------------------------------------------------------------------
+JMH benchmark comparing BattleEngine (object model, ALWAYS_ATTACK) with
+DuelBatch (struct-of-arrays, Vector API) on identical Rogue vs Lv.10 duels.
+Scores are duels per microsecond.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,95 @@
+package com.mycompany.game.bench;
+
+import com.mycompany.game.Monster;
+import com.mycompany.game.RenderSink;
+import com.mycompany.game.StatusEffect;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-turn status effect costs on Entity, measured at several queue depths.
+ * The queue is refilled every iteration with long-lived effects so ticking
+ * never empties it mid-measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityBenchmark {
+
+    @Param({"0", "4", "16", "64"})
+    public int queueDepth;
+
+    private Monster target;
+
+    @Setup(Level.Trial)
+    public void silence() {
+        RenderSink.bind(RenderSink.NULL);
+    }
+
+    @Setup(Level.Iteration)
+    public void fillQueue() {
+        target = Monster.generate("Bench Imp", 10);
+        target.maxHp = Integer.MAX_VALUE;
+        target.hp = target.maxHp;
+        fill(target, queueDepth);
+    }
+
+    /**
+     * --- Queue Filler ---
+     * Cycles poison, burn, heal, mark and a bottomless shield so every branch of
+     * the effect handlers is exercised. Durations outlast any 1s iteration.
+     */
+    static void fill(Monster m, int depth) {
+        for (int i = 0; i < depth; i++) {
+            switch (i % 5) {
+                case 0: m.enqueue(new StatusEffect("Poison", "bench", Integer.MAX_VALUE, 1, false, "HP")); break;
+                case 1: m.enqueue(new StatusEffect("Burn", "bench", Integer.MAX_VALUE, 1, false, "HP")); break;
+                case 2: m.enqueue(new StatusEffect("Heal", "bench", Integer.MAX_VALUE, 1, true, "HP")); break;
+                case 3: m.enqueue(new StatusEffect("Mark", "bench", Integer.MAX_VALUE, 1, false, "DEF")); break;
+                default: m.enqueue(new StatusEffect("Shield", "bench", Integer.MAX_VALUE, Integer.MAX_VALUE, true, "HP"));
+            }
+        }
+    }
+
+    @Benchmark
+    public int takeDamage() {
+        target.hp = target.maxHp;
+        target.takeDamage(7);
+        return target.hp;
+    }
+
+    @Benchmark
+    public int processStatusEffects() {
+        target.hp = target.maxHp;
+        target.processStatusEffects();
+        return target.hp;
+    }
+
+    @Benchmark
+    public boolean isStunned() {
+        return target.isStunned();
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: EntityBenchmark
+--------------------------------------------------------------------------------
+JMH benchmarks for Entity.takeDamage, Entity.processStatusEffects and
+Entity.isStunned, parameterised by status-queue depth.
+--------------------------------------------------------------------------------
+*/
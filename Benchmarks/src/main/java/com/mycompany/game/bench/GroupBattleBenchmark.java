@@ -0,0 +1,92 @@
+package com.mycompany.game.bench;
+
+import com.mycompany.game.BattleEngine;
+import com.mycompany.game.BattlePolicy;
+import com.mycompany.game.BattleResult;
+import com.mycompany.game.EnemyGroup;
+import com.mycompany.game.Encounter;
+import com.mycompany.game.GreedySkillPolicy;
+import com.mycompany.game.Hero;
+import com.mycompany.game.HeroType;
+import com.mycompany.game.MonsterTable;
+import com.mycompany.game.RenderSink;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Group encounters against packs of minions: one Meteor Storm over the
+ * whole pack, and a full BattleEngine fight (greedy skills) to the end.
+ * Scores are microseconds per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GroupBattleBenchmark {
+    private static final int LEVEL = 5;
+    private static final int METEOR_STORM = 4; // Mage ultimate (ALL_FOES)
+
+    @Param({"16", "256"})
+    public int minions;
+
+    private Hero hero;
+    private EnemyGroup pack;
+    private MonsterTable table;
+    private BattleEngine engine;
+    private BattlePolicy greedy;
+
+    @Setup
+    public void prepare() {
+        RenderSink.bind(RenderSink.NULL);
+        SplittableRandom rng = new SplittableRandom(42);
+        hero = new Hero("Bench", HeroType.MAGE);
+        hero.rand = rng;
+        hero.gainExp(2000);
+        pack = new EnemyGroup();
+        table = MonsterTable.regular("Minion");
+        engine = new BattleEngine(rng);
+        greedy = new GreedySkillPolicy();
+    }
+
+    @Benchmark
+    public int areaSkill() {
+        pack.fill(table, LEVEL, minions);
+        hero.mana = hero.maxMana;
+        hero.setSkillCooldown(METEOR_STORM, 0);
+        hero.castSkill(METEOR_STORM, pack, 0);
+        return pack.alive();
+    }
+
+    @Benchmark
+    public int fight() {
+        pack.fill(table, LEVEL, minions);
+        hero.hp = hero.maxHp;
+        hero.mana = hero.maxMana;
+        for (int i = 0; i < hero.getSkillCount(); i++) hero.setSkillCooldown(i, 0);
+        BattleResult r = engine.fight(hero, pack, Encounter.REGULAR, greedy);
+        return r.turns;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: GroupBattleBenchmark
+--------------------------------------------------------------------------------
+JMH benchmark for EnemyGroup encounters: an area skill across 16 or 256
+minions, and a whole greedy-policy fight against the pack (targeting, status
+ticking and the pack's volley). Output is discarded (RenderSink.NULL).
+--------------------------------------------------------------------------------
+*/
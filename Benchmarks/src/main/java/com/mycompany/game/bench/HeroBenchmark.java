@@ -0,0 +1,114 @@
+package com.mycompany.game.bench;
+
+import com.mycompany.game.Hero;
+import com.mycompany.game.HeroType;
+import com.mycompany.game.Monster;
+import com.mycompany.game.RenderSink;
+import com.mycompany.game.Skill;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hero-side combat hot paths: basic attack (against a target carrying a
+ * status queue of the given depth), level-up, cooldown ticking and skill
+ * list construction.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeroBenchmark {
+
+    @Param({"MAGE"})
+    public HeroType heroType;
+
+    private Hero hero;
+
+    /**
+     * Attack target carrying a status queue of queueDepth effects. Kept in
+     * its own state so the queueDepth parameter only multiplies attack(),
+     * the one benchmark that reads the queue.
+     */
+    @State(Scope.Thread)
+    public static class Target {
+        @Param({"0", "4", "16", "64"})
+        public int queueDepth;
+
+        Monster monster;
+
+        @Setup(Level.Iteration)
+        public void prepare() {
+            monster = Monster.generate("Bench Imp", 10);
+            monster.maxHp = Integer.MAX_VALUE;
+            monster.hp = monster.maxHp;
+            EntityBenchmark.fill(monster, queueDepth);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void silence() {
+        RenderSink.bind(RenderSink.NULL);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepare() {
+        hero = new Hero("Bench", heroType);
+        hero.rand = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public boolean attack(Target target) {
+        target.monster.hp = target.monster.maxHp;
+        return hero.attack(target.monster);
+    }
+
+    @Benchmark
+    public int gainExpLevelUp() {
+        hero.maxHp = 150;
+        hero.maxMana = 80;
+        hero.gainExp(100);
+        return hero.level;
+    }
+
+    @Benchmark
+    public int gainExpNoLevelUp() {
+        hero.exp = 0;
+        hero.gainExp(10);
+        return hero.exp;
+    }
+
+    @Benchmark
+    public Hero tickSkillCooldowns() {
+        hero.tickSkillCooldowns();
+        return hero;
+    }
+
+    @Benchmark
+    public List<Skill> getSkills() {
+        return heroType.getSkills();
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: HeroBenchmark
+--------------------------------------------------------------------------------
+JMH benchmarks for Hero.attack, Hero.gainExp, Hero.tickSkillCooldowns and
+HeroType.getSkills. Only attack() is parameterised by the target's queue depth.
+--------------------------------------------------------------------------------
+*/
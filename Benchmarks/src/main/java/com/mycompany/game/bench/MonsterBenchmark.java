@@ -0,0 +1,57 @@
+package com.mycompany.game.bench;
+
+import com.mycompany.game.Monster;
+import com.mycompany.game.MonsterPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of spawning a regular encounter monster.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MonsterBenchmark {
+
+    @Param({"Slothling"})
+    public String monsterType;
+
+    @Param({"8"})
+    public int level;
+
+    private final MonsterPool pool = new MonsterPool();
+
+    @Benchmark
+    public Monster generate() {
+        return Monster.generate(monsterType, level);
+    }
+
+    /** Encounter lifecycle through the pool: acquire (reset) then release. */
+    @Benchmark
+    public Monster pooled() {
+        Monster m = pool.regular(monsterType, level);
+        pool.release(m);
+        return m;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: MonsterBenchmark
+--------------------------------------------------------------------------------
+JMH benchmark for Monster.generate (table lookup + Monster allocation) and for
+the pooled path (MonsterPool acquire/release, no allocation).
+--------------------------------------------------------------------------------
+*/
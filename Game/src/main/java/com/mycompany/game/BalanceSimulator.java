@@ -0,0 +1,389 @@
+package com.mycompany.game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Serial;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+
+/**
+ * Batch Monte Carlo balance simulator.
+ * Runs headless BattleEngine fights for every HeroType against every domain
+ * (each sin's monsters and boss, the Shadow, and Death) across all cores,
+ * and streams win-rate, turns-to-kill and HP-remaining distributions as CSV.
+ *
+ * Usage: Game --simulate [--battles N] [--seed S] [--policy greedy|attack|solver] [--depth D] [--vector | --arena] [--out file.csv]
+ * (the solver policy searches D turns ahead per decision; use far fewer battles)
+ * --vector resolves the dungeon scenarios as basic-attack duels with DuelBatch
+ * (SIMD, the policy is ignored; the final domains are skipped). It needs the
+ * JVM flag --add-modules jdk.incubator.vector; without it the same duels are
+ * fought by BattleEngine with basic attacks instead.
+ * --arena fights every scenario on off-heap EntityArena records with the
+ * greedy skill rules (the policy is ignored).
+ */
+public class BalanceSimulator {
+    // Battles resolved by one leaf task before it stops splitting
+    private static final int CHUNK = 4096;
+    // Largest tracked turn count; longer fights land in the last bucket
+    static final int MAX_TURNS = 255;
+
+    private final int battlesPerScenario;
+    private final long seed;
+    private final BattlePolicy policy; // must be stateless: shared by all workers
+    private final ForkJoinPool pool;
+    private Mode mode = Mode.ENGINE;
+
+    /** How a worker resolves its battles. */
+    public enum Mode {
+        ENGINE, // BattleEngine on Hero/Monster objects with the configured policy
+        VECTOR, // DuelBatch lanes (basic attacks only; DuelBatch.supports must hold)
+        ARENA   // EntityArena records (greedy skills)
+    }
+
+    /**
+     * --- BalanceSimulator Constructor ---
+     * battlesPerScenario - fights simulated for each HeroType x domain pairing
+     * seed - root seed; every worker RNG is split from it, so runs are reproducible
+     * policy - stateless player policy used by all workers
+     */
+    public BalanceSimulator(int battlesPerScenario, long seed, BattlePolicy policy, ForkJoinPool pool) {
+        this.battlesPerScenario = battlesPerScenario;
+        this.seed = seed;
+        this.policy = policy;
+        this.pool = pool;
+    }
+
+    /**
+     * --- Resolution Mode ---
+     * VECTOR resolves every scenario as a batch of basic-attack duels
+     * (DuelBatch; scenarios must satisfy DuelBatch.supports(encounter)),
+     * ARENA fights off-heap EntityArena records. Both ignore the policy.
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * --- Scenario ---
+     * One HeroType x domain pairing: which monster to spawn, at which hero level,
+     * under which encounter rules.
+     */
+    public static final class Scenario {
+        public final HeroType type;
+        public final String domain;
+        public final Encounter encounter;
+        public final int heroLevel;
+        final BiFunction<Hero, MonsterPool, Monster> spawn; // draws from the worker's pool
+
+        Scenario(HeroType type, String domain, Encounter encounter, int heroLevel, BiFunction<Hero, MonsterPool, Monster> spawn) {
+            this.type = type;
+            this.domain = domain;
+            this.encounter = encounter;
+            this.heroLevel = heroLevel;
+            this.spawn = spawn;
+        }
+    }
+
+    /**
+     * --- Aggregated Statistics ---
+     * Counters plus fixed-size histograms; merged pairwise as fork/join tasks complete.
+     * Data structure: long[] histograms (turns, HP remaining %)
+     */
+    public static final class Stats {
+        long battles, wins, losses, fled;
+        long turnsSum, hpPctSum;
+        final long[] turnsHist = new long[MAX_TURNS + 1];
+        final long[] hpPctHist = new long[101]; // victories only
+
+        void record(BattleResult result, Hero hero) {
+            record(result.outcome, result.turns, hero.hp, hero.maxHp);
+        }
+
+        void record(BattleResult.Outcome outcome, int turns, int hp, int maxHp) {
+            battles++;
+            turnsSum += turns;
+            turnsHist[Math.min(turns, MAX_TURNS)]++;
+            switch (outcome) {
+                case VICTORY:
+                    recordWin(hp, maxHp);
+                    break;
+                case DEFEAT:
+                    losses++;
+                    break;
+                default:
+                    fled++;
+            }
+        }
+
+        // One resolved DuelBatch lane (duels end in victory or defeat)
+        void record(DuelBatch batch, int lane) {
+            battles++;
+            int turns = batch.turns(lane);
+            turnsSum += turns;
+            turnsHist[Math.min(turns, MAX_TURNS)]++;
+            if (batch.heroWon(lane)) recordWin(batch.heroHp(lane), batch.heroMaxHp(lane));
+            else losses++;
+        }
+
+        private void recordWin(int hp, int maxHp) {
+            wins++;
+            int pct = Math.max(0, Math.min(100, hp * 100 / maxHp));
+            hpPctSum += pct;
+            hpPctHist[pct]++;
+        }
+
+        Stats merge(Stats other) {
+            battles += other.battles;
+            wins += other.wins;
+            losses += other.losses;
+            fled += other.fled;
+            turnsSum += other.turnsSum;
+            hpPctSum += other.hpPctSum;
+            for (int i = 0; i < turnsHist.length; i++) turnsHist[i] += other.turnsHist[i];
+            for (int i = 0; i < hpPctHist.length; i++) hpPctHist[i] += other.hpPctHist[i];
+            return this;
+        }
+
+        static int percentile(long[] hist, long total, double p) {
+            if (total == 0) return 0;
+            long target = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < hist.length; i++) {
+                seen += hist[i];
+                if (seen >= target) return i;
+            }
+            return hist.length - 1;
+        }
+    }
+
+    /**
+     * --- Scenario Table ---
+     * Every HeroType against each sin domain (regular monster at the domain's
+     * deepest pre-boss room and the boss), the Shadow, and Death.
+     * Hero level is the domain's minimum level; final domains use level 10.
+     */
+    public static List<Scenario> allScenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (HeroType type : HeroType.values()) {
+            for (DungeonDefinition d : DungeonDefinition.all()) {
+                scenarios.add(new Scenario(type, d.name, Encounter.REGULAR, d.minLevel,
+                        (hero, pool) -> pool.regular(d.monsterType, d.minLevel + 5)));
+                scenarios.add(new Scenario(type, d.name, Encounter.BOSS, d.minLevel,
+                        (hero, pool) -> pool.boss(d.bossName, d.minLevel + 7)));
+            }
+            scenarios.add(new Scenario(type, "Mirror", Encounter.MIRROR, 10, (hero, pool) -> Monster.createShadow(hero)));
+            scenarios.add(new Scenario(type, "Death", Encounter.DEATH, 10,
+                    (hero, pool) -> pool.acquire(MonsterTable.death(), hero.level + 15)));
+        }
+        return scenarios;
+    }
+
+    /**
+     * --- Fork/Join Batch ---
+     * Splits a range of battles in half until it is CHUNK-sized; each half gets
+     * its own SplittableRandom so workers never share RNG state.
+     */
+    private final class BatchTask extends RecursiveTask<Stats> {
+        @Serial
+        private static final long serialVersionUID = 1L; // tasks are never serialized; this only satisfies -Xlint:serial
+        private final transient Scenario scenario;
+        private final int count;
+        private final transient SplittableRandom rng;
+
+        BatchTask(Scenario scenario, int count, SplittableRandom rng) {
+            this.scenario = scenario;
+            this.count = count;
+            this.rng = rng;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (count <= CHUNK) return runLeaf();
+            int half = count / 2;
+            BatchTask right = new BatchTask(scenario, count - half, rng.split());
+            right.fork();
+            Stats left = new BatchTask(scenario, half, rng).compute();
+            return left.merge(right.join());
+        }
+
+        private Stats runLeaf() {
+            Stats stats = new Stats();
+            RenderSink previous = RenderSink.bind(RenderSink.NULL);
+            try {
+                if (mode == Mode.VECTOR) {
+                    runDuels(stats);
+                    return stats;
+                }
+                if (mode == Mode.ARENA) {
+                    runArena(stats);
+                    return stats;
+                }
+                BattleEngine engine = new BattleEngine(rng);
+                MonsterPool monsters = new MonsterPool();
+                for (int i = 0; i < count; i++) {
+                    Hero hero = new Hero("Sim", scenario.type);
+                    hero.rand = rng;
+                    if (scenario.heroLevel > 1) hero.gainExp((scenario.heroLevel - 1) * 100);
+                    Monster enemy = scenario.spawn.apply(hero, monsters);
+                    stats.record(engine.fight(hero, enemy, scenario.encounter, policy), hero);
+                    monsters.release(enemy);
+                }
+            } finally {
+                RenderSink.bind(previous);
+            }
+            return stats;
+        }
+
+        // Vector mode: every battle of the leaf is a lane of one DuelBatch (all lanes share the scenario's stats)
+        private void runDuels(Stats stats) {
+            Hero hero = new Hero("Sim", scenario.type);
+            if (scenario.heroLevel > 1) hero.gainExp((scenario.heroLevel - 1) * 100);
+            MonsterPool monsters = new MonsterPool();
+            Monster enemy = scenario.spawn.apply(hero, monsters);
+            DuelBatch batch = new DuelBatch(count, rng);
+            for (int i = 0; i < count; i++) batch.add(hero, enemy);
+            monsters.release(enemy);
+            batch.resolve();
+            for (int i = 0; i < count; i++) stats.record(batch, i);
+        }
+
+        // Arena mode: the leaf's heroes and monsters are records in one arena, freed together when it closes
+        private void runArena(Stats stats) {
+            Hero hero = new Hero("Sim", scenario.type);
+            if (scenario.heroLevel > 1) hero.gainExp((scenario.heroLevel - 1) * 100);
+            MonsterPool monsters = new MonsterPool();
+            Monster enemy = scenario.spawn.apply(hero, monsters);
+            try (EntityArena arena = new EntityArena(2L * count)) {
+                for (int i = 0; i < count; i++) {
+                    arena.addHero(hero);
+                    arena.addMonster(enemy);
+                }
+                for (int i = 0; i < count; i++) {
+                    long h = 2L * i;
+                    int turns = arena.fight(h, h + 1, scenario.encounter, rng);
+                    stats.record(arena.isDead(h) ? BattleResult.Outcome.DEFEAT : BattleResult.Outcome.VICTORY,
+                            turns, arena.hp(h), arena.maxHp(h));
+                }
+            }
+            monsters.release(enemy);
+        }
+    }
+
+    /**
+     * --- Simulation Run ---
+     * Submits every scenario to the pool at once, then writes one CSV row per
+     * scenario (in table order) as soon as its aggregate is ready.
+     * Returns the total number of battles simulated.
+     */
+    public long run(List<Scenario> scenarios, Writer out) throws IOException {
+        SplittableRandom root = new SplittableRandom(seed);
+        List<ForkJoinTask<Stats>> tasks = new ArrayList<>(scenarios.size());
+        for (Scenario s : scenarios) {
+            tasks.add(pool.submit(new BatchTask(s, battlesPerScenario, root.split())));
+        }
+        out.write("hero_type,domain,encounter,hero_level,battles,wins,losses,fled,win_rate,"
+                + "turns_mean,turns_p50,turns_p90,turns_p99,"
+                + "hp_left_mean_pct,hp_left_p10_pct,hp_left_p50_pct,hp_left_p90_pct\n");
+        long total = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            Scenario s = scenarios.get(i);
+            Stats st = tasks.get(i).join();
+            total += st.battles;
+            out.write(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%d,%d,%.4f,%.2f,%d,%d,%d,%.2f,%d,%d,%d%n",
+                    s.type.name, s.domain, s.encounter, s.heroLevel,
+                    st.battles, st.wins, st.losses, st.fled,
+                    st.battles == 0 ? 0.0 : (double) st.wins / st.battles,
+                    st.battles == 0 ? 0.0 : (double) st.turnsSum / st.battles,
+                    Stats.percentile(st.turnsHist, st.battles, 0.50),
+                    Stats.percentile(st.turnsHist, st.battles, 0.90),
+                    Stats.percentile(st.turnsHist, st.battles, 0.99),
+                    st.wins == 0 ? 0.0 : (double) st.hpPctSum / st.wins,
+                    Stats.percentile(st.hpPctHist, st.wins, 0.10),
+                    Stats.percentile(st.hpPctHist, st.wins, 0.50),
+                    Stats.percentile(st.hpPctHist, st.wins, 0.90)));
+            out.flush();
+        }
+        return total;
+    }
+
+    /**
+     * --- Command Line Entry ---
+     * Parses options, runs every scenario and reports throughput on stderr.
+     */
+    public static void main(String[] args) throws IOException {
+        int battles = 100_000;
+        long seed = System.nanoTime();
+        String policyName = "greedy";
+        int depth = 2;
+        String outPath = null;
+        Mode mode = Mode.ENGINE;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--battles": battles = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--policy": policyName = args[++i]; break;
+                case "--depth": depth = Integer.parseInt(args[++i]); break;
+                case "--out": outPath = args[++i]; break;
+                case "--vector": mode = Mode.VECTOR; break;
+                case "--arena": mode = Mode.ARENA; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        BattlePolicy policy;
+        switch (policyName) {
+            case "attack": policy = BattlePolicy.ALWAYS_ATTACK; break;
+            case "solver": policy = new SolverPolicy(depth); break;
+            default: policy = new GreedySkillPolicy();
+        }
+        boolean duels = mode == Mode.VECTOR;
+        if (duels && !vectorApiAvailable()) {
+            System.err.println("--vector needs the Vector API (start java with --add-modules jdk.incubator.vector);"
+                    + " fighting the same duels with BattleEngine instead.");
+            mode = Mode.ENGINE;
+            policy = BattlePolicy.ALWAYS_ATTACK;
+        }
+        List<Scenario> scenarios = allScenarios();
+        if (duels) scenarios.removeIf(s -> !s.encounter.isDungeon()); // what DuelBatch.supports accepts
+        BalanceSimulator sim = new BalanceSimulator(battles, seed, policy, ForkJoinPool.commonPool());
+        sim.setMode(mode);
+        long start = System.nanoTime();
+        long total;
+        try (Writer out = outPath == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(outPath), StandardCharsets.UTF_8)) {
+            total = sim.run(scenarios, out);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf(Locale.ROOT, "Simulated %,d battles over %d scenarios in %.2fs (%,.0f battles/s, seed %d)%n",
+                total, scenarios.size(), seconds, total / seconds, seed);
+    }
+
+    // DuelBatch links against jdk.incubator.vector, which is only resolved when asked for at startup
+    private static boolean vectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BalanceSimulator
+--------------------------------------------------------------------------------
+Parallel Monte Carlo driver for balance work. Builds the HeroType x domain
+scenario table from DungeonDefinition, resolves fights with BattleEngine on a
+ForkJoinPool (RecursiveTask splitting, one SplittableRandom per task), merges
+per-task histograms and streams one CSV row per scenario. --vector swaps the
+engine for DuelBatch (SIMD basic-attack duels) on the dungeon scenarios;
+--arena fights off-heap EntityArena records instead of Hero/Monster objects.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,70 @@
+package com.mycompany.game;
+
+/**
+ * A single decision made by a BattlePolicy for one player turn.
+ * Actions are shared constants (skill actions are cached per index),
+ * so choosing an action never allocates. In group fights an action may
+ * also name a target foe; those are created on demand.
+ */
+public final class BattleAction {
+    public enum Kind { ATTACK, SKILL, FLEE, STATUS, HESITATE }
+
+    public static final BattleAction ATTACK = new BattleAction(Kind.ATTACK, -1, -1);
+    public static final BattleAction FLEE = new BattleAction(Kind.FLEE, -1, -1);
+    public static final BattleAction STATUS = new BattleAction(Kind.STATUS, -1, -1);
+    public static final BattleAction HESITATE = new BattleAction(Kind.HESITATE, -1, -1);
+
+    // Cached skill actions, one per skill slot (Data structure: Array)
+    private static final BattleAction[] SKILLS = new BattleAction[16];
+    static {
+        for (int i = 0; i < SKILLS.length; i++) SKILLS[i] = new BattleAction(Kind.SKILL, i, -1);
+    }
+
+    public final Kind kind;
+    public final int skillIndex; // index into the hero's skill list, or -1
+    public final int target;     // EnemyGroup foe id, or -1 (the engine picks the weakest)
+
+    private BattleAction(Kind kind, int skillIndex, int target) {
+        this.kind = kind;
+        this.skillIndex = skillIndex;
+        this.target = target;
+    }
+
+    /**
+     * --- Skill Action ---
+     * Returns the (shared) action for casting the skill at the given index.
+     */
+    public static BattleAction skill(int index) {
+        if (index >= 0 && index < SKILLS.length) return SKILLS[index];
+        return new BattleAction(Kind.SKILL, index, -1);
+    }
+
+    /**
+     * --- Targeted Actions (Group Fights) ---
+     * Attack or cast at the foe with the given EnemyGroup id. A target of -1
+     * (or a foe that has fallen) leaves the choice to the engine.
+     */
+    public static BattleAction attack(int target) {
+        return target < 0 ? ATTACK : new BattleAction(Kind.ATTACK, -1, target);
+    }
+
+    public static BattleAction skill(int index, int target) {
+        return target < 0 ? skill(index) : new BattleAction(Kind.SKILL, index, target);
+    }
+
+    @Override
+    public String toString() {
+        String s = kind == Kind.SKILL ? "SKILL(" + skillIndex + ")" : kind.name();
+        return target < 0 ? s : s + "@" + target;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BattleAction
+--------------------------------------------------------------------------------
+Immutable player action (attack, skill N, run, check status, hesitate), with an
+optional target foe in group fights, returned by a BattlePolicy and resolved by
+BattleEngine.
+--------------------------------------------------------------------------------
+*/
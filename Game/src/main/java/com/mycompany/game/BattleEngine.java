@@ -0,0 +1,340 @@
+package com.mycompany.game;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Headless battle kernel shared by the console game and batch simulations.
+ * Resolves a complete Hero vs Monster fight using a pluggable BattlePolicy,
+ * with no console input. Text is written to the thread's RenderSink, so a
+ * fight run under RenderSink.NULL produces no output at all.
+ */
+public class BattleEngine {
+    private final RandomGenerator rng; // flee rolls and boss move selection
+    private final GameMetrics.DomainStats stats; // null: fights are not counted
+    private int effectsThisRound; // status effects ticked by the last upkeep
+
+    /**
+     * --- BattleEngine Constructor ---
+     * rng - random source for escape attempts and enemy move choice
+     */
+    public BattleEngine(RandomGenerator rng) {
+        this(rng, null);
+    }
+
+    /**
+     * stats - domain whose GameMetrics record every fight (battles, outcomes,
+     * turn latency, effects per turn), or null for uncounted fights
+     */
+    public BattleEngine(RandomGenerator rng, GameMetrics.DomainStats stats) {
+        this.rng = rng;
+        this.stats = stats;
+    }
+
+    // Chance that the Shadow / Death use their signature move instead of a plain strike
+    static final double MIRROR_STRIKE_CHANCE = 0.5;
+    static final double REAPING_SCYTHE_CHANCE = 0.7;
+
+    /** Where a round stands after one of its phases (see upkeep/act). */
+    enum Phase { ACT, STUNNED, CONTINUE, HERO_DOWN, ENEMY_DOWN, SKILL_KILL, FLED }
+
+    /**
+     * --- Full Fight ---
+     * Runs rounds until the hero or the enemy falls, or the hero escapes.
+     * Round order:
+     * - passives (final domains only), status effects, cooldowns
+     * - player action chosen by the policy (skipped while stunned)
+     * - enemy action (skipped while stunned in dungeon fights)
+     * With domain stats, each round's resolution time (excluding the time the
+     * policy spends choosing) and effect count are recorded.
+     */
+    public BattleResult fight(Hero hero, Monster enemy, Encounter encounter, BattlePolicy policy) {
+        boolean metered = stats != null;
+        if (metered) stats.battleStarted();
+        BattleResult result = null;
+        int turns = 0;
+        while (result == null) {
+            turns++;
+            long start = metered ? System.nanoTime() : 0;
+            Phase phase = upkeep(hero, enemy, encounter);
+            if (phase == Phase.ACT) {
+                long choosing = metered ? System.nanoTime() : 0;
+                BattleAction action = policy.chooseAction(hero, enemy, encounter);
+                if (metered) start += System.nanoTime() - choosing;
+                phase = act(hero, enemy, encounter, action);
+            }
+            if (phase == Phase.CONTINUE || phase == Phase.STUNNED) {
+                enemyPhase(hero, enemy, encounter);
+                if (hero.isDead()) phase = Phase.HERO_DOWN;
+            }
+            result = ending(phase, turns);
+            if (metered) stats.turnResolved(System.nanoTime() - start, effectsThisRound);
+        }
+        if (metered) stats.battleFinished(result.outcome);
+        if (hero.journal != null) hero.journal.hero(hero); // settled HP, mana, cooldowns and effects
+        if (result.outcome == BattleResult.Outcome.DEFEAT) CombatEventRing.current().defeated(hero);
+        else if (result.outcome == BattleResult.Outcome.VICTORY) CombatEventRing.current().defeated(enemy);
+        return result;
+    }
+
+    /**
+     * --- Full Fight (Group) ---
+     * fight() against a pack: the same round order, with the policy's
+     * group choice, every foe's status effects ticked in upkeep and the
+     * standing foes attacking together in the enemy phase. The pack is
+     * beaten when its last foe falls.
+     */
+    public BattleResult fight(Hero hero, EnemyGroup group, Encounter encounter, BattlePolicy policy) {
+        boolean metered = stats != null;
+        if (metered) stats.battleStarted();
+        BattleResult result = null;
+        int turns = 0;
+        while (result == null) {
+            turns++;
+            long start = metered ? System.nanoTime() : 0;
+            Phase phase = upkeep(hero, group, encounter);
+            if (phase == Phase.ACT) {
+                long choosing = metered ? System.nanoTime() : 0;
+                BattleAction action = policy.chooseAction(hero, group, encounter);
+                if (metered) start += System.nanoTime() - choosing;
+                phase = act(hero, group, encounter, action);
+            }
+            if (phase == Phase.CONTINUE || phase == Phase.STUNNED) {
+                enemyPhase(hero, group, encounter);
+                if (hero.isDead()) phase = Phase.HERO_DOWN;
+            }
+            result = ending(phase, turns);
+            if (metered) stats.turnResolved(System.nanoTime() - start, effectsThisRound);
+        }
+        if (metered) stats.battleFinished(result.outcome);
+        if (hero.journal != null) hero.journal.hero(hero); // settled HP, mana, cooldowns and effects
+        if (result.outcome == BattleResult.Outcome.DEFEAT) CombatEventRing.current().defeated(hero);
+        else if (result.outcome == BattleResult.Outcome.VICTORY) CombatEventRing.current().defeated(group.label());
+        return result;
+    }
+
+    // The fight's result if the round ended it in the given phase, else null
+    private static BattleResult ending(Phase phase, int turns) {
+        switch (phase) {
+            case HERO_DOWN: return new BattleResult(BattleResult.Outcome.DEFEAT, turns, false);
+            case ENEMY_DOWN: return new BattleResult(BattleResult.Outcome.VICTORY, turns, false);
+            case SKILL_KILL: return new BattleResult(BattleResult.Outcome.VICTORY, turns, true);
+            case FLED: return new BattleResult(BattleResult.Outcome.FLED, turns, false);
+            default: return null;
+        }
+    }
+
+    /**
+     * --- Round Upkeep ---
+     * Passives, status effects and cooldowns at the start of a round.
+     * Returns ACT when the hero may choose an action, STUNNED when the turn
+     * is lost, or HERO_DOWN / ENEMY_DOWN if the effects ended the fight.
+     */
+    Phase upkeep(Hero hero, Monster enemy, Encounter encounter) {
+        if (encounter.tickPassives) {
+            hero.processTurnPassives();
+            enemy.processTurnPassives();
+        }
+        if (encounter.honorsStun && hero.isStunned()) {
+            RenderSink.current().println("You are stunned and cannot act!");
+            effectsThisRound = hero.processStatusEffects();
+            hero.tickSkillCooldowns();
+            return Phase.STUNNED;
+        }
+        effectsThisRound = hero.processStatusEffects() + enemy.processStatusEffects();
+        hero.tickSkillCooldowns();
+        if (hero.isDead()) return Phase.HERO_DOWN;
+        if (enemy.hp <= 0) return Phase.ENEMY_DOWN;
+        return Phase.ACT;
+    }
+
+    /**
+     * --- Player Action ---
+     * Resolves the chosen action. Returns ENEMY_DOWN / SKILL_KILL if it won
+     * the fight, FLED on a successful escape, otherwise CONTINUE.
+     */
+    Phase act(Hero hero, Monster enemy, Encounter encounter, BattleAction action) {
+        RenderSink out = RenderSink.current();
+        switch (action.kind) {
+            case ATTACK:
+                if (hero.attack(enemy)) return Phase.ENEMY_DOWN;
+                break;
+            case SKILL:
+                if (!hero.canCast(action.skillIndex)) {
+                    out.println("You hesitate and miss your chance!");
+                } else if (hero.castSkill(action.skillIndex, enemy) || enemy.hp <= 0) {
+                    return Phase.SKILL_KILL;
+                }
+                break;
+            case FLEE:
+                if (encounter.fleeChance > 0 && rng.nextDouble() < encounter.fleeChance) {
+                    out.println(encounter.fleeText);
+                    return Phase.FLED;
+                }
+                if (out.isEnabled()) out.println(String.format(encounter.blockedFormat, enemy.name));
+                break;
+            case STATUS:
+                hero.printStatus();
+                break;
+            default:
+                out.println("You hesitate and miss your chance!");
+        }
+        return Phase.CONTINUE;
+    }
+
+    /**
+     * --- Enemy Phase ---
+     * The enemy acts if both sides are still standing and it is not stunned
+     * (stuns only hold in dungeon fights).
+     */
+    void enemyPhase(Hero hero, Monster enemy, Encounter encounter) {
+        if (enemy.hp <= 0 || hero.isDead()) return;
+        RenderSink out = RenderSink.current();
+        if (encounter.honorsStun && enemy.isStunned()) {
+            if (out.isEnabled()) out.println(enemy.name + " is stunned and cannot act!");
+        } else {
+            enemyTurn(hero, enemy, encounter);
+        }
+    }
+
+    // --- Group Round Phases (see upkeep/act/enemyPhase) ---
+
+    Phase upkeep(Hero hero, EnemyGroup group, Encounter encounter) {
+        if (encounter.tickPassives) hero.processTurnPassives();
+        if (encounter.honorsStun && hero.isStunned()) {
+            RenderSink.current().println("You are stunned and cannot act!");
+            effectsThisRound = hero.processStatusEffects();
+            hero.tickSkillCooldowns();
+            return Phase.STUNNED;
+        }
+        effectsThisRound = hero.processStatusEffects() + group.tickEffects(CombatEventRing.current());
+        hero.tickSkillCooldowns();
+        if (hero.isDead()) return Phase.HERO_DOWN;
+        if (group.isDefeated()) return Phase.ENEMY_DOWN;
+        return Phase.ACT;
+    }
+
+    // The action's target foe (by id) if it still stands, else the weakest
+    Phase act(Hero hero, EnemyGroup group, Encounter encounter, BattleAction action) {
+        RenderSink out = RenderSink.current();
+        int target = group.indexOf(action.target);
+        if (target < 0) target = group.weakest();
+        switch (action.kind) {
+            case ATTACK:
+                hero.attack(group, target);
+                if (group.isDefeated()) return Phase.ENEMY_DOWN;
+                break;
+            case SKILL:
+                if (!hero.canCast(action.skillIndex)) {
+                    out.println("You hesitate and miss your chance!");
+                } else if (hero.castSkill(action.skillIndex, group, target)) {
+                    return Phase.SKILL_KILL;
+                }
+                break;
+            case FLEE:
+                if (encounter.fleeChance > 0 && rng.nextDouble() < encounter.fleeChance) {
+                    out.println(encounter.fleeText);
+                    return Phase.FLED;
+                }
+                if (out.isEnabled()) out.println(String.format(encounter.blockedFormat, group.label()));
+                break;
+            case STATUS:
+                hero.printStatus();
+                break;
+            default:
+                out.println("You hesitate and miss your chance!");
+        }
+        return Phase.CONTINUE;
+    }
+
+    // Every standing foe strikes at once (stunned ones sit out in dungeon fights): one hit, one event
+    void enemyPhase(Hero hero, EnemyGroup group, Encounter encounter) {
+        if (group.isDefeated() || hero.isDead()) return;
+        int damage = group.volley(hero.stats[3], encounter.honorsStun);
+        if (group.lastVolleyHits() == 0) {
+            RenderSink out = RenderSink.current();
+            if (out.isEnabled()) out.println("The " + group.label() + " is stunned and cannot act!");
+            return;
+        }
+        hero.takeDamage(damage);
+        CombatEventRing events = CombatEventRing.current();
+        if (events.isActive()) events.damage(group.label(), hero.name, true, damage, null);
+    }
+
+    /**
+     * --- Enemy Move Selection ---
+     * Dungeon monsters use their basic attack; the Shadow and Death pick
+     * between a signature move and a plain strike.
+     */
+    private void enemyTurn(Hero hero, Monster enemy, Encounter encounter) {
+        switch (encounter) {
+            case MIRROR:
+                if (rng.nextDouble() < MIRROR_STRIKE_CHANCE) {
+                    bossStrike(hero, enemy, 10, "Mirror Strike");
+                } else {
+                    bossStrike(hero, enemy, 0, null);
+                }
+                break;
+            case DEATH:
+                if (rng.nextDouble() < REAPING_SCYTHE_CHANCE) {
+                    bossStrike(hero, enemy, 15, "Reaping Scythe");
+                } else {
+                    bossStrike(hero, enemy, 0, null);
+                }
+                break;
+            default:
+                enemy.enemyAttack(hero);
+        }
+    }
+
+    // Shadow / Death hit: half the hero's defense applies; move is the signature move's name (null = plain strike)
+    private static void bossStrike(Hero hero, Monster enemy, int bonus, String move) {
+        int damage = Math.max(1, enemy.atk + bonus - hero.stats[3] / 2);
+        hero.takeDamage(damage);
+        CombatEventRing.current().damage(enemy, hero, damage, move);
+    }
+
+    /**
+     * --- Signature Move Chance ---
+     * Probability that the enemy's move is its signature attack (0 for
+     * dungeon monsters, which only have one move).
+     */
+    static double signatureChance(Encounter encounter) {
+        switch (encounter) {
+            case MIRROR: return MIRROR_STRIKE_CHANCE;
+            case DEATH: return REAPING_SCYTHE_CHANCE;
+            default: return 0;
+        }
+    }
+
+    /**
+     * --- Expected Enemy Damage ---
+     * Mean damage of one enemy move before shields (used by solver heuristics).
+     */
+    static double expectedEnemyDamage(Hero hero, Monster enemy, Encounter encounter) {
+        int def = hero.stats[3];
+        switch (encounter) {
+            case MIRROR:
+                return MIRROR_STRIKE_CHANCE * Math.max(1, enemy.atk + 10 - def / 2)
+                        + (1 - MIRROR_STRIKE_CHANCE) * Math.max(1, enemy.atk - def / 2);
+            case DEATH:
+                return REAPING_SCYTHE_CHANCE * Math.max(1, enemy.atk + 15 - def / 2)
+                        + (1 - REAPING_SCYTHE_CHANCE) * Math.max(1, enemy.atk - def / 2);
+            default:
+                return Math.max(1, enemy.atk - def);
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BattleEngine
+--------------------------------------------------------------------------------
+The single rules implementation for turn-based combat. Dungeon encounters, boss
+rooms, the Mirror and Death all run through fight(), parameterised by an
+Encounter profile and a BattlePolicy; packs of monsters (EnemyGroup) use the
+fight() overload with the same phases; BattleSolver drives the same round phases
+(upkeep, act, enemyPhase) in its search. Has no Scanner and no System.out, so it
+can resolve fights interactively or headless (RenderSink.NULL) at full speed.
+Engines built with GameMetrics domain stats count battles and time each round.
+--------------------------------------------------------------------------------
+*/
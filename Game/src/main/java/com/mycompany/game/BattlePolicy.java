@@ -0,0 +1,37 @@
+package com.mycompany.game;
+
+/**
+ * Pluggable decision maker for the player side of a battle.
+ * The console game asks a human (ConsoleBattlePolicy); simulations and
+ * servers plug in scripted or computed policies.
+ */
+public interface BattlePolicy {
+
+    /** Always attacks; the simplest baseline for headless fights. */
+    BattlePolicy ALWAYS_ATTACK = (hero, enemy, encounter) -> BattleAction.ATTACK;
+
+    /**
+     * --- Action Choice ---
+     * Called once per player turn (after status effects resolve) and
+     * returns what the hero does this turn.
+     */
+    BattleAction chooseAction(Hero hero, Monster enemy, Encounter encounter);
+
+    /**
+     * --- Action Choice (Group) ---
+     * Called once per player turn of a fight against an EnemyGroup. The
+     * default attacks the weakest standing foe.
+     */
+    default BattleAction chooseAction(Hero hero, EnemyGroup group, Encounter encounter) {
+        return BattleAction.ATTACK;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Interface: BattlePolicy
+--------------------------------------------------------------------------------
+Strategy interface used by BattleEngine to pick the player's action each turn,
+against a single Monster or an EnemyGroup.
+--------------------------------------------------------------------------------
+*/
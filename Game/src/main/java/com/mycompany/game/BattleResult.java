@@ -0,0 +1,31 @@
+package com.mycompany.game;
+
+/**
+ * Outcome of one fight resolved by BattleEngine.
+ */
+public final class BattleResult {
+    public enum Outcome { VICTORY, DEFEAT, FLED }
+
+    public final Outcome outcome;
+    public final int turns;               // player turns taken (including stunned ones)
+    public final boolean finishedBySkill; // true if a skill landed the killing blow
+
+    public BattleResult(Outcome outcome, int turns, boolean finishedBySkill) {
+        this.outcome = outcome;
+        this.turns = turns;
+        this.finishedBySkill = finishedBySkill;
+    }
+
+    public boolean isVictory() { return outcome == Outcome.VICTORY; }
+    public boolean isDefeat() { return outcome == Outcome.DEFEAT; }
+    public boolean isFled() { return outcome == Outcome.FLED; }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BattleResult
+--------------------------------------------------------------------------------
+Immutable summary of a resolved fight: victory/defeat/fled, number of turns, and
+whether the final blow came from a skill (the dungeon awards more EXP for that).
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,286 @@
+package com.mycompany.game;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Expectimax search over battle states.
+ * From a decision point (the hero's turn, after upkeep) it tries Attack and
+ * every castable skill, averages over the chance events that follow (the
+ * attack damage roll, and the Shadow's / Death's choice of move) and
+ * recurses a fixed number of player turns ahead. Fights that end inside
+ * the horizon score 1 (win) or 0 (loss); unfinished ones are scored by a
+ * damage-race heuristic. The result is the best action and its estimated
+ * win probability.
+ *
+ * The search plays the real rules (BattleEngine round phases on scratch
+ * copies of the combatants, with scripted dice) under RenderSink.NULL and
+ * the DETACHED event ring (no text, no events), so it
+ * cannot drift from the game. Snapshots are PackedBattles; positions are
+ * keyed by their 64-bit hash and cached in a bounded TranspositionTable.
+ * One solver per thread.
+ */
+public final class BattleSolver {
+    public static final int DEFAULT_DEPTH = 5;
+    private static final int TABLE_BITS = 16;
+    // Steepness of the heuristic's turns-to-kill vs turns-to-die curve
+    private static final double RACE_SLOPE = 1.2;
+
+    /** Search result for one decision point. */
+    public static final class Evaluation {
+        public final BattleAction best;
+        public final double winChance;
+        public final BattleAction[] actions; // candidates, Attack first
+        public final double[] values;        // win chance after each candidate
+        public final int depth;
+        public final long nodes;
+
+        Evaluation(BattleAction best, double winChance, BattleAction[] actions, double[] values, int depth, long nodes) {
+            this.best = best;
+            this.winChance = winChance;
+            this.actions = actions;
+            this.values = values;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+    }
+
+    private final int depth;
+    private final TranspositionTable table = new TranspositionTable(TABLE_BITS);
+    private final ScriptedDice dice = new ScriptedDice();
+    private final BattleEngine engine = new BattleEngine(dice);
+    // Snapshots per search ply: at the decision point and after the hero's action (Data structure: Arrays)
+    private final PackedBattle[] decision, afterAction;
+
+    // --- Scratch Battle (the search mutates these, never the caller's objects) ---
+    private Hero hero;
+    private Monster enemy;
+    private Encounter encounter;
+    private long matchup;   // hash of the fixed stats, mixed into every key
+    private long nodes;
+
+    public BattleSolver() {
+        this(DEFAULT_DEPTH);
+    }
+
+    /** depth - player turns searched ahead (1 = this turn only) */
+    public BattleSolver(int depth) {
+        if (depth < 1) throw new IllegalArgumentException("depth must be at least 1");
+        this.depth = depth;
+        decision = new PackedBattle[depth + 1];
+        afterAction = new PackedBattle[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            decision[i] = new PackedBattle();
+            afterAction[i] = new PackedBattle();
+        }
+    }
+
+    /**
+     * --- Evaluate Decision ---
+     * Scores every legal action for the hero's current turn (call it where a
+     * BattlePolicy would be asked, i.e. after the round's upkeep).
+     */
+    public Evaluation evaluate(Hero h, Monster m, Encounter e) {
+        RenderSink previous = RenderSink.bind(RenderSink.NULL);
+        CombatEventRing previousEvents = CombatEventRing.bind(CombatEventRing.DETACHED);
+        try {
+            load(h, m, e);
+            int count = 1;
+            BattleAction[] candidates = new BattleAction[hero.getSkillCount() + 1];
+            candidates[0] = BattleAction.ATTACK;
+            for (int i = 0; i < hero.getSkillCount(); i++) {
+                if (hero.canCast(i)) candidates[count++] = BattleAction.skill(i);
+            }
+            BattleAction[] actions = new BattleAction[count];
+            double[] values = new double[count];
+            int best = 0;
+            for (int a = 0; a < count; a++) {
+                actions[a] = candidates[a];
+                values[a] = expectAction(0, depth, actions[a]);
+                if (values[a] > values[best]) best = a;
+            }
+            return new Evaluation(actions[best], values[best], actions, values, depth, nodes);
+        } finally {
+            RenderSink.bind(previous);
+            CombatEventRing.bind(previousEvents);
+        }
+    }
+
+    /**
+     * --- Matchup Win Chance ---
+     * Estimated win probability of a fight that has not started yet (the
+     * first round's upkeep is played out before searching).
+     */
+    public double winChance(Hero h, Monster m, Encounter e) {
+        RenderSink previous = RenderSink.bind(RenderSink.NULL);
+        CombatEventRing previousEvents = CombatEventRing.bind(CombatEventRing.DETACHED);
+        try {
+            load(h, m, e);
+            return advance(0, depth);
+        } finally {
+            RenderSink.bind(previous);
+            CombatEventRing.bind(previousEvents);
+        }
+    }
+
+    /** The transposition table (for hit-rate reporting). */
+    public TranspositionTable table() {
+        return table;
+    }
+
+    // --- Search ---
+
+    // Value of the scratch position, which is at a decision point
+    private double decide(int ply, int remaining) {
+        nodes++;
+        if (remaining == 0) return heuristic();
+        PackedBattle here = decision[ply];
+        here.encode(hero, enemy);
+        long key = PackedBattle.mix(matchup ^ here.hash64());
+        double cached = table.probe(key, remaining);
+        if (!Double.isNaN(cached)) return cached;
+
+        double best = expectAction(ply, remaining, BattleAction.ATTACK);
+        for (int i = 0; i < hero.getSkillCount(); i++) {
+            here.decode(hero, enemy);
+            if (hero.canCast(i)) best = Math.max(best, expectAction(ply, remaining, BattleAction.skill(i)));
+        }
+        table.store(key, remaining, best);
+        return best;
+    }
+
+    // Chance node: expected value of taking the action from decision[ply]
+    private double expectAction(int ply, int remaining, BattleAction action) {
+        int rolls = action.kind == BattleAction.Kind.ATTACK ? Hero.ATTACK_ROLL : 1;
+        double signature = BattleEngine.signatureChance(encounter);
+        double total = 0;
+        for (int roll = 0; roll < rolls; roll++) {
+            decision[ply].decode(hero, enemy);
+            dice.roll = roll;
+            BattleEngine.Phase phase = engine.act(hero, enemy, encounter, action);
+            if (phase == BattleEngine.Phase.ENEMY_DOWN || phase == BattleEngine.Phase.SKILL_KILL) {
+                total += 1;
+                continue;
+            }
+            if (signature == 0) {
+                total += enemyMove(ply, remaining, 0.0);
+                continue;
+            }
+            afterAction[ply].encode(hero, enemy);
+            double v = signature * enemyMove(ply, remaining, 0.0);
+            afterAction[ply].decode(hero, enemy);
+            v += (1 - signature) * enemyMove(ply, remaining, 1.0);
+            total += v;
+        }
+        return total / rolls;
+    }
+
+    // Enemy phase with the move roll fixed (0.0 = signature move, 1.0 = plain strike), then the next round
+    private double enemyMove(int ply, int remaining, double moveRoll) {
+        dice.fraction = moveRoll;
+        engine.enemyPhase(hero, enemy, encounter);
+        if (hero.isDead()) return 0;
+        return advance(ply + 1, remaining - 1);
+    }
+
+    // Plays upkeep (and any stunned turns) until the next decision point or the end of the fight
+    private double advance(int ply, int remaining) {
+        while (true) {
+            switch (engine.upkeep(hero, enemy, encounter)) {
+                case HERO_DOWN: return 0;
+                case ENEMY_DOWN: return 1;
+                case ACT: return decide(ply, remaining);
+                default:
+                    // Stunned: only happens in dungeon fights, whose enemy move has no roll
+                    engine.enemyPhase(hero, enemy, encounter);
+                    if (hero.isDead()) return 0;
+            }
+        }
+    }
+
+    /**
+     * --- Leaf Heuristic ---
+     * Damage race: turns the hero needs to kill the enemy with average
+     * attacks vs turns the enemy needs to kill the hero (shields and a
+     * pending resurrection count as extra HP). The hero strikes first, so
+     * it wins ties; the gap is squashed into a probability.
+     */
+    private double heuristic() {
+        double heroHit = Math.max(1, hero.attackPower() - enemy.def + (Hero.ATTACK_ROLL - 1) / 2.0)
+                + enemy.effects.markTotal();
+        double enemyHit = BattleEngine.expectedEnemyDamage(hero, enemy, encounter);
+        double heroPool = hero.hp + hero.effects.shieldTotal();
+        if (hero.effects.indexOf(EffectType.RESURRECTION) >= 0) heroPool += (int) (hero.maxHp * 0.6);
+        double toKill = Math.ceil(Math.max(1, enemy.hp) / heroHit);
+        double toDie = Math.ceil(heroPool / enemyHit);
+        return 1 / (1 + Math.exp(-RACE_SLOPE * (toDie - toKill + 0.5)));
+    }
+
+    // --- Scratch State ---
+
+    // Copies the caller's combatants into the scratch pair
+    private void load(Hero h, Monster m, Encounter e) {
+        if (hero == null || hero.type != h.type) {
+            hero = new Hero(h.name, h.type);
+            hero.rand = dice;
+        }
+        hero.level = h.level;
+        hero.exp = h.exp;
+        hero.maxHp = h.maxHp;
+        hero.maxMana = h.maxMana;
+        System.arraycopy(h.stats, 0, hero.stats, 0, hero.stats.length);
+        if (enemy == null) enemy = new Monster(m.name, m.maxHp, m.atk, m.def);
+        else enemy.reset(m.name, m.maxHp, m.atk, m.def);
+        encounter = e;
+        matchup = matchupKey(h, m, e);
+        nodes = 0;
+        decision[0].encode(h, m);
+        decision[0].decode(hero, enemy);
+    }
+
+    private static long matchupKey(Hero h, Monster m, Encounter e) {
+        long k = PackedBattle.mix(h.type.ordinal() * 31L + e.ordinal());
+        k = PackedBattle.mix(k ^ h.level) ^ h.maxHp;
+        k = PackedBattle.mix(k ^ h.maxMana);
+        for (int s : h.stats) k = PackedBattle.mix(k ^ s);
+        k = PackedBattle.mix(k ^ m.maxHp);
+        k = PackedBattle.mix(k ^ m.atk);
+        return PackedBattle.mix(k ^ m.def);
+    }
+
+    /**
+     * Dice whose outcome the search sets before each chance event:
+     * nextInt returns the chosen attack roll, nextDouble the chosen move roll.
+     */
+    private static final class ScriptedDice implements RandomGenerator {
+        int roll;
+        double fraction;
+
+        @Override
+        public long nextLong() {
+            return 0;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return Math.min(roll, bound - 1);
+        }
+
+        @Override
+        public double nextDouble() {
+            return fraction;
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BattleSolver
+--------------------------------------------------------------------------------
+Depth-limited expectimax for hero decisions: max over Attack and castable
+skills, expectation over attack rolls and the Shadow's / Death's move choice,
+damage-race heuristic at the horizon. Reuses BattleEngine's round phases on
+scratch combatants, snapshots them as PackedBattles, caches positions in a
+TranspositionTable, and backs the in-battle Hint command, SolverPolicy and
+the simulator's --policy solver.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,295 @@
+package com.mycompany.game;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Scripted player that connects to a GameServer and plays whole runs over
+ * the socket, the same way a telnet player would.
+ * It reads server output until a known prompt appears (name, mask choice,
+ * main menu, dungeon menu, passage split, battle menu, skill menu, Death's
+ * y/n, Enter pauses), answers it, and times each answer-to-next-prompt
+ * round trip. Choices are random but seeded, so a bot is reproducible
+ * against a seeded server.
+ */
+public final class BotPlayer {
+    // A run that needs more answers than this is treated as stuck and abandoned
+    private static final int MAX_ANSWERS_PER_SESSION = 20_000;
+    // Assumed cooldown of a skill the bot just cast (longest in the game)
+    private static final int ASSUMED_COOLDOWN = 10;
+    private static final double SKILL_CHANCE = 0.3;
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+
+    /** How one session ended. */
+    public enum Outcome { COMPLETED, ABANDONED, FAILED }
+
+    private final String host;
+    private final int port;
+    private final String name;
+    private final SplittableRandom rng;
+
+    // --- Results (read by the harness after the bot's thread finishes) ---
+    public final LatencyHistogram latency = new LatencyHistogram();
+    public long turns;
+    public long unknownPrompts;
+
+    // --- Per-Session State ---
+    private final StringBuilder screen = new StringBuilder(4096);
+    private final char[] readBuf = new char[8192];
+    private int mana = -1;
+    private int battleTurns;
+    // Last seen skill menu: mana cost and estimated cooldown per entry (Data structure: Arrays)
+    private int[] skillCost = new int[0];
+    private int[] skillReadyAtTurn = new int[0];
+
+    public BotPlayer(String host, int port, String name, long seed) {
+        this.host = host;
+        this.port = port;
+        this.name = name;
+        this.rng = new SplittableRandom(seed);
+    }
+
+    /**
+     * --- Play One Session ---
+     * Connects, answers prompts until the server closes the connection (the
+     * run ended) or the answer limit is hit.
+     */
+    public Outcome playSession() {
+        resetSession();
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            socket.setTcpNoDelay(true);
+            Reader in = new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8);
+            OutputStream out = socket.getOutputStream();
+            int answers = 0;
+            boolean first = true;
+            long sent = 0;
+            while (readPrompt(in)) {
+                if (!first) latency.record(System.nanoTime() - sent);
+                first = false;
+                if (++answers > MAX_ANSWERS_PER_SESSION) return Outcome.ABANDONED;
+                String answer = answer(screen);
+                screen.setLength(0);
+                sent = System.nanoTime();
+                out.write((answer + "\r\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                turns++;
+            }
+            return Outcome.COMPLETED;
+        } catch (IOException e) {
+            return Outcome.FAILED;
+        }
+    }
+
+    private void resetSession() {
+        screen.setLength(0);
+        mana = -1;
+        battleTurns = 0;
+        skillCost = new int[0];
+        skillReadyAtTurn = new int[0];
+    }
+
+    // Reads until the buffered output ends in a prompt; false on end of stream
+    private boolean readPrompt(Reader in) throws IOException {
+        while (true) {
+            if (endsWithPrompt(screen)) return true;
+            int n = in.read(readBuf);
+            if (n < 0) return false;
+            screen.append(readBuf, 0, n);
+        }
+    }
+
+    private static boolean endsWithPrompt(CharSequence s) {
+        int len = s.length();
+        if (len < 2) return false;
+        if (s.charAt(len - 1) == ' ' && (s.charAt(len - 2) == '>' || s.charAt(len - 2) == ':')) return true;
+        if (s.charAt(len - 1) == ']') return endsWith(s, "[Press Enter to continue]");
+        if (s.charAt(len - 1) == '\n') return lastLine(s).startsWith("-- Press Enter to continue --");
+        return false;
+    }
+
+    /**
+     * --- Prompt Dispatch ---
+     * Decides which menu the buffered output ends with (the latest menu
+     * header wins) and picks an answer.
+     */
+    private String answer(StringBuilder s) {
+        if (endsWith(s, "Enter your name: ")) return name;
+        if (endsWith(s, "Fight Death? (y/n): ")) return rng.nextBoolean() ? "y" : "n";
+        if (endsWith(s, "(y/n): ")) return "n"; // e.g. continue a saved run
+        if (!endsWith(s, "> ")) return ""; // Enter pauses
+
+        int mask = s.lastIndexOf("Choose your next mask:");
+        int mainMenu = s.lastIndexOf("=== MAIN MENU ===");
+        int explore = s.lastIndexOf("--- Dungeon Exploration ---");
+        int split = s.lastIndexOf("The passage splits:");
+        int skill = s.lastIndexOf("Choose a skill:");
+        int action = s.lastIndexOf("Choose your action:");
+        int latest = Math.max(Math.max(mask, mainMenu), Math.max(Math.max(explore, split), Math.max(skill, action)));
+        if (latest < 0) {
+            unknownPrompts++;
+            return "1";
+        }
+        if (latest == mask) {
+            resetSkills();
+            return "1";
+        }
+        if (latest == mainMenu) return mainMenuChoice(s, mainMenu);
+        if (latest == explore) return exploreChoice(s, explore);
+        if (latest == split) return "1"; // the first exit is always the main passage
+        if (latest == skill) return skillChoice(s, skill);
+        return battleChoice(s);
+    }
+
+    // First unlocked domain not yet cleared (lines "N. Name", "N. Name (cleared)", "N. ????????")
+    private static String mainMenuChoice(CharSequence s, int from) {
+        for (String line : lines(s, from)) {
+            int dot = line.indexOf(". ");
+            if (dot <= 0 || !isNumber(line, 0, dot)) continue;
+            String label = line.substring(dot + 2);
+            if (!label.startsWith("?") && !label.endsWith("(cleared)") && !label.startsWith("Check Status")
+                    && !label.startsWith("Exit Game")) {
+                return line.substring(0, dot);
+            }
+        }
+        return "-1"; // nothing left to enter
+    }
+
+    // Boss room if it is open, otherwise keep moving forward (back out of dead ends)
+    private static String exploreChoice(CharSequence s, int from) {
+        boolean deadEnd = lastIndexOf(s, "A dead end") >= 0;
+        String forward = "1", back = null;
+        for (String line : lines(s, from)) {
+            String t = line.trim();
+            int dot = t.indexOf(". ");
+            if (dot <= 0 || !isNumber(t, 0, dot)) continue;
+            if (t.endsWith("Enter the Boss Room")) return t.substring(0, dot);
+            if (t.endsWith("Move Forward")) forward = t.substring(0, dot);
+            if (t.endsWith("Move Back")) back = t.substring(0, dot);
+        }
+        return deadEnd && back != null ? back : forward;
+    }
+
+    // Attack, or open the skill menu when a skill should be ready and affordable
+    private String battleChoice(CharSequence s) {
+        battleTurns++;
+        int you = lastIndexOf(s, "You: ");
+        if (you >= 0) mana = parseMana(s, you);
+        if (rng.nextDouble() < SKILL_CHANCE && skillExpectedReady()) return "2";
+        return "1";
+    }
+
+    // Picks a ready skill the bot can afford; remembers costs and cooldowns
+    private String skillChoice(CharSequence s, int from) {
+        int[] cost = new int[16];
+        int[] readyAt = new int[16];
+        int n = 0;
+        String pick = null;
+        for (String line : lines(s, from)) {
+            String t = line.trim();
+            int dot = t.indexOf(". ");
+            int manaAt = t.indexOf("(Mana: ");
+            if (dot <= 0 || manaAt < 0 || !isNumber(t, 0, dot) || n == cost.length) continue;
+            int comma = t.indexOf(',', manaAt);
+            int close = t.indexOf(')', comma);
+            if (comma < 0 || close < 0) continue;
+            cost[n] = Integer.parseInt(t.substring(manaAt + 7, comma).trim());
+            String state = t.substring(comma + 1, close).trim();
+            int cd = state.startsWith("Cooldown: ") ? Integer.parseInt(state.substring(10)) : 0;
+            readyAt[n] = battleTurns + cd;
+            if (pick == null && cd == 0 && (mana < 0 || cost[n] <= mana)) {
+                pick = t.substring(0, dot);
+                readyAt[n] = battleTurns + ASSUMED_COOLDOWN;
+            }
+            n++;
+        }
+        skillCost = Arrays.copyOf(cost, n);
+        skillReadyAtTurn = Arrays.copyOf(readyAt, n);
+        // Nothing castable: the menu re-prompts until something is; the answer limit ends a stuck run
+        return pick != null ? pick : "1";
+    }
+
+    private boolean skillExpectedReady() {
+        if (skillCost.length == 0) return mana > 0; // never opened the menu in this life
+        for (int i = 0; i < skillCost.length; i++) {
+            if (skillReadyAtTurn[i] <= battleTurns && skillCost[i] <= mana) return true;
+        }
+        return false;
+    }
+
+    private void resetSkills() {
+        skillCost = new int[0];
+        skillReadyAtTurn = new int[0];
+        mana = -1;
+    }
+
+    // --- Text Helpers ---
+
+    // "You: 120/150 HP | 35/60 Mana" -> 35
+    private static int parseMana(CharSequence s, int you) {
+        int bar = indexOf(s, "| ", you);
+        if (bar < 0) return -1;
+        int i = bar + 2, v = 0;
+        boolean any = false;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) {
+            v = v * 10 + (s.charAt(i++) - '0');
+            any = true;
+        }
+        return any ? v : -1;
+    }
+
+    private static String[] lines(CharSequence s, int from) {
+        return s.subSequence(from, s.length()).toString().split("\r?\n");
+    }
+
+    private static String lastLine(CharSequence s) {
+        int end = s.length() - 1;
+        while (end > 0 && (s.charAt(end) == '\n' || s.charAt(end) == '\r')) end--;
+        int start = end;
+        while (start > 0 && s.charAt(start - 1) != '\n') start--;
+        return s.subSequence(start, end + 1).toString();
+    }
+
+    private static boolean isNumber(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!Character.isDigit(c) && !(c == '-' && i == from)) return false;
+        }
+        return to > from;
+    }
+
+    private static boolean endsWith(CharSequence s, String suffix) {
+        int off = s.length() - suffix.length();
+        if (off < 0) return false;
+        for (int i = 0; i < suffix.length(); i++) {
+            if (s.charAt(off + i) != suffix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int lastIndexOf(CharSequence s, String needle) {
+        return s instanceof StringBuilder sb ? sb.lastIndexOf(needle) : s.toString().lastIndexOf(needle);
+    }
+
+    private static int indexOf(CharSequence s, String needle, int from) {
+        return s instanceof StringBuilder sb ? sb.indexOf(needle, from) : s.toString().indexOf(needle, from);
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BotPlayer
+--------------------------------------------------------------------------------
+Socket client that plays Death's Game end to end for load testing: recognises
+each prompt from the server's text, answers with a seeded random strategy
+(push forward, take the boss room, attack or cast a ready skill, random y/n at
+Death's throne), and records per-turn latency in a LatencyHistogram.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,74 @@
+package com.mycompany.game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RenderSink that collects text in memory and writes it out in one go on
+ * flush(). PlayerInput flushes before every read, so the player receives
+ * a whole turn or menu per write instead of one synchronized write per line.
+ */
+public class BufferedRenderSink extends RenderSink {
+    private final Writer target;
+    private final String lineSeparator;
+    // Pending text for the current turn/menu (Data structure: StringBuilder)
+    private final StringBuilder buffer = new StringBuilder(1024);
+
+    /** Console/stream sink using the platform line separator. */
+    public BufferedRenderSink(OutputStream out) {
+        this(new OutputStreamWriter(out, StandardCharsets.UTF_8), System.lineSeparator());
+    }
+
+    public BufferedRenderSink(Writer target, String lineSeparator) {
+        this.target = target;
+        this.lineSeparator = lineSeparator;
+    }
+
+    @Override
+    public void print(String text) {
+        if (lineSeparator.equals("\n") || text.indexOf('\n') < 0) buffer.append(text);
+        else buffer.append(text.replace("\n", lineSeparator));
+    }
+
+    @Override
+    public void println(String text) {
+        buffer.append(text).append(lineSeparator);
+    }
+
+    @Override
+    public void printf(String format, Object... args) {
+        buffer.append(String.format(format, args).replace("\n", lineSeparator));
+    }
+
+    /**
+     * --- Flush ---
+     * Writes everything buffered since the last flush as a single write.
+     */
+    @Override
+    public void flush() {
+        if (buffer.length() == 0) return;
+        try {
+            target.write(buffer.toString());
+            target.flush();
+        } catch (IOException e) {
+            onWriteFailure(e);
+        }
+        buffer.setLength(0);
+    }
+
+    /** Called when the destination rejects a write; the default drops the text. */
+    protected void onWriteFailure(IOException e) {
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: BufferedRenderSink
+--------------------------------------------------------------------------------
+Turn/menu-buffered RenderSink over a Writer. Used for the console game; the
+networked SessionRenderSink builds on it.
+--------------------------------------------------------------------------------
+*/
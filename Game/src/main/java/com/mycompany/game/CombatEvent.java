@@ -0,0 +1,71 @@
+package com.mycompany.game;
+
+/**
+ * One combat event (a slot of CombatEventRing).
+ * Events are typed by kind and carry plain fields only: names are the
+ * entities' own (immutable) strings and numbers are copied, so a consumer
+ * never touches the live Hero/Monster. Slots are preallocated and reused;
+ * a handler must copy anything it wants to keep after onEvent returns.
+ *
+ * Fields per kind:
+ *   DAMAGE           actor hit target for amount (label = enemy's named move, or null)
+ *   SHIELD_ABSORBED  target's shields absorbed amount
+ *   EFFECT_TICK      effect (POISON/BURN/HEAL) on target for amount
+ *   MANA_RESTORED    target recovered amount mana from an attack
+ *   EFFECT_APPLIED   target gained effect (label = effect name, amount = magnitude, duration)
+ *   EFFECT_EXPIRED   target's effect ran out
+ *   LEVEL_UP         target reached level amount
+ *   DEFEATED         target fell in battle
+ * targetIsHero tells which side target is on.
+ */
+public final class CombatEvent {
+
+    /** What happened. */
+    public enum Kind {
+        DAMAGE, SHIELD_ABSORBED, EFFECT_TICK, MANA_RESTORED,
+        EFFECT_APPLIED, EFFECT_EXPIRED, LEVEL_UP, DEFEATED
+    }
+
+    public Kind kind;
+    public String actor;
+    public String target;
+    public boolean targetIsHero;
+    public int amount;
+    public int duration;
+    public EffectType effect;
+    public String label;
+
+    // Clears the fields a publisher may leave unset
+    CombatEvent reset(Kind kind, String target, boolean targetIsHero) {
+        this.kind = kind;
+        this.actor = null;
+        this.target = target;
+        this.targetIsHero = targetIsHero;
+        this.amount = 0;
+        this.duration = 0;
+        this.effect = null;
+        this.label = null;
+        return this;
+    }
+
+    void copyFrom(CombatEvent other) {
+        kind = other.kind;
+        actor = other.actor;
+        target = other.target;
+        targetIsHero = other.targetIsHero;
+        amount = other.amount;
+        duration = other.duration;
+        effect = other.effect;
+        label = other.label;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: CombatEvent
+--------------------------------------------------------------------------------
+Typed, mutable combat event record (damage, shield absorption, effect ticks,
+mana, effect applied/expired, level-up, defeat) reused as a preallocated slot
+of CombatEventRing and handed to CombatEventHandlers.
+--------------------------------------------------------------------------------
+*/
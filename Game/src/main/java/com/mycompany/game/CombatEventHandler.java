@@ -0,0 +1,20 @@
+package com.mycompany.game;
+
+/**
+ * Consumer of combat events (rendering, metrics, persistence).
+ * The event object is reused for the next event as soon as onEvent returns.
+ */
+@FunctionalInterface
+public interface CombatEventHandler {
+    void onEvent(CombatEvent event);
+}
+
+/*
+--------------------------------------------------------------------------------
+Interface: CombatEventHandler
+--------------------------------------------------------------------------------
+Callback for CombatEventRing consumers: attached inline (run on the rules
+thread right after each publish) or driven by a polling Cursor on another
+thread.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,293 @@
+package com.mycompany.game;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Single-producer, multi-consumer ring of preallocated CombatEvents.
+ * The rules code (Entity, Hero, Monster, BattleEngine) publishes typed
+ * events here instead of printing; consumers turn them into text, metrics
+ * or log records. Each session owns one ring, bound to its thread like
+ * RenderSink, and is its only producer.
+ *
+ * Consumers come in two flavours:
+ * - handlers run inline on the producer's thread right after each publish
+ *   (rendering into the session's buffered sink, counters), so text keeps
+ *   its order with the rest of the session's output;
+ * - cursors poll from any other thread (e.g. CombatLogWriter). The ring
+ *   broadcasts: the producer never waits for a cursor. A cursor that falls
+ *   a full ring behind detects it (per-slot sequence stamps, seqlock
+ *   style), skips ahead and counts the events it lost.
+ * Publishing never blocks and never allocates. With no consumers attached
+ * (headless runs) every publish returns at the first check.
+ */
+public final class CombatEventRing {
+    public static final int DEFAULT_CAPACITY = 256;
+    private static final long BUSY = -1;
+    private static final CombatEventHandler[] NO_HANDLERS = {};
+
+    /** A ring without consumers; publishing to it does nothing. Bound to every thread by default. */
+    public static final CombatEventRing DETACHED = new CombatEventRing(1);
+
+    // Ring bound to the current thread (Data structure: ThreadLocal)
+    private static final ThreadLocal<CombatEventRing> CURRENT = ThreadLocal.withInitial(() -> DETACHED);
+
+    // Preallocated events and the sequence last published in each slot (Data structure: Arrays)
+    private final CombatEvent[] slots;
+    private final AtomicLongArray stamps;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong(); // events published so far
+    private long next;                                     // producer-only copy of published
+
+    // Consumers, copy-on-write (attach them before the session starts publishing)
+    private volatile CombatEventHandler[] handlers = NO_HANDLERS;
+    private volatile Cursor[] cursors = {};
+    private volatile boolean active;
+
+    public CombatEventRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** capacity - slots in the ring (a power of two) */
+    public CombatEventRing(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        slots = new CombatEvent[capacity];
+        for (int i = 0; i < capacity; i++) slots[i] = new CombatEvent();
+        stamps = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) stamps.set(i, BUSY);
+        mask = capacity - 1;
+    }
+
+    /** Returns the ring bound to the calling thread (DETACHED by default). */
+    public static CombatEventRing current() {
+        return CURRENT.get();
+    }
+
+    /** Binds a ring to the calling thread and returns the previously bound one. */
+    public static CombatEventRing bind(CombatEventRing ring) {
+        CombatEventRing previous = CURRENT.get();
+        CURRENT.set(ring);
+        return previous;
+    }
+
+    // --- Consumers ---
+
+    /** Attaches a handler that runs on the producer's thread after every publish. */
+    public synchronized void addHandler(CombatEventHandler handler) {
+        checkAttachable();
+        CombatEventHandler[] h = Arrays.copyOf(handlers, handlers.length + 1);
+        h[h.length - 1] = handler;
+        handlers = h;
+        active = true;
+    }
+
+    /** Attaches a polling consumer that starts at the next event published. */
+    public synchronized Cursor subscribe() {
+        checkAttachable();
+        Cursor c = new Cursor(this, published.get());
+        Cursor[] cs = Arrays.copyOf(cursors, cursors.length + 1);
+        cs[cs.length - 1] = c;
+        cursors = cs;
+        active = true;
+        return c;
+    }
+
+    /** True if anything consumes this ring's events (publishers may skip work otherwise). */
+    public boolean isActive() {
+        return active;
+    }
+
+    /** Marks the end of the stream: cursors finish once they have read everything published. */
+    public void close() {
+        for (Cursor c : cursors) c.closed = true;
+    }
+
+    public int capacity() { return slots.length; }
+    public long published() { return published.get(); }
+
+    private void checkAttachable() {
+        if (this == DETACHED) throw new IllegalStateException("DETACHED ring takes no consumers");
+    }
+
+    // --- Publishing (producer thread only) ---
+
+    public void damage(Entity actor, Entity target, int amount, String move) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.DAMAGE, target);
+        e.actor = actor.name;
+        e.amount = amount;
+        e.label = move;
+        publish(e);
+    }
+
+    /** damage() for targets without an Entity (EnemyGroup foes, or a whole pack by its label). */
+    public void damage(String actor, String target, boolean targetIsHero, int amount, String move) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.DAMAGE, target, targetIsHero);
+        e.actor = actor;
+        e.amount = amount;
+        e.label = move;
+        publish(e);
+    }
+
+    public void shieldAbsorbed(Entity target, int amount) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.SHIELD_ABSORBED, target);
+        e.amount = amount;
+        publish(e);
+    }
+
+    public void effectTick(Entity target, EffectType effect, int amount) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.EFFECT_TICK, target);
+        e.effect = effect;
+        e.amount = amount;
+        publish(e);
+    }
+
+    /** effectTick() for an enemy without an Entity (e.g. an EnemyGroup's summed ticks). */
+    public void effectTick(String target, EffectType effect, int amount) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.EFFECT_TICK, target, false);
+        e.effect = effect;
+        e.amount = amount;
+        publish(e);
+    }
+
+    public void manaRestored(Entity target, int amount) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.MANA_RESTORED, target);
+        e.amount = amount;
+        publish(e);
+    }
+
+    public void effectApplied(Entity target, StatusEffect effect) {
+        effectApplied(target.name, target instanceof Hero, effect);
+    }
+
+    /** effectApplied() for targets without an Entity. */
+    public void effectApplied(String target, boolean targetIsHero, StatusEffect effect) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.EFFECT_APPLIED, target, targetIsHero);
+        e.effect = effect.type;
+        e.label = effect.name;
+        e.amount = effect.magnitude;
+        e.duration = effect.duration;
+        publish(e);
+    }
+
+    public void effectExpired(Entity target, EffectType effect) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.EFFECT_EXPIRED, target);
+        e.effect = effect;
+        publish(e);
+    }
+
+    public void levelUp(Hero hero) {
+        if (!active) return;
+        CombatEvent e = claim(CombatEvent.Kind.LEVEL_UP, hero);
+        e.amount = hero.level;
+        publish(e);
+    }
+
+    public void defeated(Entity target) {
+        if (!active) return;
+        publish(claim(CombatEvent.Kind.DEFEATED, target));
+    }
+
+    /** defeated() for an enemy without an Entity (e.g. a whole EnemyGroup). */
+    public void defeated(String target) {
+        if (!active) return;
+        publish(claim(CombatEvent.Kind.DEFEATED, target, false));
+    }
+
+    // Marks the next slot as being written, then resets it for the new event
+    private CombatEvent claim(CombatEvent.Kind kind, Entity target) {
+        return claim(kind, target.name, target instanceof Hero);
+    }
+
+    private CombatEvent claim(CombatEvent.Kind kind, String target, boolean targetIsHero) {
+        int i = (int) next & mask;
+        stamps.setOpaque(i, BUSY);
+        VarHandle.storeStoreFence(); // a cursor must see BUSY before any field changes
+        return slots[i].reset(kind, target, targetIsHero);
+    }
+
+    // Stamps the slot with its sequence, advances the cursor, then runs the inline handlers
+    private void publish(CombatEvent e) {
+        long seq = next++;
+        stamps.setRelease((int) seq & mask, seq);
+        published.lazySet(next);
+        for (CombatEventHandler h : handlers) h.onEvent(e);
+    }
+
+    /**
+     * --- Cursor ---
+     * One polling consumer's position in the ring. poll() is called from the
+     * consumer's own thread only.
+     */
+    public static final class Cursor {
+        private final CombatEventRing ring;
+        private final CombatEvent scratch = new CombatEvent(); // stable copy handed to the handler
+        private long sequence;
+        private long dropped;
+        private volatile boolean closed;
+
+        private Cursor(CombatEventRing ring, long start) {
+            this.ring = ring;
+            this.sequence = start;
+        }
+
+        /**
+         * Hands up to limit pending events to the handler, oldest first, and
+         * returns how many were delivered. Events overwritten before they
+         * could be read are skipped and counted in dropped().
+         */
+        public int poll(CombatEventHandler handler, int limit) {
+            int n = 0;
+            while (n < limit && sequence < ring.published.get()) {
+                int i = (int) sequence & ring.mask;
+                if (ring.stamps.getAcquire(i) == sequence) {
+                    scratch.copyFrom(ring.slots[i]);
+                    VarHandle.loadLoadFence(); // re-check the stamp only after the copy
+                    if (ring.stamps.getOpaque(i) == sequence) {
+                        sequence++;
+                        n++;
+                        handler.onEvent(scratch);
+                        continue;
+                    }
+                }
+                // Lapped by the producer: resume half a ring behind it
+                long resume = Math.max(sequence + 1, ring.published.get() - (ring.slots.length >> 1));
+                dropped += resume - sequence;
+                sequence = resume;
+            }
+            return n;
+        }
+
+        /** Events this cursor lost because it fell a full ring behind. */
+        public long dropped() { return dropped; }
+
+        /** True once the ring is closed and every event has been read (or dropped). */
+        public boolean isFinished() {
+            return closed && sequence >= ring.published.get();
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: CombatEventRing
+--------------------------------------------------------------------------------
+Preallocated broadcast ring for CombatEvents with one producer (the session
+thread) and any number of consumers: inline handlers (CombatLogRenderer,
+GameMetrics) and polling Cursors (CombatLogWriter). Sequence-stamped slots let
+cursors read without locks and detect overruns; the producer never blocks.
+Thread-bound like RenderSink; the DETACHED default makes publishing free in
+headless runs and solver searches.
+--------------------------------------------------------------------------------
+*/
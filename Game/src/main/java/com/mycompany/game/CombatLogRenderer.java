@@ -0,0 +1,64 @@
+package com.mycompany.game;
+
+/**
+ * Render consumer: turns combat events into the battle log lines the player
+ * reads. Attached inline to a session's CombatEventRing, so it writes to the
+ * session thread's RenderSink in publish order (the sink buffers; nothing
+ * here touches the console or socket directly). Expiry and defeat events
+ * are not shown: the surrounding game text already narrates them.
+ */
+public final class CombatLogRenderer implements CombatEventHandler {
+
+    @Override
+    public void onEvent(CombatEvent e) {
+        RenderSink out = RenderSink.current();
+        if (!out.isEnabled()) return;
+        switch (e.kind) {
+            case DAMAGE:
+                if (!e.targetIsHero && e.label != null) {
+                    out.println("You use " + e.label + "! " + e.target + " takes " + e.amount + " damage.");
+                } else if (!e.targetIsHero) {
+                    out.println("You attack! " + e.target + " takes " + e.amount + " damage.");
+                } else if (e.label == null) {
+                    out.println(e.actor + " attacks! You take " + e.amount + " damage.");
+                } else {
+                    out.println(e.actor + " uses " + e.label + "! You take " + e.amount + " damage.");
+                }
+                break;
+            case SHIELD_ABSORBED:
+                out.println("Shield absorbed " + e.amount + " damage!");
+                break;
+            case EFFECT_TICK:
+                switch (e.effect) {
+                    case POISON: out.println(e.target + " suffers " + e.amount + " poison damage!"); break;
+                    case BURN: out.println(e.target + " suffers " + e.amount + " burn damage!"); break;
+                    case HEAL: out.println(e.target + " is healed for " + e.amount + " HP!"); break;
+                    default: break;
+                }
+                break;
+            case MANA_RESTORED:
+                out.println("You recover " + e.amount + " mana from your attack.");
+                break;
+            case EFFECT_APPLIED:
+                if (e.targetIsHero) out.println("You gain effect: " + e.label + " (" + e.duration + " turns)");
+                else out.println(e.target + " is afflicted with " + e.label + " (" + e.duration + " turns)");
+                break;
+            case LEVEL_UP:
+                out.println("LEVEL UP! You are now level " + e.amount + "!");
+                break;
+            default:
+                break;
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: CombatLogRenderer
+--------------------------------------------------------------------------------
+Presentation side of the combat event pipeline: formats DAMAGE, SHIELD_ABSORBED,
+EFFECT_TICK, MANA_RESTORED, EFFECT_APPLIED and LEVEL_UP events as the classic
+battle text on the current RenderSink. Attached by GameSession when its sink
+is enabled.
+--------------------------------------------------------------------------------
+*/
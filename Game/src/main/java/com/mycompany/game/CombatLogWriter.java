@@ -0,0 +1,151 @@
+package com.mycompany.game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Persistence consumer: appends every combat event of the attached sessions
+ * to a tab-separated file (session, kind, actor, target, amount, duration,
+ * effect, label). One background thread polls all sessions' rings through
+ * Cursors and does the file I/O, so a slow disk never holds up a session;
+ * if it falls a whole ring behind, the lost events are counted and
+ * reported on close instead.
+ *
+ * Usage: Game [--server] --combat-log file
+ */
+public final class CombatLogWriter implements AutoCloseable {
+    private static final int BATCH = 256;                  // events per session per pass
+    private static final long IDLE_NANOS = 10_000_000L;   // sleep when every ring is empty
+
+    private final BufferedWriter out;
+    private final Thread thread;
+    // Attached sessions (Data structure: CopyOnWriteArrayList; the writer thread iterates, sessions add)
+    private final CopyOnWriteArrayList<Source> sources = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    // --- Writer-thread state ---
+    private long written, dropped;
+    private IOException failure;
+
+    public CombatLogWriter(Path file) throws IOException {
+        out = Files.newBufferedWriter(file);
+        out.write("session\tkind\tactor\ttarget\tamount\tduration\teffect\tlabel");
+        out.newLine();
+        thread = Thread.ofPlatform().daemon().name("combat-log-writer").start(this::drainLoop);
+    }
+
+    /**
+     * --- Attach Session ---
+     * Subscribes to a session's ring (call before the session runs); its
+     * events are logged under the given label until the ring is closed.
+     */
+    public void attach(CombatEventRing ring, String label) {
+        sources.add(new Source(label, ring.subscribe()));
+    }
+
+    // Polls every ring until close(), sleeping briefly whenever there is nothing to write
+    private void drainLoop() {
+        while (running) {
+            if (drainOnce() == 0) {
+                flush();
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+        while (drainOnce() > 0) {
+            // final pass: everything published before close()
+        }
+        flush();
+    }
+
+    private int drainOnce() {
+        int n = 0;
+        for (Source s : sources) {
+            n += s.cursor.poll(s, BATCH);
+            if (s.cursor.isFinished()) {
+                dropped += s.cursor.dropped();
+                sources.remove(s);
+            }
+        }
+        return n;
+    }
+
+    private void flush() {
+        if (failure != null) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /** Stops the writer after logging everything already published, then closes the file. */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Source s : sources) dropped += s.cursor.dropped();
+        out.close();
+        if (dropped > 0) System.err.println("[Combat log] " + dropped + " event(s) dropped (writer fell behind)");
+        if (failure != null) throw failure;
+    }
+
+    /** Events written so far (read after close() for an exact count). */
+    public long written() { return written; }
+
+    // One attached session: its cursor plus the formatter that writes its lines
+    private final class Source implements CombatEventHandler {
+        final String label;
+        final CombatEventRing.Cursor cursor;
+
+        Source(String label, CombatEventRing.Cursor cursor) {
+            this.label = label;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void onEvent(CombatEvent e) {
+            if (failure != null) return;
+            try {
+                out.write(label);
+                out.write('\t');
+                out.write(e.kind.name());
+                out.write('\t');
+                out.write(e.actor != null ? e.actor : "");
+                out.write('\t');
+                out.write(e.target);
+                out.write('\t');
+                out.write(Integer.toString(e.amount));
+                out.write('\t');
+                out.write(Integer.toString(e.duration));
+                out.write('\t');
+                out.write(e.effect != null ? e.effect.name() : "");
+                out.write('\t');
+                out.write(e.label != null ? e.label : "");
+                out.newLine();
+                written++;
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: CombatLogWriter
+--------------------------------------------------------------------------------
+Asynchronous combat event log (Game --combat-log file). A single daemon thread
+polls the CombatEventRing Cursors of all attached sessions and writes TSV
+records, so file I/O stays off the session threads; overruns are counted, not
+waited for.
+--------------------------------------------------------------------------------
+*/
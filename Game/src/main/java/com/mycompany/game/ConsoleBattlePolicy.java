@@ -0,0 +1,179 @@
+package com.mycompany.game;
+
+/**
+ * BattlePolicy that asks the human player, via the battle menu, what to do.
+ * This is the thin interactive adapter over BattleEngine: it only renders
+ * the menu and translates the typed choice into a BattleAction.
+ */
+public class ConsoleBattlePolicy implements BattlePolicy {
+    private final PlayerInput in;
+    private BattleSolver solver; // created on the first Hint request
+    // The solver plays one-on-one fights only; pack hints follow the greedy policy
+    private static final GreedySkillPolicy GREEDY = new GreedySkillPolicy();
+    // Foes listed by Choose Target in packs up to this size
+    private static final int TARGET_LIST_LIMIT = 12;
+    // Chosen target in a group fight (EnemyGroup id, -1 = weakest) and the fill it belongs to
+    private int focus = -1, focusGeneration;
+
+    public ConsoleBattlePolicy(PlayerInput in) {
+        this.in = in;
+    }
+
+    /**
+     * --- Battle Menu ---
+     * Dungeon fights offer Attack/Skill/Run/Check Status; the final domains
+     * only accept Attack or Skill and re-prompt until one is entered.
+     * Hint asks the BattleSolver for advice and does not use up the turn.
+     */
+    @Override
+    public BattleAction chooseAction(Hero hero, Monster enemy, Encounter encounter) {
+        RenderSink out = RenderSink.current();
+        if (encounter.allowsFullMenu()) {
+            out.println("Player Level: " + hero.getLevel());
+            Hero.printBattleStatus(hero, enemy);
+            out.println("Choose your action:");
+            out.println("  1. Attack");
+            out.println("  2. Skill");
+            out.println("  3. Run");
+            out.println("  4. Check Status");
+            out.println("  5. Hint");
+            while (true) {
+                out.print("> ");
+                switch (in.nextLine()) {
+                    case "1": return BattleAction.ATTACK;
+                    case "2": return BattleAction.skill(hero.chooseSkill(in));
+                    case "3": return BattleAction.FLEE;
+                    case "4": return BattleAction.STATUS;
+                    case "5": printHint(hero, enemy, encounter); break;
+                    default: return BattleAction.HESITATE;
+                }
+            }
+        }
+        Hero.printBattleStatus(hero, enemy);
+        out.println("Choose your action:");
+        out.println("  1. Attack");
+        out.println("  2. Skill");
+        out.println("  3. Hint");
+        while (true) {
+            out.print("> ");
+            String action = in.nextLine();
+            if ("1".equals(action)) return BattleAction.ATTACK;
+            if ("2".equals(action)) return BattleAction.skill(hero.chooseSkill(in));
+            if ("3".equals(action)) {
+                printHint(hero, enemy, encounter);
+                continue;
+            }
+            out.println("Invalid input. Enter 1, 2 or 3.");
+        }
+    }
+
+    /**
+     * --- Battle Menu (Group) ---
+     * Attack/Skill/Run/Check Status/Hint with the same numbers as one-on-one
+     * fights, plus Choose Target, which picks the foe that attacks and
+     * single-target skills aim at. Neither Hint nor Choose Target uses up the
+     * turn. With no target, or once it falls, the weakest foe is struck.
+     */
+    @Override
+    public BattleAction chooseAction(Hero hero, EnemyGroup group, Encounter encounter) {
+        RenderSink out = RenderSink.current();
+        if (focusGeneration != group.generation() || group.indexOf(focus) < 0) focus = -1;
+        out.println("Player Level: " + hero.getLevel());
+        Hero.printBattleStatus(hero, group);
+        if (focus >= 0) out.println("Target: " + group.name(group.indexOf(focus)));
+        out.println("Choose your action:");
+        out.println("  1. Attack");
+        out.println("  2. Skill");
+        out.println("  3. Run");
+        out.println("  4. Check Status");
+        out.println("  5. Hint");
+        out.println("  6. Choose Target");
+        while (true) {
+            out.print("> ");
+            switch (in.nextLine()) {
+                case "1": return BattleAction.attack(focus);
+                case "2": return BattleAction.skill(hero.chooseSkill(in), focus);
+                case "3": return BattleAction.FLEE;
+                case "4": return BattleAction.STATUS;
+                case "5": printHint(hero, group, encounter); break;
+                case "6": chooseTarget(group); break;
+                default: return BattleAction.HESITATE;
+            }
+        }
+    }
+
+    /**
+     * --- Target Prompt ---
+     * Lists the standing foes (small packs only) and reads the number of the
+     * one to focus on.
+     */
+    private void chooseTarget(EnemyGroup group) {
+        RenderSink out = RenderSink.current();
+        if (group.alive() <= TARGET_LIST_LIMIT) {
+            for (int i = 0; i < group.alive(); i++) {
+                out.println("  " + (group.id(i) + 1) + ". " + group.name(i) + " (" + group.hp(i) + "/" + group.maxHp(i) + " HP)");
+            }
+        }
+        out.print("Target number (1-" + group.size() + "): ");
+        String pick = in.nextLine();
+        int id;
+        try {
+            id = Integer.parseInt(pick == null ? "" : pick.trim()) - 1;
+        } catch (NumberFormatException e) {
+            id = -1;
+        }
+        int i = group.indexOf(id);
+        if (i < 0) {
+            out.println("No such foe is standing.");
+            return;
+        }
+        focus = id;
+        focusGeneration = group.generation();
+        out.println("You focus on " + group.name(i) + ".");
+    }
+
+    /**
+     * --- Hint ---
+     * Prints the solver's recommended action and the estimated win chance
+     * after each option.
+     */
+    private void printHint(Hero hero, Monster enemy, Encounter encounter) {
+        RenderSink out = RenderSink.current();
+        if (solver == null) solver = new BattleSolver();
+        BattleSolver.Evaluation eval = solver.evaluate(hero, enemy, encounter);
+        out.printf("Hint: %s (estimated win chance %.0f%%, looking %d turns ahead)%n",
+                actionName(hero, eval.best), eval.winChance * 100, eval.depth);
+        StringBuilder line = new StringBuilder("  Options:");
+        for (int i = 0; i < eval.actions.length; i++) {
+            line.append(i == 0 ? " " : " | ").append(actionName(hero, eval.actions[i]))
+                    .append(' ').append(Math.round(eval.values[i] * 100)).append('%');
+        }
+        out.println(line.toString());
+    }
+
+    /**
+     * --- Hint (Group) ---
+     * Prints the greedy policy's pick for a pack fight (the solver has no
+     * pack model, so there is no win chance to show).
+     */
+    private void printHint(Hero hero, EnemyGroup group, Encounter encounter) {
+        BattleAction best = GREEDY.chooseAction(hero, group, encounter);
+        RenderSink.current().println("Hint: " + actionName(hero, best) + " (greedy pick: ultimates first, then any ready skill)");
+    }
+
+    private static String actionName(Hero hero, BattleAction action) {
+        return action.kind == BattleAction.Kind.SKILL ? hero.getSkill(action.skillIndex).name : "Attack";
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: ConsoleBattlePolicy
+--------------------------------------------------------------------------------
+Interactive BattlePolicy: prints the battle status and action menu, reads the
+player's choice from PlayerInput and hands it to BattleEngine. The Hint option
+shows BattleSolver's recommendation (the greedy pick in group fights) without
+spending the turn; in group fights Choose Target (6) sets the foe later attacks
+aim at.
+--------------------------------------------------------------------------------
+*/
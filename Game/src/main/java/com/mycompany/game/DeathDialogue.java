@@ -1,7 +1,6 @@
 package com.mycompany.game;
 
 import java.util.Set;
-import java.util.Scanner;
 
 /**
  * Handles all narrative dialogue and story presentation for "Death".
@@ -21,24 +20,24 @@ public class DeathDialogue {
     };
 
     // --- Dramatic Print Utility ---
-    // Used for immersive, timed narrative delivery.
+    // Used for immersive, timed narrative delivery. The pause is a beat on the
+    // session's sink (see PacedRenderSink), so no thread sleeps during cutscenes.
     private static void dramaticPrint(String text) {
-        System.out.println(text);
-        dramaticPause();
-    }
-    private static void dramaticPause() {
-        try { Thread.sleep(900); } catch (InterruptedException e) {}
+        RenderSink out = RenderSink.current();
+        out.println(text);
+        out.beat();
     }
 
     // --- Prologue ---
     public static void prologue(String name) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("The void is cold, endless. Your final thoughts echo, swallowed by silence.");
         dramaticPrint("But... something stirs.");
-        System.out.println();
+        out.println();
         dramaticPrint("A presence looms, ancient and amused.");
         dramaticPrint("DEATH: \"Welcome, " + name + ". The world has cast you aside, yet I offer you a game.\"");
-        System.out.println();
+        out.println();
         dramaticPrint("DEATH: \"Five souls. Five masks. Each a different fate. Each a fleeting chance.\"");
         dramaticPrint("DEATH: \"Five masks, five fates. Once chosen, a mask cannot be worn again.\"");
         dramaticPrint("DEATH: \"Choose a vessel, and let us see if you can amuse Death itself.\"");
@@ -47,7 +46,8 @@ public class DeathDialogue {
 
     // --- Announce Dungeon Objectives ---
     public static void announceRequiredDungeons() {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("DEATH: \"To complete my game, you must conquer these domains in order:");
         for (int i = 0; i < REQUIRED_DUNGEONS.length; i++) {
             dramaticPrint("  " + (i + 1) + ". " + REQUIRED_DUNGEONS[i]);
@@ -58,7 +58,8 @@ public class DeathDialogue {
 
     // --- Pre-Class Selection (HeroType) ---
     public static void preClassSelection(Set<HeroType> usedTypes) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         if (usedTypes.isEmpty()) {
             dramaticPrint("DEATH: \"Your first mask! Try not to trip over your own feet, mortal.\"");
         } else {
@@ -84,17 +85,18 @@ public class DeathDialogue {
 
     // --- Transmigration: New Mask/Body ---
     public static void transmigration(String name, String className, int livesLeft, Set<HeroType> usedTypes) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("A cold wind rushes through the void. A mask - your new fate - descends upon you.");
         dramaticPrint("DEATH: \"Now you walk as a " + className + ".\"");
         dramaticPrint("DEATH: \"But remember: each choice seals away a soul. There " + (livesLeft == 1 ? "is only 1 mask" : "are only " + livesLeft + " masks") + " remaining.\"");
-        System.out.print("Masks worn: ");
+        out.print("Masks worn: ");
         int i = 0;
         for (HeroType t : usedTypes) {
-            if (i++ > 0) System.out.print(", ");
-            System.out.print(t.name);
+            if (i++ > 0) out.print(", ");
+            out.print(t.name);
         }
-        System.out.println(".");
+        out.println(".");
         dramaticPrint("DEATH: \"Your game begins anew. Try not to embarrass yourself.\"");
         pause();
     }
@@ -107,7 +109,8 @@ public class DeathDialogue {
 
     // --- On Player Death (Lose Mask) ---
     public static void onDeath(int livesLeft) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("The world fades. Death's laughter is thunder in the darkness.");
         if (livesLeft > 1) {
             dramaticPrint("DEATH: \"Another mask shatters. Only " + livesLeft + " remain. I hope the next one is less disappointing.\"");
@@ -121,23 +124,25 @@ public class DeathDialogue {
 
     // --- On Losing a Life, but Not Game Over ---
     public static void onLifeLost(int livesLeft, Set<HeroType> usedTypes) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("DEATH: \"You failed, but the game is not yet over.\"");
         dramaticPrint("DEATH: \"You have " + livesLeft + " vessel" + (livesLeft == 1 ? "" : "s") + " left.\"");
-        System.out.print("Worn masks: ");
+        out.print("Worn masks: ");
         int i = 0;
         for (HeroType type : usedTypes) {
-            if (i++ > 0) System.out.print(", ");
-            System.out.print(type.name());
+            if (i++ > 0) out.print(", ");
+            out.print(type.name());
         }
-        System.out.println(".");
+        out.println(".");
         dramaticPrint("DEATH: \"Choose wisely. Each soul is unique - and when the last mask cracks, so too does your hope. Of course, maybe you'll just trip over your own shadow again!\"");
         pause();
     }
 
     // --- Domain (Dungeon) Dialogue ---
     public static void beforeDomain(String name, String theme, boolean firstTime) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         if (firstTime) {
             dramaticPrint("DEATH: \"You stand at the threshold of " + name + ". Your first challenge in this domain. Show me what you're capable of!\"");
         } else {
@@ -146,7 +151,8 @@ public class DeathDialogue {
         pause();
     }
     public static void beforeDomain(String name, String theme) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("DEATH: \"You step into " + name + ". Another domain to conquer, another step toward the end of my game. Don't disappoint me.\"");
         pause();
     }
@@ -155,7 +161,8 @@ public class DeathDialogue {
         pause();
     }
     public static void onDungeonClear(String bossName) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("A final blow, a monstrous wail - the Sin falls.");
         dramaticPrint("The world shudders. The domain dissolves.");
         dramaticPrint("DEATH (distant, almost pleased): \"Well done. I almost thought you'd lose. Almost.\"");
@@ -164,13 +171,15 @@ public class DeathDialogue {
 
     // --- Mirror Boss (Shadow) Dialogue ---
     public static void beforeMirror() {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("A mirror stands before you, silvered and deep.");
         dramaticPrint("DEATH: \"Now, face the mask beneath all others: yourself. Try not to run away screaming!\"");
         pause();
     }
     public static void onMirrorClear() {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("Your shadow bows in defeat. The mirror shatters, and you step forward, more whole than before.");
         dramaticPrint("DEATH: \"I see you survived. I was sure you'd get lost in your own reflection!\"");
         pause();
@@ -178,7 +187,8 @@ public class DeathDialogue {
 
     // --- Final Boss (Death) Dialogue ---
     public static void beforeDeath() {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("Death stands tall, no longer hidden.");
         dramaticPrint("DEATH: \"You've danced through all your masks. Will you grasp at final freedom, or accept what reward I offer? Either way, this is my favorite part.\"");
         pause();
@@ -191,14 +201,16 @@ public class DeathDialogue {
 
     // --- Endings ---
     public static void badEnding() {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("DEATH: \"You've squandered every chance. No more masks, no more hope. Your soul is mine. Not that you ever had much of a chance!\"");
         dramaticPrint("A system window flashes: [GAME OVER]");
         dramaticPrint("Death's laughter is the last sound you hear.");
         pause();
     }
     public static void goodEnding(String name) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("Light blossoms. Death gives a curt nod, a rare glint of respect.");
         dramaticPrint("DEATH: \"You have played well, " + name + ". The world returns to you - but remember the masks you wore. And how you stumbled through most of them.\"");
         pause();
@@ -207,13 +219,15 @@ public class DeathDialogue {
         pause();
     }
     public static void trueEnding(String name) {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("DEATH: \"You have even faced me, and triumphed. This game is yours, " + name + ". That's rare. Don't let it go to your head.\"");
         dramaticPrint("The void parts, and a new dawn rises - yours to shape, free of any mask.");
         pause();
     }
     public static void finalBadEnding() {
-        System.out.println("--------------------------------------------------");
+        RenderSink out = RenderSink.current();
+        out.println("--------------------------------------------------");
         dramaticPrint("DEATH: \"No more masks, no more games. Your story ends here, in the darkness. You were almost entertaining.\"");
         dramaticPrint("A system window flashes: [ULTIMATE GAME OVER]");
         pause();
@@ -221,10 +235,11 @@ public class DeathDialogue {
 
     // --- Utility: Pause for Input ---
     private static void pause() {
-        dramaticPause();
-        System.out.println("-- Press Enter to continue --");
-        new Scanner(System.in).nextLine();
-        dramaticPause();
+        RenderSink out = RenderSink.current();
+        out.beat();
+        out.println("-- Press Enter to continue --");
+        PlayerInput.current().nextLine();
+        out.beat();
     }
 }
 
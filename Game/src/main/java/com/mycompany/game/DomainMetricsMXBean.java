@@ -0,0 +1,24 @@
+package com.mycompany.game;
+
+/**
+ * JMX view of one domain's battle counters
+ * (ObjectName com.mycompany.game:type=DomainMetrics,name=<domain>).
+ */
+public interface DomainMetricsMXBean {
+    String getDomain();
+    long getBattlesStarted();
+    long getBattlesFinished();
+    long getBattlesInProgress();
+    long getVictories();
+    long getDefeats();
+    long getEscapes();
+}
+
+/*
+--------------------------------------------------------------------------------
+Interface: DomainMetricsMXBean
+--------------------------------------------------------------------------------
+Management interface of GameMetrics.DomainStats: battles started, finished (by
+outcome) and in progress for a sin domain, the Mirror or Death.
+--------------------------------------------------------------------------------
+*/
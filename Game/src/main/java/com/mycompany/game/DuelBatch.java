@@ -0,0 +1,174 @@
+package com.mycompany.game;
+
+import java.util.random.RandomGenerator;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Many independent basic-attack duels stored as parallel int arrays and
+ * resolved in lockstep with the Vector API, one lane per duel.
+ * Each round the hero lands Hero.attack's basic hit
+ * (max(1, mainStat * 2 + level * 2 - DEF + roll)) and, if the monster still
+ * stands, takes Monster.enemyAttack's hit (max(1, atk - DEF)) — a dungeon
+ * fight (REGULAR / BOSS) under BattlePolicy.ALWAYS_ATTACK with no status
+ * effects. Rolls come from a per-lane xorshift stream seeded by add(), so a
+ * batch is reproducible but does not replay BattleEngine's RNG sequence.
+ *
+ * Needs --add-modules jdk.incubator.vector at compile and run time.
+ */
+public final class DuelBatch {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    // The roll is the top ROLL_BITS of each lane's xorshift state (ATTACK_ROLL is a power of two)
+    private static final int ROLL_BITS = Integer.numberOfTrailingZeros(Hero.ATTACK_ROLL);
+    static {
+        if (Integer.bitCount(Hero.ATTACK_ROLL) != 1) throw new ExceptionInInitializerError("ATTACK_ROLL must be a power of two");
+    }
+
+    private final RandomGenerator seeds;
+    private int size;
+    // One lane per duel (Data structure: parallel arrays, struct-of-arrays)
+    private final int[] heroHp, heroMaxHp, heroMainStat, heroLevel, heroDef;
+    private final int[] enemyHp, enemyAtk, enemyDef;
+    private final int[] turns;
+    private final int[] rolls; // xorshift32 state, never 0
+
+    /**
+     * --- DuelBatch Constructor ---
+     * capacity - most duels the batch holds
+     * seeds - source of each lane's roll stream (drawn once per add)
+     */
+    public DuelBatch(int capacity, RandomGenerator seeds) {
+        this.seeds = seeds;
+        heroHp = new int[capacity];
+        heroMaxHp = new int[capacity];
+        heroMainStat = new int[capacity];
+        heroLevel = new int[capacity];
+        heroDef = new int[capacity];
+        enemyHp = new int[capacity];
+        enemyAtk = new int[capacity];
+        enemyDef = new int[capacity];
+        turns = new int[capacity];
+        rolls = new int[capacity];
+    }
+
+    /** True if fights of this kind are plain basic-attack duels DuelBatch can resolve. */
+    public static boolean supports(Encounter encounter) {
+        return encounter.isDungeon();
+    }
+
+    public int size() { return size; }
+    public int capacity() { return turns.length; }
+
+    /** Empties the batch so its lanes can be refilled. */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * --- Add Duel ---
+     * Copies the hero's and monster's current HP and stats into the next lane
+     * and returns its index. The objects are not referenced afterwards.
+     */
+    public int add(Hero hero, Monster enemy) {
+        int i = size++;
+        heroHp[i] = hero.hp;
+        heroMaxHp[i] = hero.maxHp;
+        heroMainStat[i] = hero.mainStat();
+        heroLevel[i] = hero.level;
+        heroDef[i] = hero.stats[3];
+        enemyHp[i] = enemy.hp;
+        enemyAtk[i] = enemy.atk;
+        enemyDef[i] = enemy.def;
+        turns[i] = 0;
+        rolls[i] = seeds.nextInt() | 1;
+        return i;
+    }
+
+    /**
+     * --- Resolve ---
+     * Fights every lane to the end. Full vectors advance round by round until
+     * all their lanes are decided (finished lanes are masked off); the tail
+     * that does not fill a vector runs the same rules one lane at a time.
+     */
+    public void resolve() {
+        int upper = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector hp = IntVector.fromArray(SPECIES, heroHp, i);
+            IntVector foeHp = IntVector.fromArray(SPECIES, enemyHp, i);
+            IntVector roll = IntVector.fromArray(SPECIES, rolls, i);
+            IntVector rounds = IntVector.fromArray(SPECIES, turns, i);
+            // attackPower() - DEF, before the roll; the monster's hit is fixed
+            IntVector heroBase = IntVector.fromArray(SPECIES, heroMainStat, i)
+                    .add(IntVector.fromArray(SPECIES, heroLevel, i))
+                    .mul(2)
+                    .sub(IntVector.fromArray(SPECIES, enemyDef, i));
+            IntVector foeHit = IntVector.fromArray(SPECIES, enemyAtk, i)
+                    .sub(IntVector.fromArray(SPECIES, heroDef, i))
+                    .max(1);
+            VectorMask<Integer> live = hp.compare(VectorOperators.GT, 0)
+                    .and(foeHp.compare(VectorOperators.GT, 0));
+            while (live.anyTrue()) {
+                roll = roll.lanewise(VectorOperators.XOR, roll.lanewise(VectorOperators.LSHL, 13));
+                roll = roll.lanewise(VectorOperators.XOR, roll.lanewise(VectorOperators.LSHR, 17));
+                roll = roll.lanewise(VectorOperators.XOR, roll.lanewise(VectorOperators.LSHL, 5));
+                IntVector hit = heroBase.add(roll.lanewise(VectorOperators.LSHR, 32 - ROLL_BITS)).max(1);
+                rounds = rounds.add(1, live);
+                foeHp = foeHp.sub(hit, live);
+                live = live.andNot(foeHp.compare(VectorOperators.LE, 0));
+                hp = hp.sub(foeHit, live);
+                live = live.andNot(hp.compare(VectorOperators.LE, 0));
+            }
+            hp.intoArray(heroHp, i);
+            foeHp.intoArray(enemyHp, i);
+            roll.intoArray(rolls, i);
+            rounds.intoArray(turns, i);
+        }
+        for (; i < size; i++) resolveLane(i);
+    }
+
+    // Scalar path for lanes past the last full vector (same rules and roll stream)
+    private void resolveLane(int i) {
+        int hp = heroHp[i], foeHp = enemyHp[i], roll = rolls[i], rounds = turns[i];
+        int heroBase = (heroMainStat[i] + heroLevel[i]) * 2 - enemyDef[i];
+        int foeHit = Math.max(1, enemyAtk[i] - heroDef[i]);
+        while (hp > 0 && foeHp > 0) {
+            roll ^= roll << 13;
+            roll ^= roll >>> 17;
+            roll ^= roll << 5;
+            rounds++;
+            foeHp -= Math.max(1, heroBase + (roll >>> (32 - ROLL_BITS)));
+            if (foeHp <= 0) break;
+            hp -= foeHit;
+        }
+        heroHp[i] = hp;
+        enemyHp[i] = foeHp;
+        rolls[i] = roll;
+        turns[i] = rounds;
+    }
+
+    /** True if the hero won the duel in lane i (after resolve). */
+    public boolean heroWon(int i) { return enemyHp[i] <= 0; }
+
+    /** Rounds the duel in lane i lasted (after resolve). */
+    public int turns(int i) { return turns[i]; }
+
+    public int heroHp(int i) { return heroHp[i]; }
+    public int heroMaxHp(int i) { return heroMaxHp[i]; }
+    public int enemyHp(int i) { return enemyHp[i]; }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: DuelBatch
+--------------------------------------------------------------------------------
+Struct-of-arrays duel simulator for bulk balance sweeps. Hero and monster HP,
+main stat, level, attack and defense live in parallel int arrays; resolve()
+runs IntVector.SPECIES_PREFERRED lanes at a time (jdk.incubator.vector), with
+lane masks retiring finished duels and a per-lane xorshift roll. Mirrors the
+basic-attack formulas of Hero.attack and Monster.enemyAttack; used by
+BalanceSimulator --vector.
+--------------------------------------------------------------------------------
+*/
@@ -1,357 +1,188 @@
 package com.mycompany.game;
 
-import java.util.LinkedList;
-import java.util.Scanner;
-import java.util.Stack;
+import java.util.random.RandomGenerator;
 
 /**
- * Dungeon class represents a single dungeon domain.
- * Handles exploration, random encounters, boss fights, and room navigation.
+ * One visit to a dungeon domain: the run state of exploration, random
+ * encounters, boss fight and room navigation. The domain's static content
+ * comes from its shared DungeonDefinition; a Dungeon is created when the
+ * player enters and dropped when they leave.
  */
 public class Dungeon {
-    public String name, theme, desc, bossName, monsterType;
-    public int minLevel, minFloor;
-    private boolean cleared = false;
+    public final DungeonDefinition def;
 
     // --- Room/Navigation Tracking ---
-    // History of rooms visited (Data structure: LinkedList)
-    private LinkedList<String> roomHistory = new LinkedList<>();
-    // Stack for backtracking rooms (Data structure: Stack)
-    private Stack<String> roomStack = new Stack<>();
+    // Shared, immutable layout of this domain, replaced by a longer one at the
+    // end of the main passage (Data structure: int-indexed graph, see RoomGraph)
+    private RoomGraph layout;
+    // Current room id (0 = entrance); the explored path is its parent chain
+    private int room;
+    // Buffer for path rendering (allocated on first use)
+    private int[] pathScratch;
+    // Monsters reused across this visit's encounters (Data structure: MonsterPool)
+    private final MonsterPool monsters = new MonsterPool();
+    // Pack reused across this visit's group encounters (Data structure: EnemyGroup, parallel arrays)
+    private final EnemyGroup pack = new EnemyGroup();
+
+    // Packs roam from this depth on; chance that a forward encounter is a pack
+    static final int PACK_MIN_DEPTH = 3;
+    static final double PACK_CHANCE = 0.25;
 
     /**
      * --- Dungeon Constructor ---
-     * Sets up domain attributes and requirements.
+     * Starts a visit to the given domain at its entrance.
      */
-    public Dungeon(String name, String theme, String desc, String bossName, String monsterType, int minLevel, int minFloor) {
-        this.name = name;
-        this.theme = theme;
-        this.desc = desc;
-        this.bossName = bossName;
-        this.monsterType = monsterType;
-        this.minLevel = minLevel;
-        this.minFloor = minFloor;
+    public Dungeon(DungeonDefinition def) {
+        this.def = def;
+        this.layout = def.layout();
     }
 
-    public boolean isCleared() { return cleared; }
-
     /**
      * --- Print Explored Path ---
-     * Shows the sequence of rooms the player has visited in the current dungeon run.
+     * Shows the rooms between the entrance and the player's current room.
+     * Data structure: RoomGraph parent chain (linear in path length)
      */
     public void printExploredPath() {
-        System.out.println("=== Explored Path ===");
-        if (roomHistory.isEmpty()) {
-            System.out.println("You have not explored any rooms yet.");
+        RenderSink out = RenderSink.current();
+        out.println("=== Explored Path ===");
+        if (room == 0) {
+            out.println("You have not explored any rooms yet.");
         } else {
-            for (int i = 0; i < roomHistory.size(); i++) {
-                String marker = (i == roomHistory.size() - 1) ? " <== (Current Room)" : "";
-                System.out.println("  " + roomHistory.get(i) + marker);
-            }
+            if (pathScratch == null || pathScratch.length < layout.maxDepth()) pathScratch = new int[layout.maxDepth()];
+            layout.printPath(out, room, pathScratch);
         }
-        System.out.println("---------------------");
+        out.println("---------------------");
     }
 
     /**
      * --- Dungeon Run ---
      * Handles the full dungeon crawl: exploration, random encounters, boss fights, and room navigation.
-     * Data Structures: LinkedList (roomHistory), Stack (roomStack)
+     * Data Structures: RoomGraph (layout, current room id; moving back is parent lookup)
      * Flow:
-     * - Player moves forward/backward through rooms
+     * - Player moves forward/backward through rooms (choosing a passage where the layout branches)
      * - Encounters random enemies
      * - Can rest, check status, or exit
      * - Boss room after sufficient progress
+     * - Fights are resolved by BattleEngine; fleeing the boss returns to exploration
+     * rng - the session's stream for this run (encounters, events, flee/boss rolls)
      */
-    public boolean runDungeon(Hero player, Scanner scanner) {
-        System.out.println("=== " + name.toUpperCase() + " ===");
-        System.out.println("Theme: " + theme + " | " + desc);
+    public boolean runDungeon(Hero player, PlayerInput in, RandomGenerator rng) {
+        RenderSink out = RenderSink.current();
+        out.println("=== " + def.name.toUpperCase() + " ===");
+        out.println("Theme: " + def.theme + " | " + def.desc);
 
         int moves = 0;
         boolean bossFoyer = false;
         boolean bossDefeated = false;
 
-        roomHistory.clear();
-        roomStack.clear();
+        RoomGraph map = layout;
+        room = 0;
+        BattleEngine engine = new BattleEngine(rng, GameMetrics.domain(def.name));
+        BattlePolicy policy = new ConsoleBattlePolicy(in);
 
         while (!bossDefeated) {
             if (moves >= 5 && !bossFoyer) {
                 bossFoyer = true;
-                System.out.println("You sense a foreboding power ahead. The boss room is near.");
+                out.println("You sense a foreboding power ahead. The boss room is near.");
             }
 
             // --- Navigation Menu ---
-            System.out.println("\n--- Dungeon Exploration ---");
+            out.println("\n--- Dungeon Exploration ---");
             int optionNum = 1;
             int moveForwardChoice = optionNum++;
             Integer moveBackChoice = null;
             Integer bossRoomChoice = null;
 
-            System.out.println("  " + moveForwardChoice + ". Move Forward");
+            out.println("  " + moveForwardChoice + ". Move Forward");
             if (moves > 0) {
                 moveBackChoice = optionNum++;
-                System.out.println("  " + moveBackChoice + ". Move Back");
+                out.println("  " + moveBackChoice + ". Move Back");
             }
             if (bossFoyer) {
                 bossRoomChoice = optionNum++;
-                System.out.println("  " + bossRoomChoice + ". Enter the Boss Room");
+                out.println("  " + bossRoomChoice + ". Enter the Boss Room");
             }
             int statusChoice = optionNum++;
-            System.out.println("  " + statusChoice + ". Check Status");
+            out.println("  " + statusChoice + ". Check Status");
             int pathChoice = optionNum++;
-            System.out.println("  " + pathChoice + ". Print Explored Path"); // <-- New feature here!
+            out.println("  " + pathChoice + ". Print Explored Path"); // <-- New feature here!
             int restChoice = optionNum++;
-            System.out.println("  " + restChoice + ". Rest (restore minor mana)");
+            out.println("  " + restChoice + ". Rest (restore minor mana)");
             int exitChoice = optionNum++;
-            System.out.println("  " + exitChoice + ". Exit Dungeon");
-            System.out.print("> ");
-            String action = scanner.nextLine();
+            out.println("  " + exitChoice + ". Exit Dungeon");
+            out.print("> ");
+            String action = in.nextLine();
 
             // --- Move Forward (explore new room, possible encounter) ---
             if (action.equals(String.valueOf(moveForwardChoice))) {
-                moves++;
-                String roomId = "Room " + moves;
-                roomHistory.add(roomId);
-                roomStack.push(roomId);
-                if (Math.random() < 0.5) {
-                    Monster enemy = Monster.generate(monsterType, minLevel + moves);
-                    System.out.println("A " + enemy.name + " appears!");
-
-                    boolean fled = false;
-                    boolean enemyDefeated = false;
-                    while (!enemyDefeated && player.getHp() > 0 && !fled) {
-                        // --- Player's turn ---
-                        if (player.isStunned()) {
-                            System.out.println("You are stunned and cannot act!");
-                            player.processStatusEffects();
-                            player.tickSkillCooldowns();
-                        } else {
-                            player.processStatusEffects();
-                            enemy.processStatusEffects();
-                            player.tickSkillCooldowns();
-
-                            System.out.println("Player Level: " + player.getLevel());
-                            Hero.printBattleStatus(player, enemy);
-                            System.out.println("Choose your action:");
-                            System.out.println("  1. Attack");
-                            System.out.println("  2. Skill");
-                            System.out.println("  3. Run");
-                            System.out.println("  4. Check Status");
-                            System.out.print("> ");
-                            String fightChoice = scanner.nextLine();
-                            switch (fightChoice) {
-                                case "1":
-                                    if (player.attack(enemy)) {
-                                        System.out.println("Enemy defeated!");
-                                        player.gainExp(8 + minLevel * 2);
-                                        enemyDefeated = true;
-                                    }
-                                    break;
-                                case "2":
-                                    if (player.useSkillMenu(enemy, scanner)) {
-                                        System.out.println("Enemy defeated!");
-                                        player.gainExp(12 + minLevel * 2);
-                                        enemyDefeated = true;
-                                    }
-                                    break;
-                                case "3":
-                                    if (Math.random() < 0.5) {
-                                        System.out.println("You successfully run away!");
-                                        fled = true;
-                                    } else {
-                                        System.out.println("You try to run, but the " + enemy.name + " blocks your escape!");
-                                    }
-                                    break;
-                                case "4":
-                                    player.printStatus();
-                                    break;
-                                default:
-                                    System.out.println("You hesitate and miss your chance!");
-                            }
-                        }
-
-                        // --- Enemy's turn ---
-                        if (!enemyDefeated && !fled && !player.isDead()) {
-                            if (enemy.isStunned()) {
-                                System.out.println(enemy.name + " is stunned and cannot act!");
-                            } else {
-                                enemy.enemyAttack(player);
-                            }
-                        }
-                    }
-                    if (player.isDead()) {
-                        System.out.println("You have fallen in battle...");
-                        return false;
-                    }
+                if (map.isPassageEnd(room)) map = layout = map.extended(); // the main passage never ends
+                int next = choosePassage(map, in);
+                if (next < 0) continue;
+                room = next;
+                moves = map.depth(room);
+                if (player.journal != null) player.journal.roomMove(room);
+                boolean encounter = rng.nextDouble() < 0.5;
+                if (encounter && moves >= PACK_MIN_DEPTH && rng.nextDouble() < PACK_CHANCE) {
+                    pack.fill(MonsterTable.regular(def.monsterType), def.minLevel + moves, 2 + moves / 3);
+                    out.println("A pack of " + pack.size() + " " + def.monsterType + "s surrounds you!");
+                    if (!fightPack(player, engine, policy)) return false;
+                } else if (encounter) {
+                    Monster enemy = monsters.regular(def.monsterType, def.minLevel + moves);
+                    out.println("A " + enemy.name + " appears!");
+                    if (!fightEncounter(player, enemy, engine, policy)) return false;
                 } else {
-                    System.out.println("You move quietly forward. The path is eerily empty...");
+                    out.println("You move quietly forward. The path is eerily empty...");
                     player.tickSkillCooldowns();
+                    if (player.journal != null) player.journal.hero(player);
                 }
             // --- Move Back (backtrack, may find items or encounter ambush) ---
             } else if (moveBackChoice != null && action.equals(String.valueOf(moveBackChoice))) {
-                if (!roomStack.isEmpty()) {
-                    System.out.println("You move back to the previous room.");
-                    roomStack.pop();
-                    if (!roomHistory.isEmpty()) {
-                        roomHistory.removeLast();
-                    }
-                    moves--;
+                if (room != 0) {
+                    out.println("You move back to the previous room.");
+                    room = map.parent(room);
+                    moves = map.depth(room);
+                    if (player.journal != null) player.journal.roomMove(room);
                     player.tickSkillCooldowns();
+                    if (player.journal != null) player.journal.hero(player);
 
-                    double randVal = Math.random();
+                    double randVal = rng.nextDouble();
                     if (randVal < 0.20) {
-                        System.out.println("You notice a faint glimmer on the ground... You find a minor healing herb (+10 HP)!");
+                        out.println("You notice a faint glimmer on the ground... You find a minor healing herb (+10 HP)!");
                         player.hp = Math.min(player.maxHp, player.hp + 10);
+                        if (player.journal != null) player.journal.hero(player);
                     } else if (randVal < 0.40) {
-                        System.out.println("A lurking shadow ambushes you as you retrace your steps!");
-                        Monster enemy = Monster.generate(monsterType, minLevel + moves);
-                        boolean fled = false;
-                        boolean enemyDefeated = false;
-                        while (!enemyDefeated && player.getHp() > 0 && !fled) {
-                            if (player.isStunned()) {
-                                System.out.println("You are stunned and cannot act!");
-                                player.processStatusEffects();
-                                player.tickSkillCooldowns();
-                            } else {
-                                player.processStatusEffects();
-                                enemy.processStatusEffects();
-                                player.tickSkillCooldowns();
-
-                                System.out.println("Player Level: " + player.getLevel());
-                                Hero.printBattleStatus(player, enemy);
-                                System.out.println("Choose your action:");
-                                System.out.println("  1. Attack");
-                                System.out.println("  2. Skill");
-                                System.out.println("  3. Run");
-                                System.out.println("  4. Check Status");
-                                System.out.print("> ");
-                                String fightChoice = scanner.nextLine();
-                                switch (fightChoice) {
-                                    case "1":
-                                        if (player.attack(enemy)) {
-                                            System.out.println("Enemy defeated!");
-                                            player.gainExp(8 + minLevel * 2);
-                                            enemyDefeated = true;
-                                        }
-                                        break;
-                                    case "2":
-                                        if (player.useSkillMenu(enemy, scanner)) {
-                                            System.out.println("Enemy defeated!");
-                                            player.gainExp(12 + minLevel * 2);
-                                            enemyDefeated = true;
-                                        }
-                                        break;
-                                    case "3":
-                                        if (Math.random() < 0.5) {
-                                            System.out.println("You successfully run away!");
-                                            fled = true;
-                                        } else {
-                                            System.out.println("You try to run, but the " + enemy.name + " blocks your escape!");
-                                        }
-                                        break;
-                                    case "4":
-                                        player.printStatus();
-                                        break;
-                                    default:
-                                        System.out.println("You hesitate and miss your chance!");
-                                }
-                            }
-                            if (!enemyDefeated && !fled && !player.isDead()) {
-                                if (enemy.isStunned()) {
-                                    System.out.println(enemy.name + " is stunned and cannot act!");
-                                } else {
-                                    enemy.enemyAttack(player);
-                                }
-                            }
-                        }
-                        if (player.isDead()) {
-                            System.out.println("You have fallen in battle...");
-                            return false;
-                        }
+                        out.println("A lurking shadow ambushes you as you retrace your steps!");
+                        Monster enemy = monsters.regular(def.monsterType, def.minLevel + moves);
+                        if (!fightEncounter(player, enemy, engine, policy)) return false;
                     } else if (randVal < 0.55) {
-                        System.out.println("You retrace your steps and find a faded inscription on the wall. It reads: \"Beware what follows when you turn back.\"");
+                        out.println("You retrace your steps and find a faded inscription on the wall. It reads: \"Beware what follows when you turn back.\"");
                     } else {
-                        System.out.println("Nothing eventful happens as you move back, but the air feels heavier.");
+                        out.println("Nothing eventful happens as you move back, but the air feels heavier.");
                     }
                 } else {
-                    System.out.println("You are at the entrance and cannot go back further.");
+                    out.println("You are at the entrance and cannot go back further.");
                 }
             // --- Boss Room ---
             } else if (bossRoomChoice != null && action.equals(String.valueOf(bossRoomChoice))) {
-                System.out.println("You steel your resolve and enter the boss room.");
-                Monster boss = Monster.boss(bossName, minLevel + moves + 2);
-                while (boss.hp > 0 && player.getHp() > 0) {
-                    if (player.isStunned()) {
-                        System.out.println("You are stunned and cannot act!");
-                        player.processStatusEffects();
-                        player.tickSkillCooldowns();
-                    } else {
-                        player.processStatusEffects();
-                        boss.processStatusEffects();
-                        player.tickSkillCooldowns();
-
-                        System.out.println("Player Level: " + player.getLevel());
-                        Hero.printBattleStatus(player, boss);
-                        System.out.println("Choose your action:");
-                        System.out.println("  1. Attack");
-                        System.out.println("  2. Skill");
-                        System.out.println("  3. Run");
-                        System.out.println("  4. Check Status");
-                        System.out.print("> ");
-                        String fightChoice = scanner.nextLine();
-                        switch (fightChoice) {
-                            case "1":
-                                if (player.attack(boss)) {
-                                    System.out.println("Boss defeated!");
-                                    player.gainExp(22 + minLevel * 2);
-                                    DeathDialogue.onDungeonClear(bossName);
-                                    cleared = true;
-                                    bossDefeated = true;
-                                    player.hp = player.maxHp;
-                                    player.mana = player.maxMana;
-                                    System.out.println("Your strength is restored after this ordeal! (HP and Mana fully restored)");
-                                    return true;
-                                }
-                                break;
-                            case "2":
-                                if (player.useSkillMenu(boss, scanner)) {
-                                    System.out.println("Boss defeated!");
-                                    player.gainExp(28 + minLevel * 2);
-                                    DeathDialogue.onDungeonClear(bossName);
-                                    cleared = true;
-                                    bossDefeated = true;
-                                    player.hp = player.maxHp;
-                                    player.mana = player.maxMana;
-                                    System.out.println("Your strength is restored after this ordeal! (HP and Mana fully restored)");
-                                    return true;
-                                }
-                                break;
-                            case "3":
-                                if (Math.random() < 0.2) {
-                                    System.out.println("You miraculously escape the boss room!");
-                                    break;
-                                } else {
-                                    System.out.println("You try to run, but " + boss.name + " blocks your escape!");
-                                }
-                                break;
-                            case "4":
-                                player.printStatus();
-                                break;
-                            default:
-                                System.out.println("You hesitate and miss your chance!");
-                        }
-                    }
-                    if (boss.hp > 0 && !player.isDead()) {
-                        if (boss.isStunned()) {
-                            System.out.println(boss.name + " is stunned and cannot act!");
-                        } else {
-                            boss.enemyAttack(player);
-                        }
-                    }
-                }
-                if (player.isDead()) {
-                    System.out.println("You have fallen in battle...");
+                out.println("You steel your resolve and enter the boss room.");
+                Monster boss = monsters.boss(def.bossName, def.minLevel + moves + 2);
+                BattleResult result = engine.fight(player, boss, Encounter.BOSS, policy);
+                monsters.release(boss);
+                if (result.isDefeat()) {
+                    out.println("You have fallen in battle...");
                     return false;
                 }
+                if (result.isVictory()) {
+                    out.println("Boss defeated!");
+                    player.gainExp((result.finishedBySkill ? 28 : 22) + def.minLevel * 2);
+                    DeathDialogue.onDungeonClear(def.bossName);
+                    bossDefeated = true;
+                    player.hp = player.maxHp;
+                    player.mana = player.maxMana;
+                    if (player.journal != null) player.journal.hero(player);
+                    out.println("Your strength is restored after this ordeal! (HP and Mana fully restored)");
+                    return true;
+                }
             // --- Check Status ---
             } else if (action.equals(String.valueOf(statusChoice))) {
                 player.printStatus();
@@ -360,39 +191,107 @@ public class Dungeon {
                 printExploredPath();
             // --- Rest (recover mana) ---
             } else if (action.equals(String.valueOf(restChoice))) {
-                if (Math.random() < 0.7) {
+                if (rng.nextDouble() < 0.7) {
                     int manaRestored = 5 + player.getLevel() / 2;
                     player.restoreMana(manaRestored);
-                    System.out.println("You take a short rest and recover " + manaRestored + " mana.");
+                    out.println("You take a short rest and recover " + manaRestored + " mana.");
                 } else {
-                    System.out.println("You try to rest, but something stirs in the darkness. No rest for now!");
+                    out.println("You try to rest, but something stirs in the darkness. No rest for now!");
                 }
                 player.tickSkillCooldowns();
+                if (player.journal != null) player.journal.hero(player);
             // --- Exit Dungeon ---
             } else if (action.equals(String.valueOf(exitChoice))) {
                 player.hp = player.maxHp;
                 player.mana = player.maxMana;
-                System.out.println("You decide to leave the dungeon and return to the main menu.");
-                System.out.println("You take time to rest outside. (HP and Mana fully restored)");
+                if (player.journal != null) player.journal.hero(player);
+                out.println("You decide to leave the dungeon and return to the main menu.");
+                out.println("You take time to rest outside. (HP and Mana fully restored)");
                 return false; // treated as not cleared
             } else {
-                System.out.println("You hesitate, doing nothing...");
+                out.println("You hesitate, doing nothing...");
             }
         }
         // Should never hit this point without clear/exit/death
         return false;
     }
+
+    /**
+     * --- Passage Choice ---
+     * Returns the room reached by moving forward, or -1 if the player stays.
+     * Asks which passage to take only where the layout branches.
+     */
+    private int choosePassage(RoomGraph map, PlayerInput in) {
+        RenderSink out = RenderSink.current();
+        int count = map.exitCount(room);
+        if (count == 0) {
+            out.println("A dead end. The only way on is back the way you came.");
+            return -1;
+        }
+        if (count == 1) return map.exit(room, 0);
+        out.println("The passage splits:");
+        for (int i = 0; i < count; i++) {
+            out.println("  " + (i + 1) + ". " + map.label(map.exit(room, i)));
+        }
+        out.print("> ");
+        String pick = in.nextLine().trim();
+        for (int i = 0; i < count; i++) {
+            if (pick.equals(String.valueOf(i + 1))) return map.exit(room, i);
+        }
+        out.println("You hesitate at the fork, doing nothing...");
+        return -1;
+    }
+
+    /**
+     * --- Regular Encounter ---
+     * Resolves a wandering-monster fight through the battle engine and awards EXP.
+     * The (pooled) enemy is released afterwards. Returns false if the player died.
+     */
+    private boolean fightEncounter(Hero player, Monster enemy, BattleEngine engine, BattlePolicy policy) {
+        RenderSink out = RenderSink.current();
+        BattleResult result = engine.fight(player, enemy, Encounter.REGULAR, policy);
+        monsters.release(enemy);
+        if (result.isVictory()) {
+            out.println("Enemy defeated!");
+            player.gainExp((result.finishedBySkill ? 12 : 8) + def.minLevel * 2);
+        } else if (result.isDefeat()) {
+            out.println("You have fallen in battle...");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * --- Pack Encounter ---
+     * Resolves a fight against the filled pack under regular-encounter rules.
+     * EXP is a regular win plus 3 per extra foe. Returns false if the player died.
+     */
+    private boolean fightPack(Hero player, BattleEngine engine, BattlePolicy policy) {
+        RenderSink out = RenderSink.current();
+        BattleResult result = engine.fight(player, pack, Encounter.REGULAR, policy);
+        if (result.isVictory()) {
+            out.println("The pack is defeated!");
+            player.gainExp((result.finishedBySkill ? 12 : 8) + def.minLevel * 2 + 3 * (pack.size() - 1));
+        } else if (result.isDefeat()) {
+            out.println("You have fallen in battle...");
+            return false;
+        }
+        return true;
+    }
 }
 
 /*
 --------------------------------------------------------------------------------
 Class: Dungeon
 --------------------------------------------------------------------------------
-Represents a single dungeon domain. Handles exploration, navigation (LinkedList, Stack),
-random encounters, and boss fights. Features:
-- Room navigation system with history and backtracking
-- Random enemy and item events
+Run state of a single visit to a domain (static content in DungeonDefinition).
+Handles exploration, navigation (RoomGraph), random encounters, and boss fights.
+Features:
+- Room navigation over a branching, seeded layout with O(1) backtracking
+- Random enemy and item events (drawn from the session's seeded stream)
+- Monster packs deeper in (EnemyGroup, fought with area and multi-hit skills)
 - Boss room with special fight
+- All fights resolved by BattleEngine (ConsoleBattlePolicy reads the player's choice)
 - Rest, status check, and exit options
 - NEW: "Print Explored Path" feature lets the player see their path so far.
 Provides the main adventure/exploration loop for each domain.
@@ -0,0 +1,82 @@
+package com.mycompany.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable description of one sin domain: menu key, names, boss and
+ * monster lines, level requirements and room layout.
+ * The seven definitions form a registry built once per JVM and shared by
+ * every session; the mutable state of a visit lives in Dungeon, which is
+ * only created when a player actually enters the domain.
+ */
+public final class DungeonDefinition {
+    public final String key;        // menu ID ("1".."7")
+    public final int index;         // position in menu order (0-based)
+    public final String name, theme, desc, bossName, monsterType;
+    public final int minLevel, minFloor;
+
+    // --- Registry (Data structure: unmodifiable List in menu order) ---
+    private static final List<DungeonDefinition> ALL;
+    private static final List<String> KEYS;
+    static {
+        List<DungeonDefinition> all = new ArrayList<>();
+        all.add(new DungeonDefinition(all.size(), "Sloth", "Sloth", "First Domain", "Lazarin", "Slothling", 3, 1));
+        all.add(new DungeonDefinition(all.size(), "Lust", "Lust", "Second Domain", "Succubus", "Tempted", 4, 5));
+        all.add(new DungeonDefinition(all.size(), "Gluttony", "Gluttony", "Third Domain", "Devourer", "Glutton Imp", 5, 10));
+        all.add(new DungeonDefinition(all.size(), "Greed", "Greed", "Fourth Domain", "Gilded Wraith", "Miserling", 6, 15));
+        all.add(new DungeonDefinition(all.size(), "Wrath", "Wrath", "Fifth Domain", "Berserker Fiend", "Rager", 7, 20));
+        all.add(new DungeonDefinition(all.size(), "Envy", "Envy", "Sixth Domain", "Jealous Shade", "Covetor", 8, 25));
+        all.add(new DungeonDefinition(all.size(), "Pride", "Pride", "Seventh Domain", "Mirror Knight", "Boaster", 9, 30));
+        ALL = Collections.unmodifiableList(all);
+        List<String> keys = new ArrayList<>();
+        for (DungeonDefinition d : all) keys.add(d.key);
+        KEYS = Collections.unmodifiableList(keys);
+    }
+
+    private DungeonDefinition(int index, String name, String theme, String desc, String bossName, String monsterType,
+                              int minLevel, int minFloor) {
+        this.index = index;
+        this.key = String.valueOf(index + 1);
+        this.name = name;
+        this.theme = theme;
+        this.desc = desc;
+        this.bossName = bossName;
+        this.monsterType = monsterType;
+        this.minLevel = minLevel;
+        this.minFloor = minFloor;
+    }
+
+    /** All domains in menu order. */
+    public static List<DungeonDefinition> all() {
+        return ALL;
+    }
+
+    /** Menu keys in order ("1".."7"). */
+    public static List<String> keys() {
+        return KEYS;
+    }
+
+    /** The domain with the given menu key, or null. */
+    public static DungeonDefinition byKey(String key) {
+        int i = KEYS.indexOf(key);
+        return i >= 0 ? ALL.get(i) : null;
+    }
+
+    /** This domain's room layout (generated on first use, then shared via the RoomGraph cache). */
+    public RoomGraph layout() {
+        return RoomGraph.forDomain(name);
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: DungeonDefinition
+--------------------------------------------------------------------------------
+Static content of the seven sin domains (name, theme, boss, monster line,
+minLevel, minFloor) as an immutable, JVM-wide registry keyed by menu ID.
+Replaces the per-life HashMap of Dungeon objects; Dungeon now holds only the
+state of a visit in progress.
+--------------------------------------------------------------------------------
+*/
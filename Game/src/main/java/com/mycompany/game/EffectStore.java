@@ -0,0 +1,188 @@
+package com.mycompany.game;
+
+import java.util.Arrays;
+
+/**
+ * Array-backed store for the status effects active on one entity.
+ * Each slot keeps its mutable state (type, turns left, magnitude) in parallel
+ * primitive arrays, plus a reference to the StatusEffect it was applied from
+ * (for names/descriptions). Effects keep their application (FIFO) order.
+ * Ticking and expiry work in place, so a steady-state turn allocates nothing.
+ * Running totals for shield, stun and mark are kept in step with every
+ * mutation, so those lookups are O(1) regardless of how many effects stack.
+ */
+public class EffectStore {
+    private static final int INITIAL_CAPACITY = 8;
+
+    // Parallel slot arrays (Data structure: Arrays)
+    private EffectType[] types = new EffectType[INITIAL_CAPACITY];
+    private int[] durations = new int[INITIAL_CAPACITY];
+    private int[] magnitudes = new int[INITIAL_CAPACITY];
+    private StatusEffect[] sources = new StatusEffect[INITIAL_CAPACITY];
+    private int size;
+
+    // --- Running Aggregates (active slots only) ---
+    private long shieldTotal; // sum of SHIELD magnitudes (long: stacked shields cannot overflow)
+    private long markTotal;   // sum of MARK magnitudes
+    private int stunCount;   // number of active STUN slots
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public EffectType type(int i) { return types[i]; }
+    public int duration(int i) { return durations[i]; }
+    public int magnitude(int i) { return magnitudes[i]; }
+    /** The StatusEffect this slot was applied from (name, description, buff flag). */
+    public StatusEffect source(int i) { return sources[i]; }
+
+    /** Total shield points currently available. */
+    public int shieldTotal() { return (int) Math.min(Integer.MAX_VALUE, shieldTotal); }
+    /** Total bonus damage from active marks. */
+    public int markTotal() { return (int) Math.min(Integer.MAX_VALUE, markTotal); }
+    /** True if any stun is active. */
+    public boolean isStunned() { return stunCount > 0; }
+
+    /**
+     * --- Set Duration ---
+     * Updates a slot's remaining turns; a slot entering or leaving the active
+     * state (duration > 0) is added to or removed from the aggregates.
+     */
+    public void setDuration(int i, int duration) {
+        boolean wasActive = durations[i] > 0;
+        durations[i] = duration;
+        boolean active = duration > 0;
+        if (wasActive != active) account(types[i], magnitudes[i], active ? 1 : -1);
+    }
+
+    /** Updates a slot's magnitude, adjusting the aggregates if the slot is active. */
+    public void setMagnitude(int i, int magnitude) {
+        if (durations[i] > 0) {
+            if (types[i] == EffectType.SHIELD) shieldTotal += (long) magnitude - magnitudes[i];
+            else if (types[i] == EffectType.MARK) markTotal += (long) magnitude - magnitudes[i];
+        }
+        magnitudes[i] = magnitude;
+    }
+
+    // Adds (sign = 1) or removes (sign = -1) one active slot's contribution
+    private void account(EffectType type, int magnitude, int sign) {
+        switch (type) {
+            case SHIELD: shieldTotal += (long) sign * magnitude; break;
+            case MARK: markTotal += (long) sign * magnitude; break;
+            case STUN: stunCount += sign; break;
+            default: break;
+        }
+    }
+
+    /**
+     * --- Add Effect ---
+     * Appends a slot at the rear, copying the effect's duration and magnitude.
+     * The StatusEffect itself is only referenced, never mutated.
+     */
+    public void add(StatusEffect effect) {
+        add(effect.type, effect.duration, effect.magnitude, effect);
+    }
+
+    /** Appends a slot from raw values (source may be null for anonymous effects). */
+    public void add(EffectType type, int duration, int magnitude, StatusEffect source) {
+        if (size == types.length) grow();
+        types[size] = type;
+        durations[size] = duration;
+        magnitudes[size] = magnitude;
+        sources[size] = source;
+        size++;
+        if (duration > 0) account(type, magnitude, 1);
+    }
+
+    /**
+     * --- Remove Front ---
+     * Removes the oldest slot and returns it as a standalone StatusEffect
+     * (current duration/magnitude), or null if the store is empty.
+     */
+    public StatusEffect poll() {
+        if (size == 0) return null;
+        StatusEffect src = sources[0];
+        StatusEffect front = src != null
+                ? new StatusEffect(src.name, src.description, durations[0], magnitudes[0], src.isBuff, src.statTarget)
+                : new StatusEffect(types[0].label, "", durations[0], magnitudes[0], false, "HP");
+        removeAt(0);
+        return front;
+    }
+
+    /** Index of the first active (duration > 0) slot of the given type, or -1. */
+    public int indexOf(EffectType type) {
+        for (int i = 0; i < size; i++) {
+            if (types[i] == type && durations[i] > 0) return i;
+        }
+        return -1;
+    }
+
+    /** Removes the slot at index i, shifting later slots forward. */
+    public void removeAt(int i) {
+        if (durations[i] > 0) account(types[i], magnitudes[i], -1);
+        int tail = size - i - 1;
+        if (tail > 0) {
+            System.arraycopy(types, i + 1, types, i, tail);
+            System.arraycopy(durations, i + 1, durations, i, tail);
+            System.arraycopy(magnitudes, i + 1, magnitudes, i, tail);
+            System.arraycopy(sources, i + 1, sources, i, tail);
+        }
+        size--;
+        types[size] = null;
+        sources[size] = null;
+    }
+
+    /**
+     * --- Compact ---
+     * Drops every expired slot (duration <= 0) in a single in-place pass,
+     * preserving the order of the survivors. Expired slots no longer count
+     * toward the aggregates, so the totals are unchanged.
+     */
+    public void compact() {
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            if (durations[r] <= 0) continue;
+            if (w != r) {
+                types[w] = types[r];
+                durations[w] = durations[r];
+                magnitudes[w] = magnitudes[r];
+                sources[w] = sources[r];
+            }
+            w++;
+        }
+        for (int i = w; i < size; i++) {
+            types[i] = null;
+            sources[i] = null;
+        }
+        size = w;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            types[i] = null;
+            sources[i] = null;
+        }
+        size = 0;
+        shieldTotal = 0;
+        markTotal = 0;
+        stunCount = 0;
+    }
+
+    private void grow() {
+        int cap = types.length * 2;
+        types = Arrays.copyOf(types, cap);
+        durations = Arrays.copyOf(durations, cap);
+        magnitudes = Arrays.copyOf(magnitudes, cap);
+        sources = Arrays.copyOf(sources, cap);
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: EffectStore
+--------------------------------------------------------------------------------
+Struct-of-arrays status effect container used by Entity. Replaces the old
+LinkedList<StatusEffect> queue: slots are appended at the rear (enqueue),
+polled from the front (dequeue), ticked by index and compacted in place.
+Maintains running shield/mark totals and a stun count for O(1) combat queries.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,51 @@
+package com.mycompany.game;
+
+/**
+ * Enum of every status effect kind the rules know about.
+ * Effects are resolved to a type once, when the StatusEffect is built,
+ * so the per-turn engine switches on the type instead of comparing names.
+ */
+public enum EffectType {
+    POISON("Poison"),
+    BURN("Burn"),
+    HEAL("Heal"),
+    SHIELD("Shield"),
+    STUN("Stun"),
+    MARK("Mark"),
+    RESURRECTION("Resurrection"),
+    FULL_HEAL("Full Heal"),
+    IRON_WALL("Iron Wall"),
+    SANCTUARY("Sanctuary"),
+    OTHER("Other"); // unknown names: displayed and ticked, but have no rule attached
+
+    public final String label;
+
+    EffectType(String label) {
+        this.label = label;
+    }
+
+    // Cached values() copy (Data structure: Array)
+    private static final EffectType[] VALUES = values();
+
+    /**
+     * --- Name Lookup ---
+     * Maps an effect name (case-insensitive) to its type, or OTHER.
+     */
+    public static EffectType fromName(String name) {
+        if (name != null) {
+            for (EffectType t : VALUES) {
+                if (t.label.equalsIgnoreCase(name)) return t;
+            }
+        }
+        return OTHER;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Enum: EffectType
+--------------------------------------------------------------------------------
+Identifies status effects (poison, burn, heal, shield, stun, mark, ...) so the
+effect engine (EffectStore / Entity) can dispatch without string matching.
+--------------------------------------------------------------------------------
+*/
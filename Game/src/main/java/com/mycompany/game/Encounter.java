@@ -0,0 +1,48 @@
+package com.mycompany.game;
+
+/**
+ * Enum for the kinds of battle the game stages.
+ * Each kind carries the rules that differ between fights: flee chance,
+ * whether stuns skip turns, whether per-turn passives fire, and the
+ * escape messages shown to the player.
+ */
+public enum Encounter {
+    REGULAR(0.5, true, false, "You successfully run away!", "You try to run, but the %s blocks your escape!"),
+    BOSS(0.2, true, false, "You miraculously escape the boss room!", "You try to run, but %s blocks your escape!"),
+    MIRROR(0.0, false, true, null, "There is no escape from %s!"),
+    DEATH(0.0, false, true, null, "There is no escape from %s!");
+
+    public final double fleeChance;     // chance that a Run action succeeds
+    public final boolean honorsStun;    // stunned combatants lose their turn
+    public final boolean tickPassives;  // hero/monster passives fire every round
+    public final String fleeText;       // shown when the escape succeeds
+    public final String blockedFormat;  // shown when the escape fails (%s = enemy name)
+
+    Encounter(double fleeChance, boolean honorsStun, boolean tickPassives, String fleeText, String blockedFormat) {
+        this.fleeChance = fleeChance;
+        this.honorsStun = honorsStun;
+        this.tickPassives = tickPassives;
+        this.fleeText = fleeText;
+        this.blockedFormat = blockedFormat;
+    }
+
+    /** True if the player may choose Run / Check Status in this fight. */
+    public boolean allowsFullMenu() {
+        return fleeChance > 0;
+    }
+
+    /** True for the fights met while exploring a dungeon (REGULAR, BOSS). */
+    public boolean isDungeon() {
+        return this == REGULAR || this == BOSS;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Enum: Encounter
+--------------------------------------------------------------------------------
+Rule profile for a single fight. REGULAR and BOSS are the dungeon fights (stun
+checks, Run/Status menu); MIRROR and DEATH are the final domains (passives tick
+each round, no escape). Used by BattleEngine and the battle policies.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,283 @@
+package com.mycompany.game;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A pack of N monsters fought at once, stored as parallel arrays rather
+ * than Monster objects. Standing foes always occupy indexes [0, alive): a
+ * foe that falls is swapped with the last standing one, so targeting,
+ * area damage, status ticking and the enemy volley are tight loops over
+ * `alive` entries. Each foe also has a stable id (0..size-1) for naming and
+ * for targets chosen across turns.
+ *
+ * Foes keep up to EFFECT_SLOTS status effects each (application order, like
+ * EffectStore, with running mark and stun totals); skills only put debuffs
+ * on enemies, so there are no enemy shields. One group is reused for every
+ * encounter of its owner (refill with fill()); it is not thread-safe.
+ */
+public final class EnemyGroup {
+    public static final int EFFECT_SLOTS = 4;
+    private static final EffectType[] EFFECT_TYPES = EffectType.values();
+
+    private String memberName; // e.g. "Slothling Lv.5"
+    private String baseName;   // e.g. "Slothling"
+    private int size, alive;
+    private int generation; // bumped by every fill()
+    private int lastVolleyHits;
+
+    // One entry per foe, standing ones first (Data structure: parallel arrays)
+    private int[] ids = new int[0], hp = new int[0], maxHp = new int[0], atk = new int[0], def = new int[0];
+    private int[] markTotal = new int[0], stunCount = new int[0], effectCount = new int[0];
+    // Effect slots, EFFECT_SLOTS per foe at index * EFFECT_SLOTS (Data structure: parallel arrays)
+    private byte[] fxType = new byte[0];
+    private int[] fxDuration = new int[0], fxMagnitude = new int[0];
+    // Current index of each id (Data structure: Array indexed by id)
+    private int[] slotOf = new int[0];
+
+    /**
+     * --- Fill ---
+     * Resets the group to `count` fresh foes from one table row.
+     */
+    public void fill(MonsterTable table, int level, int count) {
+        ensureCapacity(count);
+        memberName = table.name(level);
+        baseName = table.baseName;
+        size = count;
+        alive = count;
+        generation++;
+        Arrays.fill(hp, 0, count, table.hp(level));
+        Arrays.fill(maxHp, 0, count, table.hp(level));
+        Arrays.fill(atk, 0, count, table.atk(level));
+        Arrays.fill(def, 0, count, table.def(level));
+        Arrays.fill(markTotal, 0, count, 0);
+        Arrays.fill(stunCount, 0, count, 0);
+        Arrays.fill(effectCount, 0, count, 0);
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            slotOf[i] = i;
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (count <= ids.length) return;
+        ids = new int[count];
+        hp = new int[count];
+        maxHp = new int[count];
+        atk = new int[count];
+        def = new int[count];
+        markTotal = new int[count];
+        stunCount = new int[count];
+        effectCount = new int[count];
+        slotOf = new int[count];
+        fxType = new byte[count * EFFECT_SLOTS];
+        fxDuration = new int[count * EFFECT_SLOTS];
+        fxMagnitude = new int[count * EFFECT_SLOTS];
+    }
+
+    // --- Queries ---
+
+    public int size() { return size; }
+    public int alive() { return alive; }
+    public boolean isDefeated() { return alive == 0; }
+    /** Changes whenever the group is refilled, so ids kept by callers can be told apart across encounters. */
+    public int generation() { return generation; }
+
+    public int id(int i) { return ids[i]; }
+    public int hp(int i) { return hp[i]; }
+    public int maxHp(int i) { return maxHp[i]; }
+    public int atk(int i) { return atk[i]; }
+    public int def(int i) { return def[i]; }
+    public int markTotal(int i) { return markTotal[i]; }
+    public boolean isStunned(int i) { return stunCount[i] > 0; }
+
+    /** Index of the foe with this id, or -1 if it has fallen. */
+    public int indexOf(int id) {
+        if (id < 0 || id >= size) return -1;
+        int i = slotOf[id];
+        return i < alive ? i : -1;
+    }
+
+    /** Display name of the foe at index i (e.g. "Slothling Lv.5 #3"). */
+    public String name(int i) {
+        return memberName + " #" + (ids[i] + 1);
+    }
+
+    /** Display name of the whole pack with its standing count (e.g. "Slothling pack (4)"). */
+    public String label() {
+        return baseName + " pack (" + alive + ")";
+    }
+
+    // --- Targeting ---
+
+    /** Index of the standing foe with the least HP (lowest index on ties). */
+    public int weakest() {
+        int best = 0;
+        for (int i = 1; i < alive; i++) {
+            if (hp[i] < hp[best]) best = i;
+        }
+        return best;
+    }
+
+    /** Index of a uniformly random standing foe. */
+    public int random(RandomGenerator rng) {
+        return rng.nextInt(alive);
+    }
+
+    // --- Damage ---
+
+    /**
+     * --- Hit ---
+     * Deals damage to the foe at index i. If it falls it is swapped out of
+     * the standing range (the last standing foe takes index i) and true is
+     * returned. Loops that hit while walking should walk downward.
+     */
+    public boolean hit(int i, int amount) {
+        hp[i] -= amount;
+        if (hp[i] > 0) return false;
+        remove(i);
+        return true;
+    }
+
+    // Swaps the fallen foe at i with the last standing one
+    private void remove(int i) {
+        int last = --alive;
+        if (i == last) return;
+        swap(ids, i, last);
+        swap(hp, i, last);
+        swap(maxHp, i, last);
+        swap(atk, i, last);
+        swap(def, i, last);
+        swap(markTotal, i, last);
+        swap(stunCount, i, last);
+        swap(effectCount, i, last);
+        int a = i * EFFECT_SLOTS, b = last * EFFECT_SLOTS;
+        for (int k = 0; k < EFFECT_SLOTS; k++) {
+            byte t = fxType[a + k]; fxType[a + k] = fxType[b + k]; fxType[b + k] = t;
+            swap(fxDuration, a + k, b + k);
+            swap(fxMagnitude, a + k, b + k);
+        }
+        slotOf[ids[i]] = i;
+        slotOf[ids[last]] = last;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    // --- Status Effects ---
+
+    /**
+     * --- Add Effect ---
+     * Appends an effect to the foe at index i. Returns false (nothing
+     * applied) if its EFFECT_SLOTS are full.
+     */
+    public boolean addEffect(int i, EffectType type, int duration, int magnitude) {
+        int n = effectCount[i];
+        if (n == EFFECT_SLOTS) return false;
+        int s = i * EFFECT_SLOTS + n;
+        fxType[s] = (byte) type.ordinal();
+        fxDuration[s] = duration;
+        fxMagnitude[s] = magnitude;
+        effectCount[i] = n + 1;
+        if (duration > 0) account(i, type, magnitude, 1);
+        return true;
+    }
+
+    // Adds (sign = 1) or removes (sign = -1) one active slot's contribution
+    private void account(int i, EffectType type, int magnitude, int sign) {
+        if (type == EffectType.MARK) markTotal[i] += sign * magnitude;
+        else if (type == EffectType.STUN) stunCount[i] += sign;
+    }
+
+    /**
+     * --- Status Effect Processing (Turn) ---
+     * Entity.processStatusEffects for every standing foe: poison/burn damage,
+     * heals, one turn off each slot, expired slots compacted. Foes that fall
+     * are swapped out. Publishes one EFFECT_TICK per effect type for the whole
+     * pack (not one line per foe); returns the effects processed.
+     */
+    public int tickEffects(CombatEventRing events) {
+        int processed = 0;
+        long poison = 0, burn = 0, heal = 0;
+        for (int i = alive - 1; i >= 0; i--) {
+            int n = effectCount[i];
+            if (n == 0) continue;
+            int base = i * EFFECT_SLOTS, w = base;
+            for (int s = base; s < base + n; s++) {
+                int duration = fxDuration[s];
+                if (duration <= 0) continue;
+                int magnitude = fxMagnitude[s];
+                EffectType type = EFFECT_TYPES[fxType[s]];
+                switch (type) {
+                    case POISON: hp[i] -= magnitude; poison += magnitude; break;
+                    case BURN: hp[i] -= magnitude; burn += magnitude; break;
+                    case HEAL:
+                        hp[i] = Math.min(maxHp[i], hp[i] + magnitude);
+                        heal += magnitude;
+                        break;
+                    default: break;
+                }
+                processed++;
+                if (duration == 1) {
+                    account(i, type, magnitude, -1);
+                    continue; // expired: not kept
+                }
+                fxType[w] = fxType[s];
+                fxDuration[w] = duration - 1;
+                fxMagnitude[w] = magnitude;
+                w++;
+            }
+            effectCount[i] = w - base;
+            if (hp[i] <= 0) remove(i);
+        }
+        if (events.isActive()) {
+            String label = baseName + " pack";
+            if (poison > 0) events.effectTick(label, EffectType.POISON, clamp(poison));
+            if (burn > 0) events.effectTick(label, EffectType.BURN, clamp(burn));
+            if (heal > 0) events.effectTick(label, EffectType.HEAL, clamp(heal));
+        }
+        return processed;
+    }
+
+    // --- Enemy Phase ---
+
+    /**
+     * --- Volley ---
+     * Total damage of one basic attack (Monster.enemyAttack: max(1, atk - DEF))
+     * from every standing foe; stunned foes sit out when honorsStun. The
+     * number of attackers is kept for lastVolleyHits().
+     */
+    public int volley(int heroDef, boolean honorsStun) {
+        long total = 0;
+        int hits = 0;
+        for (int i = 0; i < alive; i++) {
+            if (honorsStun && stunCount[i] > 0) continue;
+            total += Math.max(1, atk[i] - heroDef);
+            hits++;
+        }
+        lastVolleyHits = hits;
+        return clamp(total);
+    }
+
+    /** Foes that attacked in the last volley. */
+    public int lastVolleyHits() { return lastVolleyHits; }
+
+    private static int clamp(long value) {
+        return (int) Math.min(Integer.MAX_VALUE, value);
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: EnemyGroup
+--------------------------------------------------------------------------------
+Struct-of-arrays enemy pack for group encounters (BattleEngine.fight with an
+EnemyGroup). Standing foes are kept compact by swap-removal; foes carry fixed
+effect slots with mark/stun totals. Provides targeting (weakest, random, by id),
+area and single hits, per-foe status ticking with one event per effect type,
+and the pack's summed volley against the hero.
+--------------------------------------------------------------------------------
+*/
@@ -1,8 +1,5 @@
 package com.mycompany.game;
 
-import java.util.LinkedList;
-import java.util.Queue;
-
 /**
  * Abstract base class for any character or monster that participates in battle.
  * Provides a status effect system, stat storage, and common utility methods.
@@ -11,50 +8,54 @@ public abstract class Entity {
     public String name;
     public int hp, maxHp;
     public int[] stats; // [STR, INT, AGI, DEF, LUK]
-    // --- Status Effect Queue ---
-    // Data structure: LinkedList queue for status effects (buffs/debuffs)
-    public Queue<StatusEffect> statusQueue = new LinkedList<>();
+    // --- Status Effect Store ---
+    // Data structure: parallel arrays (EffectStore), kept in application order
+    public final EffectStore effects = new EffectStore();
+    // Session journal for state that survives a crash (null = not journaled, e.g. monsters)
+    public GameJournal journal;
 
     /**
      * Enqueues a status effect at the rear of the queue.
+     * The effect's duration/magnitude are copied; the object itself is not modified.
+     * Publishes EFFECT_APPLIED.
      */
     public void enqueue(StatusEffect effect) {
-        statusQueue.add(effect);
+        effects.add(effect);
+        CombatEventRing.current().effectApplied(this, effect);
     }
 
     /**
      * Dequeues and returns the front status effect, or null if empty.
      */
     public StatusEffect dequeue() {
-        return statusQueue.poll();
+        return effects.poll();
     }
 
     /**
      * --- Damage Handler ---
      * Applies damage to the entity, considering shield effects.
-     * Data Structure: Queue (statusQueue) scanned for shield.
+     * Data Structure: EffectStore (O(1) shield total; slots walked only while absorbing).
      */
     public void takeDamage(int amount) {
-        int shield = 0;
-        for (StatusEffect se : statusQueue) {
-            if (se.name.equalsIgnoreCase("Shield") && se.duration > 0) shield += se.magnitude;
-        }
-        int damageAbsorbed = Math.min(shield, amount);
+        int damageAbsorbed = Math.min(effects.shieldTotal(), amount);
         if (damageAbsorbed > 0) {
-            for (StatusEffect se : statusQueue) {
-                if (se.name.equalsIgnoreCase("Shield") && se.duration > 0) {
-                    int absorbed = Math.min(se.magnitude, amount);
-                    se.magnitude -= absorbed;
+            int n = effects.size();
+            for (int i = 0; i < n; i++) {
+                if (effects.type(i) == EffectType.SHIELD && effects.duration(i) > 0) {
+                    int magnitude = effects.magnitude(i);
+                    int absorbed = Math.min(magnitude, amount);
+                    effects.setMagnitude(i, magnitude - absorbed);
                     amount -= absorbed;
-                    if (se.magnitude <= 0) se.duration = 0;
+                    if (magnitude - absorbed <= 0) effects.setDuration(i, 0);
                     if (amount == 0) break;
                 }
             }
-            System.out.println("Shield absorbed " + damageAbsorbed + " damage!");
+            CombatEventRing.current().shieldAbsorbed(this, damageAbsorbed);
         }
         if (amount > 0) {
             this.hp -= amount;
         }
+        if (journal != null) journal.damage(amount, hp);
     }
 
     /**
@@ -62,48 +63,60 @@ public abstract class Entity {
      * Prints the active status effects and their remaining durations.
      */
     public void displayStatusEffects() {
-        if (statusQueue.isEmpty()) {
-            System.out.println("None");
+        RenderSink out = RenderSink.current();
+        if (effects.isEmpty()) {
+            out.println("None");
             return;
         }
-        for (StatusEffect se : statusQueue) {
-            if (se.duration > 0)
-                System.out.print(se.name + "(" + se.duration + ") ");
+        for (int i = 0; i < effects.size(); i++) {
+            if (effects.duration(i) > 0)
+                out.print(effectName(i) + "(" + effects.duration(i) + ") ");
         }
-        System.out.println();
+        out.println();
+    }
+
+    /** Display name of the effect in slot i. */
+    protected String effectName(int i) {
+        StatusEffect src = effects.source(i);
+        return src != null ? src.name : effects.type(i).label;
     }
 
     /**
      * --- Status Effect Processing (Turn) ---
      * Resolves poison, burn, heal, and other effects at the end of each turn.
-     * Data Structure: LinkedList (for removals)
+     * Ticks every slot in place, then compacts expired slots (no allocation).
+     * Publishes EFFECT_TICK / EFFECT_EXPIRED events; returns the number of
+     * effects processed (for GameMetrics).
      */
-    public void processStatusEffects() {
-        LinkedList<StatusEffect> removeList = new LinkedList<>();
-        for (StatusEffect se : statusQueue) {
-            if (se.duration > 0) {
-                // Only apply stat/HP changes if it's not a stun
-                if (se.name.equalsIgnoreCase("Poison") && se.duration > 0) {
-                    takeDamage(se.magnitude);
-                    System.out.println(name + " suffers " + se.magnitude + " poison damage!");
-                }
-                if (se.name.equalsIgnoreCase("Burn") && se.duration > 0) {
-                    takeDamage(se.magnitude);
-                    System.out.println(name + " suffers " + se.magnitude + " burn damage!");
-                }
-                if (se.name.equalsIgnoreCase("Heal") && se.duration > 0) {
-                    this.hp = Math.min(this.maxHp, this.hp + se.magnitude);
-                    System.out.println(name + " is healed for " + se.magnitude + " HP!");
-                }
-                // Other effects can be added here
-
-                se.duration--;
+    public int processStatusEffects() {
+        CombatEventRing events = CombatEventRing.current();
+        int n = effects.size();
+        int processed = 0;
+        for (int i = 0; i < n; i++) {
+            int duration = effects.duration(i);
+            if (duration <= 0) continue;
+            int magnitude = effects.magnitude(i);
+            EffectType type = effects.type(i);
+            switch (type) {
+                case POISON:
+                case BURN:
+                    takeDamage(magnitude);
+                    events.effectTick(this, type, magnitude);
+                    break;
+                case HEAL:
+                    this.hp = Math.min(this.maxHp, this.hp + magnitude);
+                    events.effectTick(this, type, magnitude);
+                    break;
+                default:
+                    // Other effects can be added here
+                    break;
             }
-            if (se.duration <= 0) removeList.add(se);
-        }
-        for (StatusEffect se : removeList) {
-            statusQueue.remove(se);
+            effects.setDuration(i, duration - 1);
+            if (duration == 1) events.effectExpired(this, type);
+            processed++;
         }
+        effects.compact();
+        return processed;
     }
 
     /**
@@ -111,10 +124,7 @@ public abstract class Entity {
      * Returns true if the entity is currently stunned.
      */
     public boolean isStunned() {
-        for (StatusEffect se : statusQueue) {
-            if (se.name.equalsIgnoreCase("Stun") && se.duration > 0) return true;
-        }
-        return false;
+        return effects.isStunned();
     }
 
     /**
@@ -129,7 +139,7 @@ public abstract class Entity {
 Class: Entity
 --------------------------------------------------------------------------------
 Abstract superclass for all battle participants (Hero, Monster).
-Implements a status effect queue (LinkedList), stat storage, and effect processing.
+Implements a status effect store (EffectStore arrays), stat storage, and effect processing.
 Provides:
 - Status effect handling (buffs/debuffs, poison, burn, heal, shield)
 - Damage and stun logic
@@ -0,0 +1,476 @@
+package com.mycompany.game;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Off-heap store for large populations of combatants.
+ * Every entity is a fixed 128-byte record in one MemorySegment and is named
+ * by a long handle (its record index), so hundreds of millions of heroes and
+ * monsters cost no Java objects and nothing for the GC to trace. Combat
+ * routines here mirror Hero / Monster / Entity / BattleEngine on handles;
+ * closing the arena frees every record at once.
+ *
+ * Record layout (byte offsets):
+ *   0 hp | 4 maxHp | 8 mana | 12 maxMana | 16 level        (int)
+ *   20 kind (byte: HeroType ordinal, MONSTER for monsters)
+ *   21 effect count (byte) | 22 active stun slots (short)
+ *   24 stats[0..4] (int: STR, INT, AGI, DEF, LUK; monsters keep atk/def in STR/DEF)
+ *   44 exp (int) | 48 shield total (long) | 56 mark total (long)
+ *   64 skill cooldowns, one byte each (MAX_SKILLS)
+ *   72 EFFECT_SLOTS effect slots of 8 bytes: type ordinal (byte), duration (short @2), magnitude (int @4)
+ * Effects keep application order like EffectStore; an entity whose slots are
+ * full ignores further effects. Not thread-safe: an arena from the
+ * constructor is confined to the thread that created it; a shared() arena
+ * may be read and fought on by several threads as long as each handle has
+ * one owner at a time (allocate from a single thread).
+ */
+public final class EntityArena implements AutoCloseable {
+    public static final int RECORD_BYTES = 128;
+    public static final int MAX_SKILLS = 8;
+    public static final int EFFECT_SLOTS = 7;
+    public static final byte MONSTER = -1;
+
+    private static final long HP = 0, MAX_HP = 4, MANA = 8, MAX_MANA = 12, LEVEL = 16;
+    private static final long KIND = 20, EFFECT_COUNT = 21, STUNS = 22;
+    private static final long STATS = 24, EXP = 44, SHIELD = 48, MARK = 56;
+    private static final long COOLDOWNS = 64, EFFECTS = 72, SLOT_BYTES = 8;
+    // All eight cooldown bytes in one read, skill 0 in the low byte
+    private static final ValueLayout.OfLong COOLDOWN_WORD = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final EffectType[] EFFECT_TYPES = EffectType.values();
+    private static final HeroType[] HERO_TYPES = HeroType.values();
+    // Each hero type's skill catalog (Data structure: Array indexed by HeroType ordinal)
+    private static final Skill[][] CATALOGS = new Skill[HERO_TYPES.length][];
+    static {
+        for (HeroType type : HERO_TYPES) CATALOGS[type.ordinal()] = type.getSkills().toArray(new Skill[0]);
+    }
+
+    private final Arena arena;
+    private final MemorySegment records;
+    private final long capacity;
+    private long size;
+
+    /**
+     * --- EntityArena Constructor ---
+     * Reserves capacity zeroed records off-heap (capacity * RECORD_BYTES
+     * bytes), usable only from the calling thread.
+     */
+    public EntityArena(long capacity) {
+        this(Arena.ofConfined(), capacity);
+    }
+
+    /** An arena whose records any thread may access (slightly slower access checks). */
+    public static EntityArena shared(long capacity) {
+        return new EntityArena(Arena.ofShared(), capacity);
+    }
+
+    private EntityArena(Arena arena, long capacity) {
+        this.arena = arena;
+        this.capacity = capacity;
+        this.records = arena.allocate(capacity * RECORD_BYTES, 64);
+    }
+
+    public long size() { return size; }
+    public long capacity() { return capacity; }
+
+    /** Forgets every entity (records are overwritten as handles are reallocated). */
+    public void reset() {
+        size = 0;
+    }
+
+    /** Frees every record. Handles must not be used afterwards. */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    // --- Allocation ---
+
+    // Next free record, cleared
+    private long allocate() {
+        if (size == capacity) throw new IllegalStateException("EntityArena full (" + capacity + " entities)");
+        long h = size++;
+        records.asSlice(h * RECORD_BYTES, RECORD_BYTES).fill((byte) 0);
+        return h;
+    }
+
+    /**
+     * --- Add Hero ---
+     * Copies the hero's stats, HP/mana, level, cooldowns and (up to
+     * EFFECT_SLOTS) active effects into a new record and returns its handle.
+     */
+    public long addHero(Hero hero) {
+        if (hero.getSkillCount() > MAX_SKILLS) throw new IllegalArgumentException("More than " + MAX_SKILLS + " skills");
+        long h = allocate();
+        long base = h * RECORD_BYTES;
+        copyCommon(base, hero);
+        records.set(ValueLayout.JAVA_INT, base + MANA, hero.mana);
+        records.set(ValueLayout.JAVA_INT, base + MAX_MANA, hero.maxMana);
+        records.set(ValueLayout.JAVA_INT, base + LEVEL, hero.level);
+        records.set(ValueLayout.JAVA_INT, base + EXP, hero.exp);
+        records.set(ValueLayout.JAVA_BYTE, base + KIND, (byte) hero.type.ordinal());
+        for (int i = 0; i < 5; i++) records.set(ValueLayout.JAVA_INT, base + STATS + 4L * i, hero.stats[i]);
+        for (int i = 0; i < hero.getSkillCount(); i++) {
+            records.set(ValueLayout.JAVA_BYTE, base + COOLDOWNS + i, (byte) Math.min(0x7F, hero.getSkillCooldown(i)));
+        }
+        return h;
+    }
+
+    /** Copies a monster (HP, atk, def, active effects) into a new record and returns its handle. */
+    public long addMonster(Monster monster) {
+        long h = allocate();
+        long base = h * RECORD_BYTES;
+        copyCommon(base, monster);
+        records.set(ValueLayout.JAVA_BYTE, base + KIND, MONSTER);
+        records.set(ValueLayout.JAVA_INT, base + STATS, monster.atk);
+        records.set(ValueLayout.JAVA_INT, base + STATS + 12, monster.def);
+        return h;
+    }
+
+    /** Spawns a table monster at the given level straight into a new record. */
+    public long addMonster(MonsterTable table, int level) {
+        long h = allocate();
+        long base = h * RECORD_BYTES;
+        records.set(ValueLayout.JAVA_INT, base + HP, table.hp(level));
+        records.set(ValueLayout.JAVA_INT, base + MAX_HP, table.hp(level));
+        records.set(ValueLayout.JAVA_BYTE, base + KIND, MONSTER);
+        records.set(ValueLayout.JAVA_INT, base + STATS, table.atk(level));
+        records.set(ValueLayout.JAVA_INT, base + STATS + 12, table.def(level));
+        return h;
+    }
+
+    // HP and active effects shared by heroes and monsters
+    private void copyCommon(long base, Entity e) {
+        records.set(ValueLayout.JAVA_INT, base + HP, e.hp);
+        records.set(ValueLayout.JAVA_INT, base + MAX_HP, e.maxHp);
+        EffectStore fx = e.effects;
+        for (int i = 0; i < fx.size(); i++) {
+            if (fx.duration(i) > 0) addEffect(base / RECORD_BYTES, fx.type(i), fx.duration(i), fx.magnitude(i));
+        }
+    }
+
+    // --- Field Access ---
+
+    public int hp(long h) { return records.get(ValueLayout.JAVA_INT, h * RECORD_BYTES + HP); }
+    public int maxHp(long h) { return records.get(ValueLayout.JAVA_INT, h * RECORD_BYTES + MAX_HP); }
+    public int mana(long h) { return records.get(ValueLayout.JAVA_INT, h * RECORD_BYTES + MANA); }
+    public int level(long h) { return records.get(ValueLayout.JAVA_INT, h * RECORD_BYTES + LEVEL); }
+    public int stat(long h, int i) { return records.get(ValueLayout.JAVA_INT, h * RECORD_BYTES + STATS + 4L * i); }
+    public int cooldown(long h, int skill) { return records.get(ValueLayout.JAVA_BYTE, h * RECORD_BYTES + COOLDOWNS + skill); }
+    public int effectCount(long h) { return records.get(ValueLayout.JAVA_BYTE, h * RECORD_BYTES + EFFECT_COUNT); }
+    public boolean isDead(long h) { return hp(h) <= 0; }
+    public boolean isMonster(long h) { return records.get(ValueLayout.JAVA_BYTE, h * RECORD_BYTES + KIND) == MONSTER; }
+    public boolean isStunned(long h) { return records.get(ValueLayout.JAVA_SHORT, h * RECORD_BYTES + STUNS) > 0; }
+
+    /** The hero type of a hero record. */
+    public HeroType heroType(long h) { return HERO_TYPES[records.get(ValueLayout.JAVA_BYTE, h * RECORD_BYTES + KIND)]; }
+
+    public void setHp(long h, int hp) { records.set(ValueLayout.JAVA_INT, h * RECORD_BYTES + HP, hp); }
+
+    // --- Status Effects ---
+
+    /**
+     * --- Add Effect ---
+     * Appends an effect slot, keeping the shield/mark/stun aggregates in step.
+     * Returns false (and changes nothing) if all EFFECT_SLOTS are taken.
+     */
+    public boolean addEffect(long h, EffectType type, int duration, int magnitude) {
+        long base = h * RECORD_BYTES;
+        int n = records.get(ValueLayout.JAVA_BYTE, base + EFFECT_COUNT);
+        if (n == EFFECT_SLOTS) return false;
+        long slot = base + EFFECTS + n * SLOT_BYTES;
+        records.set(ValueLayout.JAVA_BYTE, slot, (byte) type.ordinal());
+        records.set(ValueLayout.JAVA_SHORT, slot + 2, (short) Math.min(Short.MAX_VALUE, duration));
+        records.set(ValueLayout.JAVA_INT, slot + 4, magnitude);
+        records.set(ValueLayout.JAVA_BYTE, base + EFFECT_COUNT, (byte) (n + 1));
+        if (duration > 0) account(base, type, magnitude, 1);
+        return true;
+    }
+
+    // Adds (sign = 1) or removes (sign = -1) one active slot's contribution (see EffectStore)
+    private void account(long base, EffectType type, int magnitude, int sign) {
+        switch (type) {
+            case SHIELD:
+                records.set(ValueLayout.JAVA_LONG, base + SHIELD, records.get(ValueLayout.JAVA_LONG, base + SHIELD) + (long) sign * magnitude);
+                break;
+            case MARK:
+                records.set(ValueLayout.JAVA_LONG, base + MARK, records.get(ValueLayout.JAVA_LONG, base + MARK) + (long) sign * magnitude);
+                break;
+            case STUN:
+                records.set(ValueLayout.JAVA_SHORT, base + STUNS, (short) (records.get(ValueLayout.JAVA_SHORT, base + STUNS) + sign));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /** Total bonus damage from the marks on an entity. */
+    public int markTotal(long h) {
+        return (int) Math.min(Integer.MAX_VALUE, records.get(ValueLayout.JAVA_LONG, h * RECORD_BYTES + MARK));
+    }
+
+    /** Total shield points on an entity. */
+    public int shieldTotal(long h) {
+        return (int) Math.min(Integer.MAX_VALUE, records.get(ValueLayout.JAVA_LONG, h * RECORD_BYTES + SHIELD));
+    }
+
+    /**
+     * --- Damage Handler ---
+     * Same rule as Entity.takeDamage: shields absorb first (oldest first),
+     * the rest comes off HP.
+     */
+    public void takeDamage(long h, int amount) {
+        long base = h * RECORD_BYTES;
+        if (records.get(ValueLayout.JAVA_LONG, base + SHIELD) > 0) {
+            int n = records.get(ValueLayout.JAVA_BYTE, base + EFFECT_COUNT);
+            for (int i = 0; i < n && amount > 0; i++) {
+                long slot = base + EFFECTS + i * SLOT_BYTES;
+                if (records.get(ValueLayout.JAVA_BYTE, slot) != EffectType.SHIELD.ordinal()
+                        || records.get(ValueLayout.JAVA_SHORT, slot + 2) <= 0) continue;
+                int magnitude = records.get(ValueLayout.JAVA_INT, slot + 4);
+                int absorbed = Math.min(magnitude, amount);
+                records.set(ValueLayout.JAVA_INT, slot + 4, magnitude - absorbed);
+                records.set(ValueLayout.JAVA_LONG, base + SHIELD, records.get(ValueLayout.JAVA_LONG, base + SHIELD) - absorbed);
+                amount -= absorbed;
+                if (magnitude - absorbed <= 0) records.set(ValueLayout.JAVA_SHORT, slot + 2, (short) 0);
+            }
+        }
+        if (amount > 0) records.set(ValueLayout.JAVA_INT, base + HP, records.get(ValueLayout.JAVA_INT, base + HP) - amount);
+    }
+
+    /**
+     * --- Status Effect Processing (Turn) ---
+     * Entity.processStatusEffects on a record: poison/burn damage, heals,
+     * one turn off every slot, expired slots compacted in place; a fallen hero
+     * holding Resurrection revives at 60% HP. Returns the effects processed.
+     */
+    public int processStatusEffects(long h) {
+        long base = h * RECORD_BYTES;
+        int n = records.get(ValueLayout.JAVA_BYTE, base + EFFECT_COUNT);
+        int processed = 0;
+        for (int i = 0; i < n; i++) {
+            long slot = base + EFFECTS + i * SLOT_BYTES;
+            int duration = records.get(ValueLayout.JAVA_SHORT, slot + 2);
+            if (duration <= 0) continue;
+            EffectType type = EFFECT_TYPES[records.get(ValueLayout.JAVA_BYTE, slot)];
+            int magnitude = records.get(ValueLayout.JAVA_INT, slot + 4);
+            switch (type) {
+                case POISON:
+                case BURN:
+                    takeDamage(h, magnitude);
+                    break;
+                case HEAL:
+                    records.set(ValueLayout.JAVA_INT, base + HP, Math.min(records.get(ValueLayout.JAVA_INT, base + MAX_HP),
+                            records.get(ValueLayout.JAVA_INT, base + HP) + magnitude));
+                    break;
+                default:
+                    break;
+            }
+            // Shields drained by the damage above are already expired (duration 0)
+            duration = records.get(ValueLayout.JAVA_SHORT, slot + 2);
+            if (duration > 0) {
+                records.set(ValueLayout.JAVA_SHORT, slot + 2, (short) (duration - 1));
+                if (duration == 1) account(base, type, records.get(ValueLayout.JAVA_INT, slot + 4), -1);
+            }
+            processed++;
+        }
+        compact(base, n);
+        if (!isMonster(h) && hp(h) <= 0) resurrect(base);
+        return processed;
+    }
+
+    // Drops expired slots, keeping survivors in order
+    private void compact(long base, int n) {
+        int w = 0;
+        for (int r = 0; r < n; r++) {
+            long from = base + EFFECTS + r * SLOT_BYTES;
+            if (records.get(ValueLayout.JAVA_SHORT, from + 2) <= 0) continue;
+            if (w != r) records.set(ValueLayout.JAVA_LONG, base + EFFECTS + w * SLOT_BYTES, records.get(ValueLayout.JAVA_LONG, from));
+            w++;
+        }
+        records.set(ValueLayout.JAVA_BYTE, base + EFFECT_COUNT, (byte) w);
+    }
+
+    // Hero.processStatusEffects: the first active Resurrection is consumed for a 60% revive
+    private void resurrect(long base) {
+        int n = records.get(ValueLayout.JAVA_BYTE, base + EFFECT_COUNT);
+        for (int i = 0; i < n; i++) {
+            long slot = base + EFFECTS + i * SLOT_BYTES;
+            if (records.get(ValueLayout.JAVA_BYTE, slot) == EffectType.RESURRECTION.ordinal()
+                    && records.get(ValueLayout.JAVA_SHORT, slot + 2) > 0) {
+                records.set(ValueLayout.JAVA_INT, base + HP, (int) (records.get(ValueLayout.JAVA_INT, base + MAX_HP) * 0.6));
+                records.set(ValueLayout.JAVA_SHORT, slot + 2, (short) 0);
+                compact(base, n);
+                return;
+            }
+        }
+    }
+
+    // --- Hero Actions ---
+
+    /** The hero's basic-attack stat (Hero.mainStat). */
+    public int mainStat(long hero) {
+        return switch (heroType(hero)) {
+            case MAGE, PRIEST -> stat(hero, 1);
+            default -> stat(hero, 0);
+        };
+    }
+
+    /**
+     * --- Player Attack Action ---
+     * Hero.attack on records: max(1, mainStat * 2 + level * 2 - DEF + roll)
+     * plus the target's marks, then the class's mana gain. Returns true if
+     * the enemy fell.
+     */
+    public boolean attack(long hero, long enemy, RandomGenerator rng) {
+        int damage = Math.max(1, mainStat(hero) * 2 + level(hero) * 2 - stat(enemy, 3) + rng.nextInt(Hero.ATTACK_ROLL));
+        takeDamage(enemy, damage + markTotal(enemy));
+        int manaGain = switch (heroType(hero)) {
+            case MAGE -> 6;
+            case PRIEST, HUNTER -> 5;
+            default -> 4;
+        };
+        restoreMana(hero, manaGain);
+        return isDead(enemy);
+    }
+
+    public void restoreMana(long hero, int amount) {
+        long base = hero * RECORD_BYTES;
+        records.set(ValueLayout.JAVA_INT, base + MANA, Math.min(records.get(ValueLayout.JAVA_INT, base + MAX_MANA),
+                records.get(ValueLayout.JAVA_INT, base + MANA) + amount));
+    }
+
+    /** Hero.canCast: an active skill that is off cooldown and affordable. */
+    public boolean canCast(long hero, int idx) {
+        Skill[] skills = CATALOGS[heroType(hero).ordinal()];
+        if (idx < 0 || idx >= skills.length) return false;
+        Skill s = skills[idx];
+        return !s.isPassive && cooldown(hero, idx) == 0 && mana(hero) >= s.manaCost;
+    }
+
+    /**
+     * --- Skill Cast ---
+     * Hero.castSkill on records: pays mana, starts the cooldown, applies the
+     * skill's effects (buffs to the caster, debuffs to the enemy), then lands
+     * Skill.strikesOnLoneFoe strikes of Skill.strikeDamage on the enemy.
+     */
+    public void castSkill(long hero, int idx, long enemy) {
+        Skill s = CATALOGS[heroType(hero).ordinal()][idx];
+        long base = hero * RECORD_BYTES;
+        records.set(ValueLayout.JAVA_INT, base + MANA, records.get(ValueLayout.JAVA_INT, base + MANA) - s.manaCost);
+        records.set(ValueLayout.JAVA_BYTE, base + COOLDOWNS + idx, (byte) Math.min(0x7F, s.cooldown));
+        if (s.isPassive) return;
+        for (int e = 0; e < s.effectCount(); e++) {
+            StatusEffect eff = s.effect(e);
+            addEffect(eff.isBuff ? hero : enemy, eff.type, eff.duration, eff.magnitude);
+        }
+        for (int h = s.strikesOnLoneFoe(); h > 0 && !isDead(enemy); h--) {
+            takeDamage(enemy, s.strikeDamage(stat(hero, s.statIndex), stat(enemy, 3), markTotal(enemy)));
+        }
+    }
+
+    /** Reduces every skill cooldown of a hero by one turn. */
+    public void tickSkillCooldowns(long hero) {
+        long base = hero * RECORD_BYTES + COOLDOWNS;
+        for (int i = 0; i < MAX_SKILLS; i++) {
+            byte cd = records.get(ValueLayout.JAVA_BYTE, base + i);
+            if (cd > 0) records.set(ValueLayout.JAVA_BYTE, base + i, (byte) (cd - 1));
+        }
+    }
+
+    /** Hero.processTurnPassives without the text: Mage mana and Priest healing per turn. */
+    public void processTurnPassives(long hero) {
+        HeroType type = heroType(hero);
+        int bonus = 4 + level(hero) / 2;
+        if (type == HeroType.MAGE) restoreMana(hero, bonus + 1);
+        if (type == HeroType.PRIEST) setHp(hero, Math.min(maxHp(hero), hp(hero) + bonus));
+    }
+
+    // --- Enemy Actions ---
+
+    /** Monster.enemyAttack on records: max(1, atk - DEF). */
+    public void enemyAttack(long monster, long hero) {
+        takeDamage(hero, Math.max(1, stat(monster, 0) - stat(hero, 3)));
+    }
+
+    // BattleEngine.bossStrike: half the hero's defense applies
+    private void bossStrike(long monster, long hero, int bonus) {
+        takeDamage(hero, Math.max(1, stat(monster, 0) + bonus - stat(hero, 3) / 2));
+    }
+
+    // --- Full Fight ---
+
+    /**
+     * --- Fight ---
+     * BattleEngine.fight with GreedySkillPolicy on two records: each round
+     * runs passives (final domains), status effects and cooldowns, then the
+     * hero casts the first ready skill (ultimates first) or attacks, then the
+     * enemy acts (the Shadow and Death may use their signature moves).
+     * Returns the number of rounds; the hero won unless isDead(hero).
+     */
+    public int fight(long hero, long enemy, Encounter encounter, RandomGenerator rng) {
+        Skill[] skills = CATALOGS[heroType(hero).ordinal()];
+        int turns = 0;
+        while (true) {
+            turns++;
+            if (encounter.tickPassives) processTurnPassives(hero);
+            boolean act = !(encounter.honorsStun && isStunned(hero));
+            processStatusEffects(hero);
+            if (act) processStatusEffects(enemy);
+            tickSkillCooldowns(hero);
+            if (act) {
+                if (isDead(hero) || isDead(enemy)) return turns;
+                int skill = greedySkill(hero, skills);
+                if (skill >= 0) castSkill(hero, skill, enemy);
+                else attack(hero, enemy, rng);
+                if (isDead(enemy)) return turns;
+            }
+            if (!isDead(hero) && !(encounter.honorsStun && isStunned(enemy))) enemyTurn(enemy, hero, encounter, rng);
+            if (isDead(hero)) return turns;
+        }
+    }
+
+    // GreedySkillPolicy's choice: the first castable ultimate, else the first castable skill, else -1 (attack)
+    private int greedySkill(long hero, Skill[] skills) {
+        long cooldowns = records.get(COOLDOWN_WORD, hero * RECORD_BYTES + COOLDOWNS);
+        int mana = mana(hero);
+        int first = -1;
+        for (int i = 0; i < skills.length; i++) {
+            Skill s = skills[i];
+            if (s.isPassive || (cooldowns >>> (8 * i) & 0xFF) != 0 || mana < s.manaCost) continue;
+            if (s.isUltimate) return i;
+            if (first < 0) first = i;
+        }
+        return first;
+    }
+
+    // BattleEngine.enemyTurn on records
+    private void enemyTurn(long enemy, long hero, Encounter encounter, RandomGenerator rng) {
+        switch (encounter) {
+            case MIRROR:
+                bossStrike(enemy, hero, rng.nextDouble() < BattleEngine.MIRROR_STRIKE_CHANCE ? 10 : 0);
+                break;
+            case DEATH:
+                bossStrike(enemy, hero, rng.nextDouble() < BattleEngine.REAPING_SCYTHE_CHANCE ? 15 : 0);
+                break;
+            default:
+                enemyAttack(enemy, hero);
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: EntityArena
+--------------------------------------------------------------------------------
+Off-heap entity storage (java.lang.foreign Arena + MemorySegment) for
+population-scale simulation. Heroes and monsters are 128-byte records at fixed
+offsets (HP/mana, stats, cooldowns, EffectStore-style effect slots with
+shield/mark/stun aggregates) addressed by long handles. Provides the combat
+rules on handles (attack, skills, effects, enemy moves, a greedy full fight);
+used by BalanceSimulator --arena.
+--------------------------------------------------------------------------------
+*/
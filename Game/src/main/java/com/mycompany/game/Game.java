@@ -1,445 +1,138 @@
 package com.mycompany.game;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Scanner;
-import java.util.Set;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
- * Entry point and main controller for the Death's Game RPG.
- * Handles player lives, hero selection, dungeon progression, and game flow.
+ * Entry point for the Death's Game RPG.
+ * Starts a console game, the multi-player server, or the balance simulator,
+ * and holds the shared (read-only) game definitions and print helpers.
+ *
+ * Usage:
+ *   Game [--pacing p] [--seed n]                - play in this console
+ *   Game --server [port] [--pacing p] [--seed n] [--saves]
+ *                                               - host telnet-style sessions on localhost (default port 4000)
+ *   Game --simulate [options]                   - run the balance simulator (see BalanceSimulator)
+ *   Game --record file [--seed n]               - play in this console, recording seed + inputs (no saves)
+ *   Game --replay file...                       - replay recordings headless and report divergence
+ *   Game --load [options]                       - drive the server with scripted bots (see LoadHarness)
+ *   Game --leaderboard [--top N]                - show the best recorded runs (see RunHistory)
+ *   Game [--server] ... --combat-log file       - also write every combat event to a TSV file (see CombatLogWriter)
+ *
+ * Pacing of story scenes: dramatic (default), fast or instant.
+ * --simulate --vector uses the incubating Vector API: start java with
+ * --add-modules jdk.incubator.vector (without it the simulator falls back to BattleEngine).
+ * --seed makes a run reproducible (the server derives one seed per session from it);
+ * without it every session picks a fresh seed, printed in the end-of-run summary.
+ * Server sessions are not saved unless --saves is given: players are identified
+ * only by the name they type, so any client could resume another player's save.
+ * Console games and the server publish their GameMetrics over JMX (domain com.mycompany.game).
  */
 public class Game {
-    // --- Scanner for user input ---
-    private static Scanner scanner = new Scanner(System.in);
-    private static String playerName;
-
-    // --- Life/Progress System ---
-    private static final int MAX_LIVES = 5;
-    // LinkedList keeps track of used hero types in order (Data structure: LinkedList)
-    private static LinkedList<HeroType> usedTypes = new LinkedList<>();
-    private static int livesLeft = MAX_LIVES;
-
-    // --- Per-life state ---
-    private static Hero player; // The current player/hero object
-    private static HeroType chosenType; // The chosen hero type for this life
-    // Dungeons mapped by ID string (Data structure: HashMap)
-    private static Map<String, Dungeon> dungeons;
-    // Order of dungeons (Data structure: List)
-    private static final List<String> DUNGEON_KEYS = Arrays.asList("1", "2", "3", "4", "5", "6", "7");
-
-    // --- Dungeon Progress ---
-    // Global cleared dungeons: never reset, shared across all lives (Data structure: HashSet)
-    private static Set<String> clearedDungeonsGlobal = new HashSet<>();
-    // Cleared dungeons in current life (Data structure: HashSet)
-    private static Set<String> clearedDungeonsCurrentLife = new HashSet<>();
-
-    private static boolean isGameOver = false;
-
-    public static void main(String[] args) {
-        requestPlayerName();
-        DeathDialogue.prologue(playerName);
-        DeathDialogue.announceRequiredDungeons();
-        runGameLoop();
-        endGame();
-    }
-
-    /**
-     * --- Main Game Loop ---
-     * Handles life/mask selection and dungeon progression.
-     * Data Structures: LinkedList (usedTypes), HashSet (global/current dungeons), Map (dungeons)
-     */
-    
-    private static void runGameLoop() {
-        while (livesLeft > 0 && !isGameOver) {
-            clearedDungeonsCurrentLife.clear(); // Per-life progress reset
-            chosenType = chooseHeroTypeMenu();
-            usedTypes.add(chosenType); // Track the hero classes used (LinkedList)
-            livesLeft = MAX_LIVES - usedTypes.size();
-            DeathDialogue.onClassChosen(chosenType, livesLeft);
-            player = new Hero(playerName, chosenType);
-            initializeDungeons();
-
-            DeathDialogue.transmigration(playerName, chosenType.name, livesLeft, new HashSet<>(usedTypes));
-            printTitle("SYSTEM WINDOW");
-            System.out.println("  [A cold system window flickers before you, sharp and unreal.]");
-            System.out.println("  Welcome to DEATH'S GAME");
-            printSectionEnd();
-            System.out.println("[System] Conquer the Nine Domains: Seven Sins, Your Shadow, and Death itself.");
-            System.out.println("[System] Your mask: " + chosenType.name);
-            System.out.println("[System] Masks remaining: " + livesLeft);
-            DeathDialogue.deathMock("Let us see how long this mask will last. The domains await, and so do I.");
-            pause();
-
-            // --- MainMenu --- Data Structure: List for menu, HashSet for progress
-            boolean allCleared = runDungeonSelectionMenu();
+    // Order of dungeons (Data structure: List, from the DungeonDefinition registry)
+    static final List<String> DUNGEON_KEYS = DungeonDefinition.keys();
 
-            // --- Boss Battles ---
-            if (allCleared) {
-                // Mirror battle (shadow self)
-                if (mirrorBattle() && deathDomain()) {
-                    isGameOver = true;
-                }
-            }
-            
-            // Life lost
-            if (!isGameOver && player.isDead() && livesLeft > 0) {
-                DeathDialogue.onLifeLost(livesLeft, new HashSet<>(usedTypes));
-            }
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--simulate")) {
+            BalanceSimulator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
         }
-    }
-
-    /**
-     * --- Player Name Input ---
-     * Simple input with validation.
-     */
-    private static void requestPlayerName() {
-        printTitle("The End...?");
-        printSectionEnd();
-        System.out.print("Enter your name: ");
-        while (true) {
-            playerName = scanner.nextLine();
-            if (playerName != null && !playerName.trim().isEmpty()) break;
-            System.out.print("Name cannot be blank. Enter your name: ");
+        if (args.length > 0 && args[0].equals("--load")) {
+            LoadHarness.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
         }
-        System.out.println();
-    }
-
-    /**
-     * --- Hero Class Selection Menu ---
-     * Lets the player choose an unused hero type. Data structure: Enum, LinkedList
-     */
-    private static HeroType chooseHeroTypeMenu() {
-        while (true) {
-            System.out.println("Choose your next mask:");
-            int idx = 1;
-            for (HeroType type : HeroType.values()) {
-                if (usedTypes.contains(type)) continue;
-                System.out.println("  " + idx + ". " + type.name + " - " + type.desc);
-                idx++;
-            }
-            System.out.print("> ");
-            String input = scanner.nextLine();
-            int choice = -1;
-            try {
-                if (input == null || input.trim().isEmpty()) throw new Exception();
-                choice = Integer.parseInt(input.trim());
-            } catch (Exception e) {
-                System.out.println("Invalid input. Enter a number for your class.");
-                continue;
-            }
-            idx = 1;
-            for (HeroType type : HeroType.values()) {
-                if (usedTypes.contains(type)) continue;
-                if (idx == choice) return type;
-                idx++;
-            }
-            System.out.println("Invalid choice.");
+        if (args.length > 0 && args[0].equals("--leaderboard")) {
+            RunHistory.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
         }
-    }
-
-    /**
-     * --- MainMenu: Dungeon Selection ---
-     * Lets the player select dungeons, check status, or exit.
-     * Data structures: HashSet (for cleared dungeons), List (for menu ordering)
-     * Flow: Only unlocked dungeons (next in order or already cleared) are selectable.
-     */
-    private static boolean runDungeonSelectionMenu() {
-        while (clearedDungeonsGlobal.size() < DUNGEON_KEYS.size()) {
-            printDivider();
-            System.out.println("=== MAIN MENU ===");
-            System.out.println("Select a domain to enter:");
-            for (int i = 0; i < DUNGEON_KEYS.size(); i++) {
-                String key = DUNGEON_KEYS.get(i);
-                Dungeon dungeon = dungeons.get(key);
-                if (clearedDungeonsGlobal.contains(key) || isUnlocked(key)) {
-                    System.out.println((i + 1) + ". " + dungeon.name + (clearedDungeonsGlobal.contains(key) ? " (cleared)" : ""));
-                } else {
-                    System.out.println((i + 1) + ". ????????");
-                }
-            }
-            System.out.println("0. Check Status");
-            System.out.println("-1. Exit Game");
-            System.out.print("> ");
-            String input = scanner.nextLine();
-            int choice;
-            try {
-                if (input == null || input.trim().isEmpty()) throw new Exception();
-                choice = Integer.parseInt(input.trim());
-            } catch (Exception e) {
-                System.out.println("Invalid input.");
-                continue;
-            }
-            if (choice == 0) {
-                player.printStatus();
-                continue;
-            }
-            if (choice == -1) {
-                isGameOver = true;
-                return false;
-            }
-            if (choice < 1 || choice > DUNGEON_KEYS.size()) {
-                System.out.println("Invalid choice.");
-                continue;
-            }
-            String selectedKey = DUNGEON_KEYS.get(choice - 1);
-            if (!clearedDungeonsGlobal.contains(selectedKey) && !isUnlocked(selectedKey)) {
-                System.out.println("That domain is not yet available.");
-                continue;
-            }
-
-            Dungeon dungeon = dungeons.get(selectedKey);
-            boolean isFirstVisit = !clearedDungeonsGlobal.contains(selectedKey);
-            DeathDialogue.beforeDomain(dungeon.name, dungeon.theme, isFirstVisit);
-
-            boolean survived = dungeon.runDungeon(player, scanner);
-
-            // Restore HP/Mana if survived
-            if (survived && !player.isDead()) {
-                player.hp = player.maxHp;
-                player.mana = player.maxMana;
-                System.out.println("You feel refreshed after leaving the dungeon. (HP and Mana fully restored)");
-            }
-
-            if (player.isDead()) {
-                DeathDialogue.onDeath(livesLeft);
-                return false; // triggers next life if available
-            }
-            if (dungeon.isCleared()) {
-                DeathDialogue.afterDomain(dungeon.name);
-                clearedDungeonsCurrentLife.add(selectedKey);
-                clearedDungeonsGlobal.add(selectedKey);
-            }
-        }
-        DeathDialogue.deathMock("Impressive! You've survived the sins. But can you survive yourself?");
-        return true;
-    }
-
-    /**
-     * --- Dungeon Unlock Logic ---
-     * Only unlocks the lowest-numbered uncleared dungeon.
-     * Data structure: List (DUNGEON_KEYS), HashSet (cleared)
-     */
-    private static boolean isUnlocked(String key) {
-        if (clearedDungeonsGlobal.contains(key)) return true;
-        for (String k : DUNGEON_KEYS) {
-            if (!clearedDungeonsGlobal.contains(k)) {
-                return k.equals(key);
-            }
-        }
-        return false;
-    }
-
-    /**
-     * --- Boss Battle: Mirror (Shadow) ---
-     * Player fights their own shadow (stat-clone).
-     * Data structure: None special (direct object use)
-     * Flow: Turn-based combat loop.
-     */
-    private static boolean mirrorBattle() {
-        DeathDialogue.beforeMirror();
-        System.out.println("--- DOMAIN VIII: MIRROR ---");
-        System.out.println("You stand before an abyssal mirror. Your own reflection steps out, grinning.");
-        Monster shadow = Monster.createShadow(player);
-        while (player.hp > 0 && shadow.hp > 0) {
-            player.processTurnPassives();
-            shadow.processTurnPassives();
-            player.processStatusEffects();
-            shadow.processStatusEffects();
-            player.tickSkillCooldowns();
-            Hero.printBattleStatus(player, shadow);
-            System.out.println("Choose your action:");
-            System.out.println("  1. Attack");
-            System.out.println("  2. Skill");
-            String action = null;
-            while (true) {
-                System.out.print("> ");
-                action = scanner.nextLine();
-                if ("1".equals(action) || "2".equals(action)) break;
-                System.out.println("Invalid input. Enter 1 or 2.");
-            }
-            switch (action) {
-                case "1":
-                    if (player.attack(shadow)) {
-                        System.out.println("Your shadow collapses.");
-                        DeathDialogue.onMirrorClear();
-                        return true;
-                    }
-                    break;
-                case "2":
-                    if (player.useSkillMenu(shadow, scanner)) {
-                        System.out.println("Your shadow collapses.");
-                        DeathDialogue.onMirrorClear();
-                        return true;
-                    }
-                    break;
-            }
-            if (shadow.hp > 0) {
-                if (Math.random() < 0.5) {
-                    int dmg = shadow.atk + 10 - player.stats[3]/2;
-                    System.out.println(shadow.name + " uses Mirror Strike!");
-                    if (dmg < 1) dmg = 1;
-                    player.takeDamage(dmg);
-                } else {
-                    int dmg = shadow.atk - player.stats[3]/2;
-                    System.out.println(shadow.name + " attacks!");
-                    if (dmg < 1) dmg = 1;
-                    player.takeDamage(dmg);
-                }
-            }
+        if (args.length > 0 && args[0].equals("--replay")) {
+            RunReplayer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
         }
-        if (player.isDead()) {
-            DeathDialogue.onDeath(livesLeft);
-            return false;
+        String pacingArg = option(args, "--pacing");
+        PacedRenderSink.Pacing pacing = pacingArg != null
+                ? PacedRenderSink.Pacing.parse(pacingArg) : PacedRenderSink.Pacing.DRAMATIC;
+        String seedArg = option(args, "--seed");
+        GameMetrics.registerMBeans(); // live games and the server are observable over JMX
+        String combatLogArg = option(args, "--combat-log");
+        CombatLogWriter combatLog = combatLogArg != null ? new CombatLogWriter(Paths.get(combatLogArg)) : null;
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 && !args[1].startsWith("--")
+                    ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+            GameServer server = seedArg != null
+                    ? new GameServer(port, pacing, Long.parseLong(seedArg))
+                    : new GameServer(port, pacing);
+            server.setCombatLog(combatLog);
+            server.setSavesEnabled(Arrays.asList(args).contains("--saves"));
+            server.serve();
+            return;
         }
-        DeathDialogue.deathMock("Your own shadow, defeated? Perhaps you aren't all bluster after all.");
-        return player.hp > 0;
-    }
-
-    /**
-     * --- Boss Battle: Death (Final Boss) ---
-     * Player chooses to fight Death or accept reward (ending).
-     * Data structure: None special (object use)
-     */
-    private static boolean deathDomain() {
-        DeathDialogue.beforeDeath();
-        System.out.println("--- DOMAIN IX: DEATH'S THRONE ---");
-        System.out.println("Death sits upon a throne of bone and shadow.");
-        System.out.println("DEATH: \"You have come far. Do you wish to claim your reward, or fight me for true freedom?\"");
-        String choice;
-        while (true) {
-            System.out.print("Fight Death? (y/n): ");
-            choice = scanner.nextLine();
-            if (choice == null || choice.trim().isEmpty()) {
-                System.out.println("Please answer y or n.");
-                continue;
-            }
-            if (choice.equalsIgnoreCase("y") || choice.equalsIgnoreCase("n")) break;
-            System.out.println("Please answer y or n.");
+        RenderSink out = new PacedRenderSink(new BufferedRenderSink(System.out), pacing);
+        long seed = seedArg != null ? Long.parseLong(seedArg) : GameSession.newSeed();
+        String recordArg = option(args, "--record");
+        if (recordArg != null) {
+            record(Paths.get(recordArg), out, seed, combatLog);
+            return;
         }
-        if (choice.equalsIgnoreCase("y")) {
-            DeathDialogue.deathMock("Bold. Or perhaps foolish. I do love a challenge!");
-            Monster death = Monster.deathBoss(player.level + 15);
-            while (player.hp > 0 && death.hp > 0) {
-                player.processTurnPassives();
-                death.processTurnPassives();
-                player.processStatusEffects();
-                death.processStatusEffects();
-                player.tickSkillCooldowns();
-                Hero.printBattleStatus(player, death);
-                System.out.println("Choose your action:");
-                System.out.println("  1. Attack");
-                System.out.println("  2. Skill");
-                String action = null;
-                while (true) {
-                    System.out.print("> ");
-                    action = scanner.nextLine();
-                    if ("1".equals(action) || "2".equals(action)) break;
-                    System.out.println("Invalid input. Enter 1 or 2.");
-                }
-                switch (action) {
-                    case "1":
-                        if (player.attack(death)) {
-                            System.out.println("Death falls silent.");
-                            DeathDialogue.trueEnding(playerName);
-                            return true;
-                        }
-                        break;
-                    case "2":
-                        if (player.useSkillMenu(death, scanner)) {
-                            System.out.println("Death falls silent.");
-                            DeathDialogue.trueEnding(playerName);
-                            return true;
-                        }
-                        break;
-                }
-                if (death.hp > 0) {
-                    if (Math.random() < 0.7) {
-                        int dmg = death.atk + 15 - player.stats[3]/2;
-                        System.out.println("Death uses Reaping Scythe!");
-                        if (dmg < 1) dmg = 1;
-                        player.takeDamage(dmg);
-                    } else {
-                        int dmg = death.atk - player.stats[3]/2;
-                        System.out.println("Death attacks!");
-                        if (dmg < 1) dmg = 1;
-                        player.takeDamage(dmg);
-                    }
-                }
-            }
-            if (player.isDead()) {
-                DeathDialogue.onDeath(livesLeft);
-            }
-            return player.hp > 0;
-        } else {
-            DeathDialogue.deathMock("A wise choice... or perhaps you fear me more than you admit.");
-            DeathDialogue.goodEnding(playerName);
-            return true;
+        GameSession session = new GameSession(PlayerInput.current(), out, seed);
+        if (combatLog != null) combatLog.attach(session.events(), "console");
+        try {
+            session.run();
+        } finally {
+            if (combatLog != null) combatLog.close();
         }
     }
 
     /**
-     * --- End of Game Summary ---
-     * Prints a summary of the run and player progress.
+     * --- Recorded Console Game ---
+     * Plays normally while copying every input line; the recording (seed,
+     * inputs, final state) is written when the run ends, even if the console
+     * input is closed part-way. Saves are off so the run depends on nothing
+     * but the seed and the inputs. combatLog (may be null) records the
+     * session's combat events and is closed when the run ends.
      */
-    private static void endGame() {
-        printDivider();
-        if (livesLeft == 0) {
-            DeathDialogue.finalBadEnding();
-        } else {
-            System.out.println("[Curtain Call]");
+    private static void record(Path file, RenderSink out, long seed, CombatLogWriter combatLog) throws IOException {
+        InputRecording.Recorder recorder = new InputRecording.Recorder(PlayerInput.current());
+        GameSession session = new GameSession(recorder, out, seed);
+        session.setSavesEnabled(false);
+        if (combatLog != null) combatLog.attach(session.events(), "console");
+        boolean eof = false;
+        try {
+            session.run();
+        } catch (NoSuchElementException e) {
+            eof = true;
+        } finally {
+            if (combatLog != null) combatLog.close();
         }
-        System.out.println();
-        System.out.println("=== Your Journey Summary ===");
-        System.out.println("Masks used (" + usedTypes.size() + "):");
-        for (HeroType t : usedTypes) System.out.println(" - " + t.name);
-        System.out.println("Dungeons cleared (" + clearedDungeonsGlobal.size() + "):");
-        for (String key : clearedDungeonsGlobal) {
-            Dungeon d = dungeons.get(key);
-            if (d != null) System.out.println(" - " + d.name);
-        }
-        if (player != null)
-            System.out.println("Final mask/class: " + player.type.name + " (Level " + player.level + ")");
-        printDivider();
+        recorder.finish(session, eof).write(file);
+        System.err.println("Recorded " + file + " (seed " + seed + ")");
     }
 
-    /**
-     * --- Dungeon Initialization ---
-     * Creates and stores all dungeon instances in a HashMap (ID -> Dungeon).
-     */
-    private static void initializeDungeons() {
-        dungeons = new HashMap<>();
-        dungeons.put("1", new Dungeon("Sloth", "Sloth", "First Domain", "Lazarin", "Slothling", 3, 1));
-        dungeons.put("2", new Dungeon("Lust", "Lust", "Second Domain", "Succubus", "Tempted", 4, 5));
-        dungeons.put("3", new Dungeon("Gluttony", "Gluttony", "Third Domain", "Devourer", "Glutton Imp", 5, 10));
-        dungeons.put("4", new Dungeon("Greed", "Greed", "Fourth Domain", "Gilded Wraith", "Miserling", 6, 15));
-        dungeons.put("5", new Dungeon("Wrath", "Wrath", "Fifth Domain", "Berserker Fiend", "Rager", 7, 20));
-        dungeons.put("6", new Dungeon("Envy", "Envy", "Sixth Domain", "Jealous Shade", "Covetor", 8, 25));
-        dungeons.put("7", new Dungeon("Pride", "Pride", "Seventh Domain", "Mirror Knight", "Boaster", 9, 30));
+    // Value following a "--name" option, or null if absent
+    private static String option(String[] args, String name) {
+        int i = Arrays.asList(args).indexOf(name);
+        return i >= 0 && i + 1 < args.length ? args[i + 1] : null;
     }
 
     // --- Utility Print Methods ---
     public static void printTitle(String s) {
-        System.out.println();
-        System.out.println("--- " + s + " ---");
+        RenderSink out = RenderSink.current();
+        out.println();
+        out.println("--- " + s + " ---");
     }
 
     public static void printSectionEnd() {
-        System.out.println();
+        RenderSink out = RenderSink.current();
+        out.println();
     }
 
     public static void printDivider() {
-        System.out.println("-------------------------------");
-    }
-
-    private static void pause() {
-        System.out.print("[Press Enter to continue]");
-        scanner.nextLine();
-        System.out.println();
+        RenderSink out = RenderSink.current();
+        out.println("-------------------------------");
     }
 }
 
@@ -447,18 +140,9 @@ public class Game {
 --------------------------------------------------------------------------------
 Class: Game
 --------------------------------------------------------------------------------
-This is the main controller class for the Death's Game RPG. It manages player lives
-(masks), hero type selection, dungeon progress, and the overall game flow. It uses
-various data structures such as LinkedList (for hero/mask history), HashSet (for
-dungeon progress tracking), HashMap (for dungeon mapping), and List (for menu order).
-Features include:
-- Life/mask system (5 unique hero classes per run)
-- Dungeon unlock and progress system
-- Turn-based battle with bosses and unique domains
-- Summary and ending presentation
-
-Major Navigation Points:
---- MainMenu --- : Dungeon selection and status check
---- Boss Battles --- : Mirror and Death fights
+Launcher for Death's Game. The console game runs a single GameSession on the
+main thread; --server hands every TCP connection its own GameSession (see
+GameServer). Also provides the domain menu order (DUNGEON_KEYS) and
+the small print helpers shared by all sessions.
 --------------------------------------------------------------------------------
-*/
\ No newline at end of file
+*/
@@ -0,0 +1,260 @@
+package com.mycompany.game;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of state-changing game actions for one session.
+ * Each action is one small fixed-size record written with a single
+ * sequential append. The session's save file (SaveFile) is the checkpoint:
+ * the journal header names the checkpoint it follows (by payload CRC), and
+ * is reset every time a new checkpoint is written. After a crash, the
+ * session loads the checkpoint and replays the journal tail on top of it.
+ *
+ * Header: int magic 'DGJL', short version, short reserved, int checkpoint CRC.
+ * Records: one tag byte followed by its payload (see the tags below).
+ *
+ * Hero state is journaled as absolute values: damage records carry the HP
+ * left, and a HERO record (HP, mana, cooldowns and every effect slot) is
+ * written whenever the hero settles after a change: at the end of each
+ * fight, and after heals, rests, moves and full restores. A crash in the
+ * middle of a fight therefore recovers the hero as they entered it, with
+ * the damage taken so far.
+ */
+public final class GameJournal {
+    public static final int MAGIC = 0x44474A4C; // "DGJL"
+    public static final short VERSION = 3; // older journals are ignored (their checkpoint alone is used)
+    private static final int HEADER_BYTES = 12;
+
+    // --- Record Tags (0 is never written: zero-filled tails end the replay) ---
+    static final byte ENTER = 1;   // byte dungeon index (Game.DUNGEON_KEYS)
+    static final byte ROOM = 2;    // int room id after the move (RoomGraph)
+    static final byte DAMAGE = 3;  // int amount, int hp after
+    // 4 was EFFECT (version 1): effects are now part of the HERO record
+    static final byte EXP = 5;     // int amount, short level after
+    static final byte CLEAR = 6;   // byte dungeon index
+    static final byte HERO = 7;    // int hp, int mana, then SaveFile.putCombat (cooldowns, effect slots)
+    private static final int INITIAL_RECORD = 64;
+
+    private final FileChannel channel;
+    // Reused record buffer, grown for heroes carrying many effects: appends
+    // allocate nothing in steady state (Data structure: ByteBuffer)
+    private ByteBuffer record = ByteBuffer.allocateDirect(INITIAL_RECORD);
+    private int recordsSinceCheckpoint;
+    private boolean failed; // a write failed; stop journaling quietly
+
+    private GameJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /** Journal file kept next to a save file. */
+    public static Path pathFor(Path saveFile) {
+        String name = saveFile.getFileName().toString().replaceFirst("\\.sav$", "");
+        return saveFile.resolveSibling(name + ".journal");
+    }
+
+    /**
+     * --- Open Journal ---
+     * Opens (or creates) the journal and starts it after the given checkpoint.
+     */
+    public static GameJournal open(Path file, int checkpointCrc) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        GameJournal journal = new GameJournal(ch);
+        journal.reset(checkpointCrc);
+        return journal;
+    }
+
+    /**
+     * --- Reset After Checkpoint ---
+     * Truncates the journal to a fresh header naming the new checkpoint.
+     * A crash part-way leaves a header that matches no checkpoint, so the
+     * stale tail is ignored and the (newer) checkpoint alone is used.
+     */
+    public void reset(int checkpointCrc) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(checkpointCrc).flip();
+        channel.position(0);
+        while (header.hasRemaining()) channel.write(header);
+        recordsSinceCheckpoint = 0;
+        failed = false;
+    }
+
+    /** Records appended since the last checkpoint. */
+    public int recordsSinceCheckpoint() {
+        return recordsSinceCheckpoint;
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing buffered; the file is already complete
+        }
+    }
+
+    // --- Appends (one write per action) ---
+
+    public void enterDungeon(int dungeonIdx) {
+        record.clear();
+        record.put(ENTER).put((byte) dungeonIdx);
+        append();
+    }
+
+    public void roomMove(int room) {
+        record.clear();
+        record.put(ROOM).putInt(room);
+        append();
+    }
+
+    public void damage(int amount, int hpAfter) {
+        record.clear();
+        record.put(DAMAGE).putInt(amount).putInt(hpAfter);
+        append();
+    }
+
+    public void exp(int amount, int levelAfter) {
+        record.clear();
+        record.put(EXP).putInt(amount).putShort((short) levelAfter);
+        append();
+    }
+
+    public void clear(int dungeonIdx) {
+        record.clear();
+        record.put(CLEAR).put((byte) dungeonIdx);
+        append();
+    }
+
+    /** Settled hero state: HP, mana, skill cooldowns and active effect slots. */
+    public void hero(Hero hero) {
+        int bytes = 1 + 4 + 4 + SaveFile.combatBytes(hero);
+        if (bytes > record.capacity()) record = ByteBuffer.allocateDirect(Math.max(bytes, record.capacity() * 2));
+        record.clear();
+        record.put(HERO).putInt(hero.hp).putInt(hero.mana);
+        SaveFile.putCombat(record, hero);
+        append();
+    }
+
+    // Writes the staged record at the end of the file
+    private void append() {
+        if (failed) return;
+        record.flip();
+        try {
+            while (record.hasRemaining()) channel.write(record);
+            recordsSinceCheckpoint++;
+        } catch (IOException e) {
+            failed = true; // the next checkpoint still captures the full state
+        }
+    }
+
+    // --- Recovery ---
+
+    /**
+     * --- Replay Tail ---
+     * Applies the records written after the checkpoint whose payload CRC is
+     * given. Returns the number of records applied, or 0 if the journal
+     * belongs to another checkpoint (or is missing/empty).
+     * Data structure: journal copied onto the heap, read sequentially (no
+     * mapping is left behind, so the journal can be reset right after)
+     *
+     * Hero records are applied to hero (may be null if the checkpoint has no
+     * living hero); dungeon clears go to both cleared sets. Replay stops at a
+     * torn or zero-filled tail, or at an EXP record whose level disagrees.
+     * A HERO record is applied only when it is complete, so a torn one leaves
+     * the hero as the records before it described.
+     */
+    public static int replay(Path file, int checkpointCrc, Hero hero,
+                             Set<String> clearedGlobal, Set<String> clearedCurrentLife) throws IOException {
+        if (!Files.isRegularFile(file)) return 0;
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buf.remaining() < HEADER_BYTES) return 0;
+        if (buf.getInt() != MAGIC || buf.getShort() != VERSION) return 0;
+        buf.getShort();
+        if (buf.getInt() != checkpointCrc) return 0;
+
+        List<String> keys = Game.DUNGEON_KEYS;
+        int applied = 0;
+        try {
+            while (buf.hasRemaining()) {
+                byte tag = buf.get();
+                switch (tag) {
+                    case ENTER:
+                        buf.get();
+                        break;
+                    case ROOM:
+                        buf.getInt();
+                        break;
+                    case DAMAGE: {
+                        buf.getInt();
+                        int hpAfter = buf.getInt();
+                        if (hero != null) hero.hp = hpAfter;
+                        break;
+                    }
+                    case EXP: {
+                        int amount = buf.getInt();
+                        int levelAfter = buf.getShort();
+                        if (hero != null) {
+                            hero.gainExp(amount);
+                            if (hero.level != levelAfter) return applied + 1; // diverged: keep what matched
+                        }
+                        break;
+                    }
+                    case CLEAR: {
+                        String key = keys.get(buf.get());
+                        clearedGlobal.add(key);
+                        clearedCurrentLife.add(key);
+                        break;
+                    }
+                    case HERO: {
+                        int hp = buf.getInt(), mana = buf.getInt();
+                        int length = SaveFile.combatLength(buf);
+                        if (length > buf.remaining()) return applied; // torn final record
+                        if (hero != null) {
+                            hero.hp = hp;
+                            hero.mana = mana;
+                            SaveFile.getCombat(buf, hero);
+                        } else {
+                            buf.position(buf.position() + length);
+                        }
+                        break;
+                    }
+                    default:
+                        return applied; // zero fill or garbage: end of the valid tail
+                }
+                applied++;
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            // torn final record: everything before it has been applied
+        }
+        return applied;
+    }
+
+    /** CRC of a checkpoint payload (as returned by SaveFile.read); links a journal to it. */
+    public static int checkpointCrc(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: GameJournal
+--------------------------------------------------------------------------------
+Write-ahead journal for a session: room moves, hero damage, settled hero state
+(HP, mana, cooldowns, effects), EXP/level-ups and dungeon clears are appended
+as small binary records (one write each, no allocation). Checkpoints are SaveFile
+snapshots; the journal is reset after each one. Crash recovery = load the
+checkpoint, then replay the journal tail (read onto the heap, sequential).
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,230 @@
+package com.mycompany.game;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide runtime metrics: sessions, battles per domain, turn
+ * latency, status effects per turn, level-ups and deaths per hero type.
+ * Recording is lock-free (LongAdder counters, StripedHistogram
+ * distributions) so game threads never wait on each other to count.
+ * registerMBeans() publishes everything as MXBeans on the platform MBean
+ * server (type=GameMetrics, and one type=DomainMetrics per domain), so
+ * jconsole, VisualVM or any JMX client can watch a running game or server.
+ * Level-ups arrive as combat events (sessions attach the registry to their
+ * CombatEventRing once it is published).
+ *
+ * Battle, turn and effect numbers only come from BattleEngines created
+ * with domain stats, so the balance simulator and the solver's search stay
+ * out of them.
+ */
+public final class GameMetrics implements GameMetricsMXBean, CombatEventHandler {
+    public static final String JMX_DOMAIN = "com.mycompany.game";
+    private static final HeroType[] HERO_TYPES = HeroType.values();
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    // --- Counters (Data structure: LongAdder / AtomicInteger gauge) ---
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final LongAdder sessionsStarted = new LongAdder();
+    private final LongAdder sessionsFinished = new LongAdder();
+    private final LongAdder levelUps = new LongAdder();
+    private final LongAdder effectsProcessed = new LongAdder();
+    // Indexed by HeroType ordinal (Data structure: Array of LongAdder)
+    private final LongAdder[] deaths = new LongAdder[HERO_TYPES.length];
+
+    // --- Distributions (Data structure: StripedHistogram) ---
+    private final StripedHistogram turnLatency = new StripedHistogram();  // nanoseconds
+    private final StripedHistogram effectsPerTurn = new StripedHistogram();
+
+    // Battle counters keyed by domain name (Data structure: ConcurrentHashMap)
+    private final Map<String, DomainStats> domains = new ConcurrentHashMap<>();
+    private volatile MBeanServer server;
+
+    private GameMetrics() {
+        for (int i = 0; i < deaths.length; i++) deaths[i] = new LongAdder();
+    }
+
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * --- Domain Stats ---
+     * Battle counters of one domain, created (and registered with JMX, if
+     * enabled) on first use.
+     */
+    public static DomainStats domain(String name) {
+        return INSTANCE.domains.computeIfAbsent(name, n -> {
+            DomainStats d = new DomainStats(n);
+            MBeanServer s = INSTANCE.server;
+            if (s != null) register(s, d, d.objectName());
+            return d;
+        });
+    }
+
+    /**
+     * --- JMX Registration ---
+     * Publishes the registry and all domain stats on the platform MBean
+     * server (domains created later register themselves). Idempotent.
+     */
+    public static synchronized void registerMBeans() {
+        if (INSTANCE.server != null) return;
+        MBeanServer s = ManagementFactory.getPlatformMBeanServer();
+        register(s, INSTANCE, objectName("type=GameMetrics"));
+        INSTANCE.server = s;
+        for (DomainStats d : INSTANCE.domains.values()) register(s, d, d.objectName());
+    }
+
+    /** True once registerMBeans() has run (sessions then feed their combat events here). */
+    public static boolean isPublished() {
+        return INSTANCE.server != null;
+    }
+
+    private static void register(MBeanServer s, Object bean, ObjectName name) {
+        try {
+            if (!s.isRegistered(name)) s.registerMBean(bean, name);
+        } catch (JMException e) {
+            System.err.println("[Metrics] Could not register " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static ObjectName objectName(String properties) {
+        try {
+            return new ObjectName(JMX_DOMAIN + ":" + properties);
+        } catch (JMException e) {
+            throw new IllegalArgumentException(properties, e);
+        }
+    }
+
+    // --- Recording (hot path) ---
+
+    public void sessionStarted() {
+        sessionsStarted.increment();
+        activeSessions.incrementAndGet();
+    }
+
+    public void sessionFinished() {
+        activeSessions.decrementAndGet();
+        sessionsFinished.increment();
+    }
+
+    /** Combat event consumer (inline on the session thread): counts level-ups. */
+    @Override
+    public void onEvent(CombatEvent event) {
+        if (event.kind == CombatEvent.Kind.LEVEL_UP) levelUps.increment();
+    }
+
+    public void heroDied(HeroType type) {
+        deaths[type.ordinal()].increment();
+    }
+
+    // One resolved round: its latency (excluding the time spent choosing an action) and effects ticked
+    void turnResolved(long nanos, int effects) {
+        turnLatency.record(nanos);
+        effectsPerTurn.record(effects);
+        effectsProcessed.add(effects);
+    }
+
+    // --- GameMetricsMXBean ---
+
+    @Override public int getActiveSessions() { return activeSessions.get(); }
+    @Override public long getSessionsStarted() { return sessionsStarted.sum(); }
+    @Override public long getSessionsFinished() { return sessionsFinished.sum(); }
+
+    @Override
+    public long getBattlesStarted() {
+        long total = 0;
+        for (DomainStats d : domains.values()) total += d.getBattlesStarted();
+        return total;
+    }
+
+    @Override
+    public long getBattlesFinished() {
+        long total = 0;
+        for (DomainStats d : domains.values()) total += d.getBattlesFinished();
+        return total;
+    }
+
+    @Override public long getTurns() { return turnLatency.snapshot().count(); }
+    @Override public double getTurnLatencyMeanMicros() { return turnLatency.snapshot().mean() / 1e3; }
+    @Override public double getTurnLatencyP50Micros() { return turnLatency.snapshot().percentile(0.50) / 1e3; }
+    @Override public double getTurnLatencyP99Micros() { return turnLatency.snapshot().percentile(0.99) / 1e3; }
+    @Override public double getTurnLatencyMaxMicros() { return turnLatency.snapshot().max() / 1e3; }
+
+    @Override public long getEffectsProcessed() { return effectsProcessed.sum(); }
+    @Override public double getEffectsPerTurnMean() { return effectsPerTurn.snapshot().mean(); }
+    @Override public long getEffectsPerTurnP99() { return effectsPerTurn.snapshot().percentile(0.99); }
+    @Override public long getEffectsPerTurnMax() { return effectsPerTurn.snapshot().max(); }
+
+    @Override public long getLevelUps() { return levelUps.sum(); }
+
+    @Override
+    public Map<String, Long> getDeathsByHeroType() {
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (HeroType t : HERO_TYPES) byType.put(t.name, deaths[t.ordinal()].sum());
+        return byType;
+    }
+
+    /**
+     * Battle counters of one domain (a sin domain, the Mirror or Death).
+     * A BattleEngine built with these records every fight it resolves.
+     */
+    public static final class DomainStats implements DomainMetricsMXBean {
+        private final String name;
+        private final LongAdder started = new LongAdder();
+        private final LongAdder victories = new LongAdder();
+        private final LongAdder defeats = new LongAdder();
+        private final LongAdder escapes = new LongAdder();
+
+        private DomainStats(String name) {
+            this.name = name;
+        }
+
+        void battleStarted() {
+            started.increment();
+        }
+
+        void battleFinished(BattleResult.Outcome outcome) {
+            switch (outcome) {
+                case VICTORY: victories.increment(); break;
+                case DEFEAT: defeats.increment(); break;
+                default: escapes.increment(); break;
+            }
+        }
+
+        void turnResolved(long nanos, int effects) {
+            INSTANCE.turnResolved(nanos, effects);
+        }
+
+        ObjectName objectName() {
+            return GameMetrics.objectName("type=DomainMetrics,name=" + ObjectName.quote(name));
+        }
+
+        @Override public String getDomain() { return name; }
+        @Override public long getBattlesStarted() { return started.sum(); }
+        @Override public long getBattlesFinished() { return victories.sum() + defeats.sum() + escapes.sum(); }
+        @Override public long getBattlesInProgress() { return Math.max(0, getBattlesStarted() - getBattlesFinished()); }
+        @Override public long getVictories() { return victories.sum(); }
+        @Override public long getDefeats() { return defeats.sum(); }
+        @Override public long getEscapes() { return escapes.sum(); }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: GameMetrics
+--------------------------------------------------------------------------------
+Singleton metrics registry for a running game or server. LongAdder counters
+(sessions, level-ups, deaths per HeroType, battle outcomes per domain), an
+active-session gauge, and StripedHistograms for turn-resolution latency and
+status effects per turn. Fed by GameSession, BattleEngine and combat events;
+published over JMX as GameMetricsMXBean + one DomainMetricsMXBean per domain.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,47 @@
+package com.mycompany.game;
+
+import java.util.Map;
+
+/**
+ * JMX view of the process-wide game metrics
+ * (ObjectName com.mycompany.game:type=GameMetrics).
+ * Latencies are in microseconds; histogram attributes cover the whole
+ * process lifetime.
+ */
+public interface GameMetricsMXBean {
+    // --- Sessions ---
+    int getActiveSessions();
+    long getSessionsStarted();
+    long getSessionsFinished();
+
+    // --- Battles (all domains) ---
+    long getBattlesStarted();
+    long getBattlesFinished();
+
+    // --- Turns ---
+    long getTurns();
+    double getTurnLatencyMeanMicros();
+    double getTurnLatencyP50Micros();
+    double getTurnLatencyP99Micros();
+    double getTurnLatencyMaxMicros();
+
+    // --- Status Effects ---
+    long getEffectsProcessed();
+    double getEffectsPerTurnMean();
+    long getEffectsPerTurnP99();
+    long getEffectsPerTurnMax();
+
+    // --- Heroes ---
+    long getLevelUps();
+    Map<String, Long> getDeathsByHeroType();
+}
+
+/*
+--------------------------------------------------------------------------------
+Interface: GameMetricsMXBean
+--------------------------------------------------------------------------------
+Management interface of GameMetrics: session gauge, battle/turn/effect
+counters, turn-latency and effects-per-turn percentiles, level-ups and deaths
+per hero type, readable from jconsole / VisualVM / any JMX client.
+--------------------------------------------------------------------------------
+*/
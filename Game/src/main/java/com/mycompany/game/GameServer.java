@@ -0,0 +1,178 @@
+package com.mycompany.game;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local TCP (telnet-style) game server.
+ * Every accepted connection gets its own GameSession running on its own
+ * virtual thread, with input and output bound to that connection's socket,
+ * so one process can host thousands of simultaneous players.
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 4000;
+    private static final int BACKLOG = 1024;
+
+    private final int port;
+    private final PacedRenderSink.Pacing pacing;
+    // Derives per-session seeds when the server is seeded; null = fresh seed per session
+    private final SplittableRandom seeds;
+    private volatile boolean savesEnabled; // off: players are not authenticated (see setSavesEnabled)
+    private volatile CombatLogWriter combatLog; // null: no combat event log
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * --- GameServer Constructor ---
+     * port - TCP port on the loopback interface (0 picks a free port)
+     * pacing - story scene pacing for every session (INSTANT for bots/load tests)
+     */
+    public GameServer(int port, PacedRenderSink.Pacing pacing) {
+        this(port, pacing, null);
+    }
+
+    /**
+     * --- GameServer Constructor (Seeded) ---
+     * seed - session N always gets the same seed, so a whole server run is reproducible
+     */
+    public GameServer(int port, PacedRenderSink.Pacing pacing, long seed) {
+        this(port, pacing, new SplittableRandom(seed));
+    }
+
+    private GameServer(int port, PacedRenderSink.Pacing pacing, SplittableRandom seeds) {
+        this.port = port;
+        this.pacing = pacing;
+        this.seeds = seeds;
+    }
+
+    public GameServer(int port) {
+        this(port, PacedRenderSink.Pacing.DRAMATIC);
+    }
+
+    /**
+     * Turns player save files on or off for new sessions (off by default).
+     * Saves are keyed by the name a player types and connections are not
+     * authenticated, so anyone who knows a name can continue (and overwrite)
+     * that save: only enable them for trusted players.
+     */
+    public void setSavesEnabled(boolean enabled) {
+        this.savesEnabled = enabled;
+    }
+
+    /** Logs every session's combat events to the writer (null turns it off for new sessions). */
+    public void setCombatLog(CombatLogWriter writer) {
+        this.combatLog = writer;
+    }
+
+    /**
+     * --- Serve ---
+     * Binds to localhost and accepts connections until close() is called.
+     * Each connection is handed to a new virtual thread.
+     */
+    public void serve() throws IOException {
+        ServerSocket ss = bind();
+        System.err.println("Death's Game server listening on " + ss.getLocalSocketAddress());
+        acceptLoop(ss);
+    }
+
+    /**
+     * --- Start (Background) ---
+     * Binds, then accepts on a daemon thread and returns immediately, so the
+     * server can run inside another program (e.g. the load harness).
+     * boundPort() is valid as soon as this returns.
+     */
+    public void start() throws IOException {
+        ServerSocket ss = bind();
+        Thread.ofPlatform().daemon().name("game-server-accept").start(() -> {
+            try {
+                acceptLoop(ss);
+            } catch (IOException e) {
+                System.err.println("Game server stopped: " + e.getMessage());
+            }
+        });
+    }
+
+    private ServerSocket bind() throws IOException {
+        ServerSocket ss = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        serverSocket = ss;
+        return ss;
+    }
+
+    // Accepts until the socket is closed
+    private void acceptLoop(ServerSocket listener) throws IOException {
+        try (ServerSocket ss = listener) {
+            while (!ss.isClosed()) {
+                Socket socket;
+                try {
+                    socket = ss.accept();
+                } catch (IOException e) {
+                    if (ss.isClosed()) break;
+                    throw e;
+                }
+                socket.setTcpNoDelay(true);
+                // seeds are drawn here, on the accept thread, so no generator is shared
+                long seed = seeds != null ? seeds.nextLong() : GameSession.newSeed();
+                Thread.ofVirtual()
+                        .name("session-" + sessionIds.incrementAndGet())
+                        .start(() -> handle(socket, seed));
+            }
+        }
+    }
+
+    /**
+     * --- Connection Handler ---
+     * Runs one full game for a connected player. A closed connection ends the
+     * session quietly (the input reports no more lines).
+     */
+    private void handle(Socket socket, long seed) {
+        activeSessions.incrementAndGet();
+        try (socket) {
+            PlayerInput in = new PlayerInput(socket.getInputStream());
+            RenderSink out = new PacedRenderSink(new SessionRenderSink(socket.getOutputStream()), pacing);
+            GameSession session = new GameSession(in, out, seed);
+            session.setSavesEnabled(savesEnabled);
+            CombatLogWriter log = combatLog;
+            if (log != null) log.attach(session.events(), Thread.currentThread().getName());
+            session.run();
+        } catch (NoSuchElementException | IOException e) {
+            // client disconnected; nothing left to clean up beyond the socket
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /** Number of sessions currently being played. */
+    public int activeSessions() {
+        return activeSessions.get();
+    }
+
+    /** Port actually bound (useful when constructed with port 0), or -1 before serve()/start(). */
+    public int boundPort() {
+        ServerSocket ss = serverSocket;
+        return ss == null ? -1 : ss.getLocalPort();
+    }
+
+    /** Stops accepting new connections; running sessions finish on their own. */
+    public void close() throws IOException {
+        ServerSocket ss = serverSocket;
+        if (ss != null) ss.close();
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: GameServer
+--------------------------------------------------------------------------------
+Multi-session server mode (Game --server [port]). Accepts TCP connections on
+localhost and runs one GameSession per connection on a virtual thread, with a
+socket-bound PlayerInput and SessionRenderSink (paced by PacedRenderSink, so
+cutscenes never park a thread). Connect with telnet or nc.
+--------------------------------------------------------------------------------
+*/
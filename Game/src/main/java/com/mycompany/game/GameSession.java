@@ -0,0 +1,739 @@
+package com.mycompany.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One player's playthrough of Death's Game.
+ * Holds all per-player state (lives, masks, hero, dungeons, progress) and runs
+ * the full game flow against its own input and output, so one JVM can host
+ * many sessions at once (console or networked, see GameServer).
+ */
+public class GameSession {
+    // --- Session I/O ---
+    private final PlayerInput in;    // this player's input
+    private final RenderSink sink;   // this player's output (bound to the session thread in run())
+    // Combat events of this session's fights; this thread is the only producer (see CombatEventRing)
+    private final CombatEventRing events = new CombatEventRing();
+    private String playerName;
+
+    // --- Randomness ---
+    // One seeded root per session; each life, dungeon run and boss fight gets its
+    // own split stream, so a seed reproduces the whole run (Data structure: SplittableRandom)
+    private final long seed;
+    private final SplittableRandom rng;
+
+    // --- Life/Progress System ---
+    private static final int MAX_LIVES = 5;
+    // LinkedList keeps track of used hero types in order (Data structure: LinkedList)
+    private LinkedList<HeroType> usedTypes = new LinkedList<>();
+    private int livesLeft = MAX_LIVES;
+
+    // --- Per-life state ---
+    private Hero player; // The current player/hero object
+    private HeroType chosenType; // The chosen hero type for this life
+    // Domains come from the shared DungeonDefinition registry; a Dungeon (run state)
+    // exists only while the player is inside one
+    // Order of dungeons (Data structure: List, shared definition in Game)
+    private static final List<String> DUNGEON_KEYS = Game.DUNGEON_KEYS;
+
+    // --- Dungeon Progress ---
+    // Global cleared dungeons: never reset, shared across all lives (Data structure: HashSet)
+    private Set<String> clearedDungeonsGlobal = new HashSet<>();
+    // Cleared dungeons in current life (Data structure: HashSet)
+    private Set<String> clearedDungeonsCurrentLife = new HashSet<>();
+
+    private boolean isGameOver = false;
+
+    // --- Save Support ---
+    // Checkpoint once this many actions have been journaled since the last one
+    private static final int CHECKPOINT_INTERVAL = 64;
+    private Path saveFile;          // this player's save / checkpoint (see SaveFile.pathFor)
+    private SaveFile.Claim saveClaim; // held while this session has the save open
+    private GameJournal journal;    // actions since the last checkpoint (see GameJournal)
+    private boolean resumedLife;    // a loaded save continues the current life
+    private boolean exitRequested;  // player left from the menu; keep the save
+    private boolean savesEnabled = true; // off for recorded/replayed runs (see InputRecording)
+
+    // --- Run History ---
+    // Play time of earlier sittings (from the save) and when this sitting began
+    private long priorPlayMillis;
+    private long sittingStart;
+
+    /**
+     * --- GameSession Constructor ---
+     * in - where this player's menu answers come from
+     * sink - where this player's game text goes
+     */
+    public GameSession(PlayerInput in, RenderSink sink) {
+        this(in, sink, newSeed());
+    }
+
+    /**
+     * --- GameSession Constructor (Seeded) ---
+     * seed - root of every random roll in this session (same seed + same inputs = same run)
+     */
+    public GameSession(PlayerInput in, RenderSink sink, long seed) {
+        this.in = in;
+        this.sink = sink;
+        this.seed = seed;
+        this.rng = new SplittableRandom(seed);
+        // Consumers: battle text if anyone reads it, counters if metrics are published; none when headless
+        if (sink.isEnabled()) events.addHandler(new CombatLogRenderer());
+        if (GameMetrics.isPublished()) events.addHandler(GameMetrics.get());
+    }
+
+    /** A fresh session seed (per-thread generator: no shared state between threads). */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public long getSeed() { return seed; }
+
+    /** This session's combat event ring (attach extra consumers before run()). */
+    public CombatEventRing events() { return events; }
+
+    /** Turns saving, loading and journaling on or off (on by default). */
+    public void setSavesEnabled(boolean enabled) { this.savesEnabled = enabled; }
+
+    /**
+     * --- State Summary ---
+     * One-line, space-separated key=value fingerprint of the session's
+     * progress and hero, used to detect divergence between a recorded run
+     * and its replay.
+     */
+    public String stateSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("lives=").append(livesLeft);
+        sb.append(" masks=");
+        if (usedTypes.isEmpty()) sb.append('-');
+        int m = 0;
+        for (HeroType t : usedTypes) sb.append(m++ > 0 ? "," : "").append(t);
+        sb.append(" cleared=").append(sortedKeys(clearedDungeonsGlobal));
+        sb.append(" life=").append(sortedKeys(clearedDungeonsCurrentLife));
+        sb.append(" over=").append(isGameOver);
+        if (player == null) return sb.append(" hero=none").toString();
+        sb.append(" hero=").append(player.type);
+        sb.append(" level=").append(player.level).append(" exp=").append(player.exp);
+        sb.append(" hp=").append(player.hp).append('/').append(player.maxHp);
+        sb.append(" mana=").append(player.mana).append('/').append(player.maxMana);
+        sb.append(" stats=");
+        for (int i = 0; i < player.stats.length; i++) sb.append(i > 0 ? "/" : "").append(player.stats[i]);
+        sb.append(" cooldowns=");
+        for (int i = 0; i < player.getSkillCount(); i++) sb.append(i > 0 ? "/" : "").append(player.getSkillCooldown(i));
+        sb.append(" effects=");
+        EffectStore fx = player.effects;
+        if (fx.isEmpty()) sb.append('-');
+        for (int i = 0; i < fx.size(); i++) {
+            sb.append(i > 0 ? "," : "").append(fx.type(i)).append(':').append(fx.duration(i)).append(':').append(fx.magnitude(i));
+        }
+        return sb.toString();
+    }
+
+    // Dungeon keys in menu order, comma-separated ("-" if none)
+    private static String sortedKeys(Set<String> keys) {
+        StringBuilder sb = new StringBuilder();
+        for (String k : DUNGEON_KEYS) {
+            if (keys.contains(k)) sb.append(sb.length() > 0 ? "," : "").append(k);
+        }
+        return sb.length() > 0 ? sb.toString() : "-";
+    }
+
+    /**
+     * --- Session Run ---
+     * Plays the whole game (name, prologue, lives, endings, summary) on the
+     * calling thread, with this session's input, output and combat event ring
+     * bound to it.
+     */
+    public void run() {
+        RenderSink previousSink = RenderSink.bind(sink);
+        PlayerInput previousIn = PlayerInput.bind(in);
+        CombatEventRing previousEvents = CombatEventRing.bind(events);
+        GameMetrics.get().sessionStarted();
+        sittingStart = System.currentTimeMillis();
+        try {
+            requestPlayerName();
+            if (!offerLoad()) {
+                DeathDialogue.prologue(playerName);
+                DeathDialogue.announceRequiredDungeons();
+            }
+            runGameLoop();
+            endGame();
+            deleteSave();
+        } finally {
+            GameMetrics.get().sessionFinished();
+            events.close();
+            if (journal != null) journal.close();
+            releaseSave();
+            sink.drain();
+            RenderSink.bind(previousSink);
+            PlayerInput.bind(previousIn);
+            CombatEventRing.bind(previousEvents);
+        }
+    }
+
+    /**
+     * --- Main Game Loop ---
+     * Handles life/mask selection and dungeon progression.
+     * Data Structures: LinkedList (usedTypes), HashSet (global/current dungeons)
+     */
+    
+    private void runGameLoop() {
+        RenderSink out = RenderSink.current();
+        while ((livesLeft > 0 || resumedLife) && !isGameOver) {
+            if (resumedLife) {
+                resumedLife = false; // continue the saved life at the main menu
+                out.println("[System] Your mask: " + chosenType.name + " (Level " + player.level + ")");
+                out.println("[System] Masks remaining: " + livesLeft);
+            } else {
+                clearedDungeonsCurrentLife.clear(); // Per-life progress reset
+                chosenType = chooseHeroTypeMenu();
+                usedTypes.add(chosenType); // Track the hero classes used (LinkedList)
+                livesLeft = MAX_LIVES - usedTypes.size();
+                DeathDialogue.onClassChosen(chosenType, livesLeft);
+                player = new Hero(playerName, chosenType);
+                player.rand = rng.split();
+                checkpoint(true); // a new life starts a new checkpoint
+
+                DeathDialogue.transmigration(playerName, chosenType.name, livesLeft, new HashSet<>(usedTypes));
+                Game.printTitle("SYSTEM WINDOW");
+                out.println("  [A cold system window flickers before you, sharp and unreal.]");
+                out.println("  Welcome to DEATH'S GAME");
+                Game.printSectionEnd();
+                out.println("[System] Conquer the Nine Domains: Seven Sins, Your Shadow, and Death itself.");
+                out.println("[System] Your mask: " + chosenType.name);
+                out.println("[System] Masks remaining: " + livesLeft);
+                DeathDialogue.deathMock("Let us see how long this mask will last. The domains await, and so do I.");
+                pause();
+            }
+
+            // --- MainMenu --- Data Structure: List for menu, HashSet for progress
+            boolean allCleared = runDungeonSelectionMenu();
+
+            // --- Boss Battles ---
+            if (allCleared) {
+                // Mirror battle (shadow self)
+                if (mirrorBattle() && deathDomain()) {
+                    isGameOver = true;
+                }
+            }
+            
+            // Life lost
+            if (!isGameOver && player.isDead()) GameMetrics.get().heroDied(chosenType);
+            if (!isGameOver && player.isDead() && livesLeft > 0) {
+                DeathDialogue.onLifeLost(livesLeft, new HashSet<>(usedTypes));
+                checkpoint(true);
+            }
+        }
+    }
+
+    /**
+     * --- Player Name Input ---
+     * Simple input with validation.
+     */
+    private void requestPlayerName() {
+        RenderSink out = RenderSink.current();
+        Game.printTitle("The End...?");
+        Game.printSectionEnd();
+        out.print("Enter your name: ");
+        while (true) {
+            playerName = in.nextLine();
+            if (playerName != null && !playerName.trim().isEmpty()) break;
+            out.print("Name cannot be blank. Enter your name: ");
+        }
+        out.println();
+    }
+
+    /**
+     * --- Hero Class Selection Menu ---
+     * Lets the player choose an unused hero type. Data structure: Enum, LinkedList
+     */
+    private HeroType chooseHeroTypeMenu() {
+        RenderSink out = RenderSink.current();
+        while (true) {
+            out.println("Choose your next mask:");
+            int idx = 1;
+            for (HeroType type : HeroType.values()) {
+                if (usedTypes.contains(type)) continue;
+                out.println("  " + idx + ". " + type.name + " - " + type.desc);
+                idx++;
+            }
+            out.print("> ");
+            String input = in.nextLine();
+            int choice = -1;
+            try {
+                if (input == null || input.trim().isEmpty()) throw new Exception();
+                choice = Integer.parseInt(input.trim());
+            } catch (Exception e) {
+                out.println("Invalid input. Enter a number for your class.");
+                continue;
+            }
+            idx = 1;
+            for (HeroType type : HeroType.values()) {
+                if (usedTypes.contains(type)) continue;
+                if (idx == choice) return type;
+                idx++;
+            }
+            out.println("Invalid choice.");
+        }
+    }
+
+    /**
+     * --- MainMenu: Dungeon Selection ---
+     * Lets the player select dungeons, check status, or exit.
+     * Data structures: HashSet (for cleared dungeons), List (for menu ordering)
+     * Flow: Only unlocked dungeons (next in order or already cleared) are selectable.
+     */
+    private boolean runDungeonSelectionMenu() {
+        RenderSink out = RenderSink.current();
+        while (clearedDungeonsGlobal.size() < DUNGEON_KEYS.size()) {
+            checkpoint(false); // every return to the main menu is a save point
+            Game.printDivider();
+            out.println("=== MAIN MENU ===");
+            out.println("Select a domain to enter:");
+            for (int i = 0; i < DUNGEON_KEYS.size(); i++) {
+                String key = DUNGEON_KEYS.get(i);
+                DungeonDefinition domain = DungeonDefinition.byKey(key);
+                if (clearedDungeonsGlobal.contains(key) || isUnlocked(key)) {
+                    out.println((i + 1) + ". " + domain.name + (clearedDungeonsGlobal.contains(key) ? " (cleared)" : ""));
+                } else {
+                    out.println((i + 1) + ". ????????");
+                }
+            }
+            out.println("0. Check Status");
+            out.println("-1. Exit Game");
+            out.print("> ");
+            String input = in.nextLine();
+            int choice;
+            try {
+                if (input == null || input.trim().isEmpty()) throw new Exception();
+                choice = Integer.parseInt(input.trim());
+            } catch (Exception e) {
+                out.println("Invalid input.");
+                continue;
+            }
+            if (choice == 0) {
+                player.printStatus();
+                continue;
+            }
+            if (choice == -1) {
+                isGameOver = true;
+                exitRequested = true;
+                checkpoint(true);
+                return false;
+            }
+            if (choice < 1 || choice > DUNGEON_KEYS.size()) {
+                out.println("Invalid choice.");
+                continue;
+            }
+            String selectedKey = DUNGEON_KEYS.get(choice - 1);
+            if (!clearedDungeonsGlobal.contains(selectedKey) && !isUnlocked(selectedKey)) {
+                out.println("That domain is not yet available.");
+                continue;
+            }
+
+            DungeonDefinition domain = DungeonDefinition.byKey(selectedKey);
+            boolean isFirstVisit = !clearedDungeonsGlobal.contains(selectedKey);
+            DeathDialogue.beforeDomain(domain.name, domain.theme, isFirstVisit);
+
+            if (journal != null) journal.enterDungeon(choice - 1);
+            boolean survived = new Dungeon(domain).runDungeon(player, in, rng.split());
+
+            // Restore HP/Mana if survived
+            if (survived && !player.isDead()) {
+                player.hp = player.maxHp;
+                player.mana = player.maxMana;
+                if (journal != null) journal.hero(player);
+                out.println("You feel refreshed after leaving the dungeon. (HP and Mana fully restored)");
+            }
+
+            if (player.isDead()) {
+                DeathDialogue.onDeath(livesLeft);
+                return false; // triggers next life if available
+            }
+            // A domain stays cleared for the rest of this life, even if a later visit is cut short
+            if (survived || clearedDungeonsCurrentLife.contains(selectedKey)) {
+                DeathDialogue.afterDomain(domain.name);
+                clearedDungeonsCurrentLife.add(selectedKey);
+                clearedDungeonsGlobal.add(selectedKey);
+                if (journal != null) journal.clear(choice - 1);
+            }
+        }
+        DeathDialogue.deathMock("Impressive! You've survived the sins. But can you survive yourself?");
+        return true;
+    }
+
+    /**
+     * --- Dungeon Unlock Logic ---
+     * Only unlocks the lowest-numbered uncleared dungeon.
+     * Data structure: List (DUNGEON_KEYS), HashSet (cleared)
+     */
+    private boolean isUnlocked(String key) {
+        if (clearedDungeonsGlobal.contains(key)) return true;
+        for (String k : DUNGEON_KEYS) {
+            if (!clearedDungeonsGlobal.contains(k)) {
+                return k.equals(key);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * --- Boss Battle: Mirror (Shadow) ---
+     * Player fights their own shadow (stat-clone).
+     * Data structure: None special (direct object use)
+     * Flow: Turn-based combat resolved by BattleEngine (Encounter.MIRROR).
+     */
+    private boolean mirrorBattle() {
+        RenderSink out = RenderSink.current();
+        DeathDialogue.beforeMirror();
+        out.println("--- DOMAIN VIII: MIRROR ---");
+        out.println("You stand before an abyssal mirror. Your own reflection steps out, grinning.");
+        Monster shadow = Monster.createShadow(player);
+        BattleResult result = new BattleEngine(rng.split(), GameMetrics.domain("Mirror")).fight(player, shadow, Encounter.MIRROR, new ConsoleBattlePolicy(in));
+        if (result.isVictory()) {
+            out.println("Your shadow collapses.");
+            DeathDialogue.onMirrorClear();
+            return true;
+        }
+        if (player.isDead()) {
+            DeathDialogue.onDeath(livesLeft);
+            return false;
+        }
+        DeathDialogue.deathMock("Your own shadow, defeated? Perhaps you aren't all bluster after all.");
+        return player.hp > 0;
+    }
+
+    /**
+     * --- Boss Battle: Death (Final Boss) ---
+     * Player chooses to fight Death or accept reward (ending).
+     * Data structure: None special (object use)
+     */
+    private boolean deathDomain() {
+        RenderSink out = RenderSink.current();
+        DeathDialogue.beforeDeath();
+        out.println("--- DOMAIN IX: DEATH'S THRONE ---");
+        out.println("Death sits upon a throne of bone and shadow.");
+        out.println("DEATH: \"You have come far. Do you wish to claim your reward, or fight me for true freedom?\"");
+        String choice;
+        while (true) {
+            out.print("Fight Death? (y/n): ");
+            choice = in.nextLine();
+            if (choice == null || choice.trim().isEmpty()) {
+                out.println("Please answer y or n.");
+                continue;
+            }
+            if (choice.equalsIgnoreCase("y") || choice.equalsIgnoreCase("n")) break;
+            out.println("Please answer y or n.");
+        }
+        if (choice.equalsIgnoreCase("y")) {
+            DeathDialogue.deathMock("Bold. Or perhaps foolish. I do love a challenge!");
+            Monster death = Monster.deathBoss(player.level + 15);
+            BattleResult result = new BattleEngine(rng.split(), GameMetrics.domain("Death")).fight(player, death, Encounter.DEATH, new ConsoleBattlePolicy(in));
+            if (result.isVictory()) {
+                out.println("Death falls silent.");
+                DeathDialogue.trueEnding(playerName);
+                return true;
+            }
+            if (player.isDead()) {
+                DeathDialogue.onDeath(livesLeft);
+            }
+            return player.hp > 0;
+        } else {
+            DeathDialogue.deathMock("A wise choice... or perhaps you fear me more than you admit.");
+            DeathDialogue.goodEnding(playerName);
+            return true;
+        }
+    }
+
+    /**
+     * --- End of Game Summary ---
+     * Prints a summary of the run and player progress.
+     */
+    private void endGame() {
+        RenderSink out = RenderSink.current();
+        Game.printDivider();
+        if (livesLeft == 0) {
+            DeathDialogue.finalBadEnding();
+        } else {
+            out.println("[Curtain Call]");
+        }
+        out.println();
+        out.println("=== Your Journey Summary ===");
+        out.println("Masks used (" + usedTypes.size() + "):");
+        for (HeroType t : usedTypes) out.println(" - " + t.name);
+        out.println("Dungeons cleared (" + clearedDungeonsGlobal.size() + "):");
+        for (String key : clearedDungeonsGlobal) {
+            DungeonDefinition d = DungeonDefinition.byKey(key);
+            if (d != null) out.println(" - " + d.name);
+        }
+        if (player != null)
+            out.println("Final mask/class: " + player.type.name + " (Level " + player.level + ")");
+        out.println("Run seed: " + seed);
+        Game.printDivider();
+        recordRun();
+    }
+
+    /**
+     * --- Run History Entry ---
+     * Appends the finished journey to the shared RunHistory (leaderboard).
+     * Runs left from the menu are not finished; sessions without saves
+     * (recordings, replays, load tests) leave no history either. A history
+     * that cannot take the run (unreadable, full, damaged) is reported to the
+     * player and logged; the session carries on.
+     */
+    private void recordRun() {
+        if (!savesEnabled || exitRequested) return;
+        boolean won = isGameOver;
+        int domains = clearedDungeonsGlobal.size() + (won ? 2 : 0); // Mirror and Death
+        RunHistory.Run run = new RunHistory.Run(-1, playerName, seed, System.currentTimeMillis(), playMillis(),
+                domains, SaveFile.dungeonBits(clearedDungeonsGlobal), won,
+                player != null ? player.type : null, player != null ? player.level : 0, List.copyOf(usedTypes));
+        try {
+            RunHistory.shared().append(run);
+        } catch (IOException | RuntimeException e) {
+            RenderSink.current().println("[System] Your journey could not be recorded: " + e.getMessage());
+            System.err.println("Run history append failed for " + playerName + ": " + e);
+        }
+    }
+
+    // Play time over every sitting of this run so far
+    private long playMillis() {
+        return priorPlayMillis + (System.currentTimeMillis() - sittingStart);
+    }
+
+    // --- Save / Load ---
+
+    /**
+     * --- Load Offer ---
+     * If this player has a save, offers to continue it. Returns true when a
+     * save was loaded (the prologue is skipped). The save is the last
+     * checkpoint; actions journaled after it are replayed on top (crash recovery).
+     * A save another session has open is neither loaded nor written: this
+     * session then plays without saves.
+     */
+    private boolean offerLoad() {
+        if (!savesEnabled) return false;
+        RenderSink out = RenderSink.current();
+        Path file = SaveFile.pathFor(playerName);
+        try {
+            saveClaim = SaveFile.claim(file);
+        } catch (IOException e) {
+            out.println("[System] Saving is unavailable (" + e.getMessage() + "). This journey will not be saved.");
+            return false;
+        }
+        if (saveClaim == null) {
+            out.println("[System] A journey under this name is already in progress elsewhere. This one will not be saved.");
+            return false;
+        }
+        saveFile = file;
+        adoptLegacySave();
+        if (!Files.isRegularFile(saveFile)) return false;
+        int replayed;
+        try {
+            ByteBuffer checkpoint = SaveFile.read(saveFile);
+            int crc = GameJournal.checkpointCrc(checkpoint);
+            readSave(checkpoint);
+            // Replayed level-ups stay silent and publish no events: they happened in an earlier sitting
+            RenderSink previous = RenderSink.bind(RenderSink.NULL);
+            CombatEventRing previousEvents = CombatEventRing.bind(CombatEventRing.DETACHED);
+            try {
+                replayed = GameJournal.replay(GameJournal.pathFor(saveFile), crc, player,
+                        clearedDungeonsGlobal, clearedDungeonsCurrentLife);
+            } finally {
+                CombatEventRing.bind(previousEvents);
+                RenderSink.bind(previous);
+            }
+        } catch (IOException e) {
+            out.println("[System] Your saved journey could not be read (" + e.getMessage() + "). Starting anew.");
+            resetProgress();
+            return false;
+        }
+        out.println("[System] A saved journey was found: " + usedTypes.size() + " mask(s) worn, "
+                + clearedDungeonsGlobal.size() + " domain(s) cleared, " + livesLeft + " mask(s) remaining.");
+        while (true) {
+            out.print("Continue it? (y/n): ");
+            String choice = in.nextLine().trim();
+            if (choice.equalsIgnoreCase("y")) {
+                if (replayed > 0) out.println("[System] Recovered " + replayed + " action(s) made after your last save.");
+                DeathDialogue.deathMock("Back again? The game never truly paused for me.");
+                if (player != null && player.isDead()) {
+                    player = null; // journal ends with a lost life: the next mask is chosen as usual
+                    resumedLife = false;
+                }
+                checkpoint(true); // fold the replayed tail into a fresh checkpoint
+                return true;
+            }
+            if (choice.equalsIgnoreCase("n")) {
+                resetProgress();
+                return false;
+            }
+            out.println("Please answer y or n.");
+        }
+    }
+
+    /**
+     * --- Legacy Save ---
+     * Saves written before names were hashed live at SaveFile.legacyPathFor,
+     * shared by every name that sanitised to the same key. The one whose
+     * recorded name matches this player is moved (with its journal) to the
+     * new location; any other is left alone.
+     */
+    private void adoptLegacySave() {
+        Path legacy = SaveFile.legacyPathFor(playerName);
+        if (Files.isRegularFile(saveFile) || !Files.isRegularFile(legacy)) return;
+        try {
+            if (!SaveFile.sameOwner(SaveFile.getString(SaveFile.read(legacy)), playerName)) return;
+            Path legacyJournal = GameJournal.pathFor(legacy);
+            if (Files.isRegularFile(legacyJournal)) {
+                Files.move(legacyJournal, GameJournal.pathFor(saveFile), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(legacy, saveFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // unreadable or busy: left where it is, and this player starts without it
+        }
+    }
+
+    // Releases this session's claim on its save
+    private void releaseSave() {
+        if (saveClaim == null) return;
+        try {
+            saveClaim.close();
+        } catch (IOException e) {
+            // the OS drops the lock with the process anyway
+        }
+        saveClaim = null;
+    }
+
+    // Forgets loaded progress (player chose a fresh start or the save was bad)
+    private void resetProgress() {
+        usedTypes.clear();
+        livesLeft = MAX_LIVES;
+        clearedDungeonsGlobal.clear();
+        clearedDungeonsCurrentLife.clear();
+        player = null;
+        chosenType = null;
+        resumedLife = false;
+        priorPlayMillis = 0;
+    }
+
+    /**
+     * --- Checkpoint ---
+     * Writes a full snapshot (SaveFile, atomic) and restarts the journal after
+     * it. Unless forced, this only happens once CHECKPOINT_INTERVAL actions
+     * have been journaled; until then each action is just one journal append.
+     * A failed save is reported but never interrupts the game.
+     */
+    private void checkpoint(boolean force) {
+        if (saveFile == null) return; // saves disabled for this session
+        if (!force && journal != null && journal.recordsSinceCheckpoint() < CHECKPOINT_INTERVAL) return;
+        try {
+            ByteBuffer snapshot = encodeSave();
+            int crc = GameJournal.checkpointCrc(SaveFile.payload(snapshot));
+            SaveFile.write(saveFile, snapshot);
+            if (journal == null) journal = GameJournal.open(GameJournal.pathFor(saveFile), crc);
+            else journal.reset(crc);
+            if (player != null) player.journal = journal;
+        } catch (IOException e) {
+            RenderSink.current().println("[System] Autosave failed: " + e.getMessage());
+        }
+    }
+
+    /** Encodes lives, masks, progress and the current hero (see SaveFile for the layout). */
+    ByteBuffer encodeSave() throws IOException {
+        Hero hero = player != null && !player.isDead() ? player : null;
+        int capacity = SaveFile.stringBytes(playerName) + 1 + 1 + usedTypes.size() + 2 + 2 + 1
+                + (hero != null ? SaveFile.heroBytes(hero) : 0) + 8;
+        ByteBuffer buf = SaveFile.begin(capacity);
+        SaveFile.putString(buf, playerName);
+        buf.put((byte) livesLeft);
+        buf.put((byte) usedTypes.size());
+        for (HeroType t : usedTypes) buf.put((byte) t.ordinal());
+        buf.putShort(SaveFile.dungeonBits(clearedDungeonsGlobal));
+        buf.putShort(SaveFile.dungeonBits(clearedDungeonsCurrentLife));
+        buf.put((byte) (hero != null ? 1 : 0));
+        if (hero != null) SaveFile.putHero(buf, hero);
+        buf.putLong(playMillis());
+        return SaveFile.finish(buf);
+    }
+
+    /** Restores the state written by encodeSave. */
+    void readSave(ByteBuffer buf) throws IOException {
+        try {
+            SaveFile.getString(buf); // name on file; the session keeps the name just typed
+            livesLeft = buf.get();
+            int masks = buf.get();
+            HeroType[] types = HeroType.values();
+            usedTypes.clear();
+            for (int i = 0; i < masks; i++) usedTypes.add(types[buf.get()]);
+            clearedDungeonsGlobal.clear();
+            SaveFile.addDungeons(buf.getShort(), clearedDungeonsGlobal);
+            clearedDungeonsCurrentLife.clear();
+            SaveFile.addDungeons(buf.getShort(), clearedDungeonsCurrentLife);
+            if (buf.get() == 1) {
+                player = SaveFile.getHero(buf, playerName);
+                player.rand = rng.split();
+                chosenType = player.type;
+                resumedLife = true;
+            }
+            priorPlayMillis = buf.remaining() >= 8 ? buf.getLong() : 0; // absent before version 2
+            sittingStart = System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed save", e);
+        }
+    }
+
+    // A finished run (any ending) leaves no save behind; exiting from the menu keeps it
+    private void deleteSave() {
+        try {
+            if (saveFile != null && !exitRequested) {
+                if (journal != null) journal.close();
+                journal = null;
+                Files.deleteIfExists(GameJournal.pathFor(saveFile));
+                Files.deleteIfExists(saveFile);
+            }
+        } catch (IOException e) {
+            // stale save is harmless; it is offered again next time
+        }
+    }
+
+    private void pause() {
+        RenderSink out = RenderSink.current();
+        out.print("[Press Enter to continue]");
+        in.nextLine();
+        out.println();
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: GameSession
+--------------------------------------------------------------------------------
+The per-player game controller (formerly the static state of Game). It manages
+player lives (masks), hero type selection, dungeon progress, and the overall
+game flow. It uses various data structures such as LinkedList (for hero/mask
+history), HashSet (for dungeon progress tracking), DungeonDefinition (domain data),
+and List (for menu order).
+Features include:
+- Life/mask system (5 unique hero classes per run)
+- Dungeon unlock and progress system
+- Turn-based battle with bosses and unique domains
+- Summary and ending presentation
+Each session owns its PlayerInput and RenderSink and binds them to the thread
+that runs it, so sessions never share state. Progress is autosaved at every
+main-menu visit and after a lost life (SaveFile), and offered back on start.
+
+Major Navigation Points:
+--- MainMenu --- : Dungeon selection and status check
+--- Boss Battles --- : Mirror and Death fights
+--------------------------------------------------------------------------------
+*/
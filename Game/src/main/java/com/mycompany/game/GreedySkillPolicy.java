@@ -0,0 +1,38 @@
+package com.mycompany.game;
+
+/**
+ * Scripted BattlePolicy for headless play: casts the first active skill that
+ * is ready and affordable (ultimates first), otherwise attacks.
+ */
+public class GreedySkillPolicy implements BattlePolicy {
+
+    @Override
+    public BattleAction chooseAction(Hero hero, Monster enemy, Encounter encounter) {
+        return greedy(hero);
+    }
+
+    @Override
+    public BattleAction chooseAction(Hero hero, EnemyGroup group, Encounter encounter) {
+        return greedy(hero);
+    }
+
+    private static BattleAction greedy(Hero hero) {
+        int count = hero.getSkillCount();
+        for (int i = 0; i < count; i++) {
+            if (hero.getSkill(i).isUltimate && hero.canCast(i)) return BattleAction.skill(i);
+        }
+        for (int i = 0; i < count; i++) {
+            if (hero.canCast(i)) return BattleAction.skill(i);
+        }
+        return BattleAction.ATTACK;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: GreedySkillPolicy
+--------------------------------------------------------------------------------
+Simple automated player used by the balance simulator: spend mana as soon as a
+skill is available, fall back to basic attacks.
+--------------------------------------------------------------------------------
+*/
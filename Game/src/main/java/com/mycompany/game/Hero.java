@@ -1,8 +1,8 @@
 package com.mycompany.game;
 
 import java.util.List;
-import java.util.Random;
-import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * The Hero class represents the player-controlled character in the game.
@@ -12,13 +12,15 @@ import java.util.Scanner;
 public class Hero extends Entity {
     public HeroType type; // The hero's class (enum)
     public int level, exp, maxMana, mana;
-    public Random rand = new Random(); // Used for random combat elements
+    public RandomGenerator rand = new SplittableRandom(); // Combat rolls; sessions/workers assign a stream split from their seed
+    // Attack damage adds a uniform roll of 0..ATTACK_ROLL-1
+    public static final int ATTACK_ROLL = 8;
 
     // --- Skill Management ---
-    // List of all skills for this hero (Data structure: List)
-    private List<Skill> skillList;
-    // Array for skill cooldown tracking (Data structure: Array)
-    private int[] skillCooldowns;
+    // Shared, immutable skill list from the HeroType catalog (Data structure: List)
+    private final List<Skill> skillList;
+    // Per-hero skill cooldown tracking (Data structure: Array)
+    private final int[] skillCooldowns;
 
     /**
      * --- Hero Creation ---
@@ -77,19 +79,20 @@ public class Hero extends Entity {
      * Prints the hero's current state, skills, effects.
      */
     public void printStatus() {
-        System.out.println("Name: " + name + " | Mask: " + type.name);
-        System.out.println("Level: " + level + " | EXP: " + exp);
-        System.out.println("HP: " + hp + "/" + maxHp + " | Mana: " + mana + "/" + maxMana);
-        System.out.println("Stats: Atk " + stats[0] + ", Int " + stats[1] + ", Agi " + stats[2] + ", Def " + stats[3] + ", Luck " + stats[4]);
-        System.out.print("Skill Cooldowns: ");
+        RenderSink out = RenderSink.current();
+        out.println("Name: " + name + " | Mask: " + type.name);
+        out.println("Level: " + level + " | EXP: " + exp);
+        out.println("HP: " + hp + "/" + maxHp + " | Mana: " + mana + "/" + maxMana);
+        out.println("Stats: Atk " + stats[0] + ", Int " + stats[1] + ", Agi " + stats[2] + ", Def " + stats[3] + ", Luck " + stats[4]);
+        out.print("Skill Cooldowns: ");
         for (int i = 0; i < skillList.size(); i++) {
             Skill s = skillList.get(i);
             if (s.isPassive) continue;
-            System.out.print(s.name + ": " + (skillCooldowns[i] > 0 ? skillCooldowns[i] + " " : "Ready "));
+            out.print(s.name + ": " + (skillCooldowns[i] > 0 ? skillCooldowns[i] + " " : "Ready "));
         }
-        System.out.println();
-        System.out.println("Passive: " + getPassiveSkill().name + " - " + getPassiveSkill().desc);
-        System.out.print("Active Effects: ");
+        out.println();
+        out.println("Passive: " + getPassiveSkill().name + " - " + getPassiveSkill().desc);
+        out.print("Active Effects: ");
         displayStatusEffects();
     }
 
@@ -98,44 +101,100 @@ public class Hero extends Entity {
      * Shows both player and enemy state.
      */
     public static void printBattleStatus(Hero player, Monster enemy) {
-        System.out.println("You: " + player.hp + "/" + player.maxHp + " HP | " + player.mana + "/" + player.maxMana + " Mana");
-        System.out.println("Level: " + player.level);
-        System.out.print("Your effects: ");
+        RenderSink out = RenderSink.current();
+        out.println("You: " + player.hp + "/" + player.maxHp + " HP | " + player.mana + "/" + player.maxMana + " Mana");
+        out.println("Level: " + player.level);
+        out.print("Your effects: ");
         player.displayStatusEffects();
-        System.out.println(enemy.name + ": " + enemy.hp + "/" + enemy.maxHp + " HP");
-        System.out.print("Enemy effects: ");
+        out.println(enemy.name + ": " + enemy.hp + "/" + enemy.maxHp + " HP");
+        out.print("Enemy effects: ");
         enemy.displayStatusEffects();
     }
 
+    /**
+     * --- Battle Status Display (Group) ---
+     * Shows the player and a pack: standing count, total HP and the weakest
+     * foe (listing every foe would flood the screen with large packs).
+     */
+    public static void printBattleStatus(Hero player, EnemyGroup group) {
+        RenderSink out = RenderSink.current();
+        out.println("You: " + player.hp + "/" + player.maxHp + " HP | " + player.mana + "/" + player.maxMana + " Mana");
+        out.println("Level: " + player.level);
+        out.print("Your effects: ");
+        player.displayStatusEffects();
+        long hp = 0, maxHp = 0;
+        for (int i = 0; i < group.alive(); i++) {
+            hp += group.hp(i);
+            maxHp += group.maxHp(i);
+        }
+        out.println(group.label() + ": " + group.alive() + "/" + group.size() + " standing, " + hp + "/" + maxHp + " HP");
+        if (!group.isDefeated()) {
+            int w = group.weakest();
+            out.println("Weakest: " + group.name(w) + " (" + group.hp(w) + "/" + group.maxHp(w) + " HP)");
+        }
+    }
+
     /**
      * --- Player Attack Action ---
      * Calculates and applies attack damage to a monster.
      * Main stat used depends on hero class.
-     * Data structure: StatusEffect queue scanned for bonus
+     * Data structure: EffectStore running Mark total (O(1))
      */
     public boolean attack(Monster enemy) {
-        int mainStat = switch (type) {
-            case WARRIOR, ROGUE, HUNTER -> stats[0];
-            case MAGE, PRIEST -> stats[1];
-            default -> stats[0];
-        };
-        int damage = Math.max(1, (mainStat * 2 + level * 2) - enemy.def + rand.nextInt(8));
-        int markBonus = 0;
-        for (StatusEffect se : enemy.statusQueue) {
-            if (se.name.equals("Mark") && se.duration > 0) markBonus += se.magnitude;
-        }
-        damage += markBonus;
+        int damage = Math.max(1, attackPower() - enemy.def + rand.nextInt(ATTACK_ROLL));
+        damage += enemy.effects.markTotal();
         enemy.takeDamage(damage);
-        System.out.println("You attack! " + enemy.name + " takes " + damage + " damage.");
-        int manaGain = switch (this.type) {
+        CombatEventRing events = CombatEventRing.current();
+        events.damage(this, enemy, damage, null);
+        int manaGain = manaPerAttack();
+        restoreMana(manaGain);
+        events.manaRestored(this, manaGain);
+        return enemy.hp <= 0;
+    }
+
+    /**
+     * --- Player Attack Action (Group) ---
+     * Hero.attack against the foe at index target of a pack. Returns true
+     * if that foe fell (it is then swapped out of the standing range).
+     */
+    public boolean attack(EnemyGroup group, int target) {
+        int damage = Math.max(1, attackPower() - group.def(target) + rand.nextInt(ATTACK_ROLL));
+        damage += group.markTotal(target);
+        CombatEventRing events = CombatEventRing.current();
+        if (events.isActive()) events.damage(name, group.name(target), false, damage, null);
+        boolean fell = group.hit(target, damage);
+        int manaGain = manaPerAttack();
+        restoreMana(manaGain);
+        events.manaRestored(this, manaGain);
+        return fell;
+    }
+
+    // Mana a basic attack restores
+    private int manaPerAttack() {
+        return switch (this.type) {
             case MAGE -> 6;
             case PRIEST, HUNTER -> 5;
             case WARRIOR, ROGUE -> 4;
             default -> 4;
         };
-        restoreMana(manaGain);
-        System.out.println("You recover " + manaGain + " mana from your attack.");
-        return enemy.hp <= 0;
+    }
+
+    /**
+     * --- Attack Power ---
+     * Base attack damage before the enemy's defense and the random roll
+     * (0..ATTACK_ROLL-1): twice the class main stat plus twice the level.
+     */
+    public int attackPower() {
+        return mainStat() * 2 + level * 2;
+    }
+
+    /** The stat that drives basic attacks: Atk for physical classes, Int for casters. */
+    public int mainStat() {
+        return switch (type) {
+            case WARRIOR, ROGUE, HUNTER -> stats[0];
+            case MAGE, PRIEST -> stats[1];
+            default -> stats[0];
+        };
     }
 
     /**
@@ -143,48 +202,148 @@ public class Hero extends Entity {
      * Lets the player choose and use a skill.
      * Data structure: List (skills), Array (cooldowns), StatusEffect[]
      */
-    public boolean useSkillMenu(Monster enemy, Scanner scanner) {
+    public boolean useSkillMenu(Monster enemy, PlayerInput in) {
+        return castSkill(chooseSkill(in), enemy);
+    }
+
+    /**
+     * --- Skill Selection Prompt ---
+     * Prompts until the player picks a ready, affordable skill and returns its index.
+     * Data structure: List (skills), Array (cooldowns, menu index map)
+     */
+    public int chooseSkill(PlayerInput in) {
+        RenderSink out = RenderSink.current();
         int menuCount = 1;
         int[] idxMap = new int[skillList.size()];
         while (true) {
-            System.out.println("Choose a skill:");
+            out.println("Choose a skill:");
             menuCount = 1;
             for (int i = 0; i < skillList.size(); i++) {
                 Skill s = skillList.get(i);
                 if (s.isPassive) continue;
                 String ready = (skillCooldowns[i] == 0 ? "Ready" : ("Cooldown: " + skillCooldowns[i]));
                 String ultLabel = s.isUltimate ? " (Ultimate)" : "";
-                System.out.printf("  %d. %s%s (Mana: %d, %s) - %s%n", menuCount, s.name, ultLabel, s.manaCost, ready, s.desc);
+                out.printf("  %d. %s%s (Mana: %d, %s) - %s%n", menuCount, s.name, ultLabel, s.manaCost, ready, s.desc);
                 idxMap[menuCount - 1] = i;
                 menuCount++;
             }
-            System.out.print("> ");
-            String input = scanner.nextLine();
+            out.print("> ");
+            String input = in.nextLine();
             int choice;
             try {
                 if (input == null || input.trim().isEmpty()) throw new Exception();
                 choice = Integer.parseInt(input.trim()) - 1;
                 if (choice < 0 || choice >= menuCount - 1) throw new Exception();
             } catch (Exception e) {
-                System.out.println("Invalid skill, you fumble and miss!");
+                out.println("Invalid skill, you fumble and miss!");
                 continue;
             }
             int skillIdx = idxMap[choice];
             Skill s = skillList.get(skillIdx);
             if (skillCooldowns[skillIdx] > 0) {
-                System.out.println(s.name + " is still on cooldown!");
+                out.println(s.name + " is still on cooldown!");
                 continue;
             }
             if (mana < s.manaCost) {
-                System.out.println("Not enough mana for " + s.name + "!");
+                out.println("Not enough mana for " + s.name + "!");
                 continue;
             }
-            mana -= s.manaCost;
-            skillCooldowns[skillIdx] = s.cooldown;
-            return useSkill(skillIdx, enemy);
+            return skillIdx;
         }
     }
 
+    /**
+     * --- Skill Readiness Check ---
+     * True if the skill exists, is active, off cooldown and affordable.
+     */
+    public boolean canCast(int idx) {
+        if (idx < 0 || idx >= skillList.size()) return false;
+        Skill s = skillList.get(idx);
+        return !s.isPassive && skillCooldowns[idx] == 0 && mana >= s.manaCost;
+    }
+
+    /**
+     * --- Skill Cast ---
+     * Pays the mana cost, starts the cooldown and resolves the skill.
+     * Returns true if the enemy was defeated.
+     */
+    public boolean castSkill(int idx, Monster enemy) {
+        Skill s = skillList.get(idx);
+        mana -= s.manaCost;
+        skillCooldowns[idx] = s.cooldown;
+        return useSkill(idx, enemy);
+    }
+
+    /**
+     * --- Skill Cast (Group) ---
+     * Pays the mana cost, starts the cooldown and resolves the skill against
+     * a pack: buffs go to the hero, debuffs to the foe at index target (or to
+     * every standing foe for ALL_FOES; foes with no free effect slot resist,
+     * and a debuff no foe took is not reported). ALL_FOES skills then strike each
+     * standing foe once and RANDOM_FOES skills strike `hits` random standing
+     * foes, each strike dealing Skill.strikeDamage. Single-target skills apply
+     * only their effects.
+     * Publishes one damage event per cast, not per foe. Returns true if the
+     * whole pack was defeated.
+     */
+    public boolean castSkill(int idx, EnemyGroup group, int target) {
+        Skill s = skillList.get(idx);
+        mana -= s.manaCost;
+        skillCooldowns[idx] = s.cooldown;
+        if (s.isPassive) return false;
+        CombatEventRing events = CombatEventRing.current();
+
+        for (int e = 0; e < s.effectCount(); e++) {
+            StatusEffect eff = s.effect(e);
+            if (eff.isBuff) {
+                this.enqueue(eff);
+                continue;
+            }
+            // A foe whose EFFECT_SLOTS are full resists: only foes that took it are reported
+            if (s.targeting == Skill.Targeting.ALL_FOES) {
+                boolean took = false;
+                for (int i = 0; i < group.alive(); i++) took |= group.addEffect(i, eff.type, eff.duration, eff.magnitude);
+                if (took && events.isActive()) events.effectApplied(group.label(), false, eff);
+            } else if (group.addEffect(target, eff.type, eff.duration, eff.magnitude)) {
+                if (events.isActive()) events.effectApplied(group.name(target), false, eff);
+            }
+        }
+
+        int stat = stats[s.statIndex];
+        long total = 0;
+        if (s.targeting == Skill.Targeting.ALL_FOES) {
+            String label = events.isActive() ? group.label() : null;
+            for (int i = group.alive() - 1; i >= 0; i--) { // downward: a fallen foe is swapped with a visited one
+                int damage = s.strikeDamage(stat, group.def(i), group.markTotal(i));
+                total += damage;
+                group.hit(i, damage);
+            }
+            if (label != null) events.damage(name, label, false, (int) Math.min(Integer.MAX_VALUE, total), s.name);
+        } else if (s.targeting == Skill.Targeting.RANDOM_FOES) {
+            String label = events.isActive() ? group.label() : null;
+            for (int h = 0; h < s.hits && !group.isDefeated(); h++) {
+                int i = group.random(rand);
+                int damage = s.strikeDamage(stat, group.def(i), group.markTotal(i));
+                total += damage;
+                group.hit(i, damage);
+            }
+            if (label != null) events.damage(name, label, false, (int) Math.min(Integer.MAX_VALUE, total), s.name);
+        }
+        return group.isDefeated();
+    }
+
+    /** Number of skills (including the passive) this hero carries. */
+    public int getSkillCount() { return skillList.size(); }
+
+    /** Returns the skill at the given index. */
+    public Skill getSkill(int idx) { return skillList.get(idx); }
+
+    /** Turns left before skill idx is ready again (0 = ready). */
+    public int getSkillCooldown(int idx) { return skillCooldowns[idx]; }
+
+    /** Restores a cooldown (used when loading a save). */
+    public void setSkillCooldown(int idx, int turns) { skillCooldowns[idx] = turns; }
+
     /**
      * --- Passive Skill Getter ---
      * Finds the passive skill in the hero's skill list.
@@ -218,24 +377,22 @@ public class Hero extends Entity {
     /**
      * --- Skill Effect Application ---
      * Executes the selected skill, applying effects and handling ultimate skills.
-     * Data structure: StatusEffect[], skillList
+     * ALL_FOES and RANDOM_FOES skills then strike the lone enemy as they would a
+     * pack (Skill.strikesOnLoneFoe strikes of Skill.strikeDamage), with one
+     * damage event per cast. Returns true if the enemy was defeated.
+     * Data structure: Skill effect templates, skillList
      */
     private boolean useSkill(int idx, Monster enemy) {
         Skill s = skillList.get(idx);
         if (s.isPassive) return false;
 
         // Apply status effects if defined for this skill
-        if (s.effects != null) {
-            for (StatusEffect eff : s.effects) {
-                if (eff.isBuff) {
-                    this.statusQueue.offer(eff.copy());
-                    System.out.println("You gain effect: " + eff.name + " (" + eff.duration + " turns)");
-                } else {
-                    if (enemy != null) {
-                        enemy.statusQueue.offer(eff.copy());
-                        System.out.println(enemy.name + " is afflicted with " + eff.name + " (" + eff.duration + " turns)");
-                    }
-                }
+        for (int e = 0; e < s.effectCount(); e++) {
+            StatusEffect eff = s.effect(e);
+            if (eff.isBuff) {
+                this.enqueue(eff);
+            } else {
+                if (enemy != null) enemy.enqueue(eff);
             }
         }
 
@@ -247,7 +404,16 @@ public class Hero extends Entity {
         // NORMAL SKILLS
         // ... [omitted for brevity]
 
-        return false;
+        int strikes = s.strikesOnLoneFoe();
+        if (strikes == 0 || enemy == null) return false;
+        long total = 0;
+        for (int h = 0; h < strikes && enemy.hp > 0; h++) {
+            int damage = s.strikeDamage(stats[s.statIndex], enemy.def, enemy.effects.markTotal());
+            total += damage;
+            enemy.takeDamage(damage);
+        }
+        CombatEventRing.current().damage(this, enemy, (int) Math.min(Integer.MAX_VALUE, total), s.name);
+        return enemy.hp <= 0;
     }
 
     /**
@@ -269,7 +435,7 @@ public class Hero extends Entity {
         while (this.exp >= 100) {
             this.exp -= 100;
             this.level++;
-            System.out.println("LEVEL UP! You are now level " + this.level + "!");
+            CombatEventRing.current().levelUp(this);
             switch (type) {
                 case WARRIOR:
                     stats[0] += 4;
@@ -303,6 +469,7 @@ public class Hero extends Entity {
             this.mana = this.maxMana;
             applyPassiveBonuses();
         }
+        if (journal != null) journal.exp(amount, level);
     }
 
     /**
@@ -319,15 +486,16 @@ public class Hero extends Entity {
      */
     @Override
     public void processTurnPassives() {
+        RenderSink out = RenderSink.current();
         if (type == HeroType.MAGE) {
             int manaRegen = 5 + level / 2;
             mana = Math.min(maxMana, mana + manaRegen);
-            System.out.println("Your mana surges (+ " + manaRegen + ") from Arcane Wisdom.");
+            if (out.isEnabled()) out.println("Your mana surges (+ " + manaRegen + ") from Arcane Wisdom.");
         }
         if (type == HeroType.PRIEST) {
             int heal = 4 + level / 2;
             hp = Math.min(maxHp, hp + heal);
-            System.out.println("You recover " + heal + " HP from Blessing passive.");
+            if (out.isEnabled()) out.println("You recover " + heal + " HP from Blessing passive.");
         }
     }
 
@@ -336,22 +504,19 @@ public class Hero extends Entity {
      * Applies and resolves effects, including Resurrection auto-revive.
      */
     @Override
-    public void processStatusEffects() {
-        super.processStatusEffects();
+    public int processStatusEffects() {
+        int processed = super.processStatusEffects();
         // Resurrection: if you died, revive
-        StatusEffect toRemove = null;
-        for (StatusEffect se : statusQueue) {
-            if (se.name.equalsIgnoreCase("Resurrection") && se.duration > 0 && this.hp <= 0) {
+        if (this.hp <= 0) {
+            int slot = effects.indexOf(EffectType.RESURRECTION);
+            if (slot >= 0) {
                 int heal = (int)(this.maxHp * 0.6);
                 this.hp = heal;
-                System.out.println("You are resurrected by divine power! Restored to " + heal + " HP!");
-                toRemove = se;
-                break;
+                RenderSink.current().println("You are resurrected by divine power! Restored to " + heal + " HP!");
+                effects.removeAt(slot);
             }
         }
-        if (toRemove != null) {
-            statusQueue.remove(toRemove);
-        }
+        return processed;
     }
 }
 
@@ -364,6 +529,7 @@ and status effect management. Features include:
 - Class-based stat and skill initialization
 - Leveling and stat growth system
 - Turn-based attack and skill menu
+- Targeted attacks, area and multi-hit skills against EnemyGroup packs
 - Status effect system (buffs/debuffs in battle)
 - Cooldown management for skills
 - Passive and ultimate skill logic
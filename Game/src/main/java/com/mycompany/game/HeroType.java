@@ -1,8 +1,10 @@
 package com.mycompany.game;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -45,37 +47,55 @@ public enum HeroType {
      * Displays available classes and prompts for choice.
      * Data Structure: List (available), Set (usedTypes)
      */
-    public static HeroType chooseHeroType(Scanner scanner, Set<HeroType> usedTypes) {
+    public static HeroType chooseHeroType(PlayerInput in, Set<HeroType> usedTypes) {
+        RenderSink out = RenderSink.current();
         DeathDialogue.preClassSelection(usedTypes);
         List<HeroType> available = availableTypes(usedTypes);
-        System.out.println("--------------------------------------------------");
-        System.out.println("DEATH: \"Five masks, five fates. Once chosen, a mask cannot be worn again.\"");
-        System.out.println("Choose your next mask:");
+        out.println("--------------------------------------------------");
+        out.println("DEATH: \"Five masks, five fates. Once chosen, a mask cannot be worn again.\"");
+        out.println("Choose your next mask:");
         for (int i = 0; i < available.size(); i++) {
-            System.out.printf("  %d. %s - %s\n", i + 1, available.get(i).name, available.get(i).desc);
+            out.printf("  %d. %s - %s\n", i + 1, available.get(i).name, available.get(i).desc);
         }
         while (true) {
-            System.out.print("> ");
-            String input = scanner.nextLine();
+            out.print("> ");
+            String input = in.nextLine();
             try {
                 int idx = Integer.parseInt(input) - 1;
                 if (idx >= 0 && idx < available.size()) {
                     return available.get(idx);
                 } else {
-                    System.out.println("DEATH: \"That mask is lost to you. Choose again.\"");
+                    out.println("DEATH: \"That mask is lost to you. Choose again.\"");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("DEATH: \"I require a number. Try again.\"");
+                out.println("DEATH: \"I require a number. Try again.\"");
             }
         }
     }
 
+    // --- Shared Skill Catalog ---
+    // Built once per JVM; every Hero of a type shares the same immutable list (Data structure: EnumMap)
+    private static final Map<HeroType, List<Skill>> SKILL_CATALOG = new EnumMap<>(HeroType.class);
+    static {
+        for (HeroType t : values()) {
+            SKILL_CATALOG.put(t, Collections.unmodifiableList(t.buildSkills()));
+        }
+    }
+
+    /**
+     * Returns the shared, unmodifiable skill list for this hero type.
+     * Per-hero state (cooldowns, applied effects) lives on the Hero, not here.
+     */
+    public List<Skill> getSkills() {
+        return SKILL_CATALOG.get(this);
+    }
+
     // --- Skill Definitions for Each Class ---
     /**
-     * Returns the skill list for this hero type.
+     * Builds the skill list for this hero type (called once per type for the catalog).
      * Data Structure: List (ArrayList), StatusEffect[] for skill effects
      */
-    public List<Skill> getSkills() {
+    private List<Skill> buildSkills() {
         List<Skill> skills = new ArrayList<>();
         switch (this) {
             case WARRIOR:
@@ -132,7 +152,7 @@ public enum HeroType {
                 skills.add(new Skill(
                     "Meteor Storm (Ultimate)", 
                     "Ultimate: Call a meteor storm for massive damage to all foes.", 
-                    50, 1, 30, 8, null, false, true));
+                    50, 1, 30, 8, null, false, true, Skill.Targeting.ALL_FOES, 1));
                 break;
             case ROGUE:
                 skills.add(new Skill(
@@ -210,7 +230,7 @@ public enum HeroType {
                 skills.add(new Skill(
                     "Predator's Frenzy (Ultimate)", 
                     "Ultimate: Attack 3 times (random foes) for heavy damage.", 
-                    24, 0, 28, 7, null, false, true));
+                    24, 0, 28, 7, null, false, true, Skill.Targeting.RANDOM_FOES, 3));
                 break;
         }
         return skills;
@@ -225,7 +245,7 @@ Enum representing all possible player hero classes. Each type has a name, descri
 and a unique set of skills. Provides utility methods for:
 - Filtering available hero types (masks) based on usage (Set, List)
 - Handling class selection menu (console)
-- Constructing skill lists (ArrayList, StatusEffect[])
+- Constructing skill lists (ArrayList, StatusEffect[]) once into a shared EnumMap catalog
 Used throughout the game for class-based stat/skill logic.
 --------------------------------------------------------------------------------
 */
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.mycompany.game;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A recorded run: the session seed, every menu/prompt line the player typed
+ * (in order), how the run ended and the final state fingerprint
+ * (GameSession.stateSummary). Replaying the same lines with the same seed
+ * must reproduce the same final state (see RunReplayer).
+ *
+ * File format (UTF-8 text, so bug reports can be read and trimmed by hand):
+ *   # comment
+ *   version=1
+ *   seed=<long>
+ *   end=complete | eof
+ *   state=<stateSummary>
+ *   input=<line>          (one per line read, in order)
+ */
+public final class InputRecording {
+    public static final int VERSION = 1;
+
+    public final long seed;
+    public final boolean endedByEof;   // the input ran out (player disconnected/closed the console)
+    public final String finalState;
+    public final List<String> lines;
+
+    public InputRecording(long seed, boolean endedByEof, String finalState, List<String> lines) {
+        this.seed = seed;
+        this.endedByEof = endedByEof;
+        this.finalState = finalState;
+        this.lines = lines;
+    }
+
+    // --- File I/O ---
+
+    public void write(Path file) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("# Death's Game input recording (replay with: Game --replay <file>)\n");
+            w.write("version=" + VERSION + "\n");
+            w.write("seed=" + seed + "\n");
+            w.write("end=" + (endedByEof ? "eof" : "complete") + "\n");
+            w.write("state=" + finalState + "\n");
+            for (String line : lines) w.write("input=" + line + "\n");
+        }
+    }
+
+    public static InputRecording read(Path file) throws IOException {
+        long seed = 0;
+        boolean eof = false;
+        String state = "";
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String row;
+            while ((row = r.readLine()) != null) {
+                if (row.isEmpty() || row.startsWith("#")) continue;
+                int eq = row.indexOf('=');
+                if (eq < 0) throw new IOException("Bad recording line: " + row);
+                String key = row.substring(0, eq), value = row.substring(eq + 1);
+                switch (key) {
+                    case "version":
+                        if (Integer.parseInt(value) > VERSION) throw new IOException("Unsupported recording version " + value);
+                        break;
+                    case "seed": seed = Long.parseLong(value); break;
+                    case "end": eof = value.equals("eof"); break;
+                    case "state": state = value; break;
+                    case "input": lines.add(value); break;
+                    default: break; // unknown keys from newer writers are ignored
+                }
+            }
+        }
+        return new InputRecording(seed, eof, state, lines);
+    }
+
+    // --- Recording Input ---
+
+    /**
+     * PlayerInput decorator that passes every line through from the real
+     * input and keeps a copy, in order (Data structure: ArrayList).
+     */
+    public static final class Recorder extends PlayerInput {
+        private final PlayerInput source;
+        private final List<String> lines = new ArrayList<>();
+
+        public Recorder(PlayerInput source) {
+            this.source = source;
+        }
+
+        @Override
+        protected String readLine() {
+            String line = source.readLine();
+            lines.add(line);
+            return line;
+        }
+
+        /** Builds the recording once the session has finished. */
+        public InputRecording finish(GameSession session, boolean endedByEof) {
+            return new InputRecording(session.getSeed(), endedByEof, session.stateSummary(), new ArrayList<>(lines));
+        }
+    }
+
+    // --- Scripted Input ---
+
+    /**
+     * PlayerInput that answers from a recording. Running out of lines throws
+     * NoSuchElementException, exactly like a closed console.
+     */
+    public static final class Script extends PlayerInput {
+        private final List<String> lines;
+        private int next;
+
+        public Script(List<String> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        protected String readLine() {
+            if (next >= lines.size()) throw new NoSuchElementException("No line found");
+            return lines.get(next++);
+        }
+
+        /** Lines consumed so far. */
+        public int consumed() {
+            return next;
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: InputRecording
+--------------------------------------------------------------------------------
+Seed + input recording of one run (Game --record <file>). The Recorder wraps the
+player's PlayerInput and copies each line read by any menu (main menu, dungeon,
+skill menu, class choice, dialogue pauses); the Script feeds those lines back
+for RunReplayer. Stored as plain key=value text.
+--------------------------------------------------------------------------------
+*/
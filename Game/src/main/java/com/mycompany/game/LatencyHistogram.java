@@ -0,0 +1,91 @@
+package com.mycompany.game;
+
+/**
+ * Log-linear latency histogram (nanoseconds).
+ * Values below 16 get their own bucket; above that each power of two is
+ * split into 16 buckets, so any recorded value is reported within ~6% using
+ * a fixed 1 K-entry long[] and no allocation per sample. One writer per
+ * instance; merge() combines per-thread histograms for reporting.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    // Sample counts per bucket (Data structure: Array)
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+    private long sum;
+
+    /** Adds one sample (negative values count as 0). */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts[bucket(v)]++;
+        total++;
+        sum += v;
+        if (v > max) max = v;
+    }
+
+    /** Adds all samples of another histogram to this one. */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    // Adds samples that were already bucketed elsewhere (StripedHistogram snapshots)
+    void addBuckets(long[] bucketCounts, long sampleSum, long sampleMax) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += bucketCounts[i];
+            total += bucketCounts[i];
+        }
+        sum += sampleSum;
+        max = Math.max(max, sampleMax);
+    }
+
+    public long count() { return total; }
+    public long max() { return max; }
+    public double mean() { return total == 0 ? 0 : (double) sum / total; }
+
+    /**
+     * --- Percentile ---
+     * Upper bound of the bucket holding the given fraction (0..1) of samples,
+     * capped at the largest value seen.
+     */
+    public long percentile(double fraction) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    // --- Bucket Math ---
+    static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        return (e - SUB_BITS + 1) * SUB + (int) ((v >>> (e - SUB_BITS)) & (SUB - 1));
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int e = bucket / SUB + SUB_BITS - 1;
+        long lower = (long) (SUB + bucket % SUB) << (e - SUB_BITS);
+        return lower + (1L << (e - SUB_BITS)) - 1;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: LatencyHistogram
+--------------------------------------------------------------------------------
+Fixed-size log-linear histogram for response-time percentiles (p50/p99/max)
+without storing samples. Used by the load harness, one per bot thread, merged
+at the end of the run, and as the snapshot type of StripedHistogram.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,222 @@
+package com.mycompany.game;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for the game server.
+ * Runs N BotPlayers concurrently (one virtual thread each), every bot
+ * playing complete runs back to back, against either an in-process
+ * GameServer on a loopback port (instant pacing, saves off) or an external
+ * server. Reports completed sessions per second, per-turn latency
+ * percentiles and, in-process, heap used per live session.
+ *
+ * Usage: Game --load [--bots N] [--duration seconds] [--sessions M]
+ *                    [--connect host:port] [--seed S] [--combat-log file]
+ * The run stops at the duration, or once M sessions have been started.
+ */
+public class LoadHarness {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int bots;
+    private final long durationNanos;
+    private final long maxSessions;  // <= 0: no limit
+    private final String host;
+    private final int port;
+    private final long seed;
+
+    // --- Shared Counters (Data structure: LongAdder / AtomicLong) ---
+    private final AtomicLong sessionsStarted = new AtomicLong();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public LoadHarness(int bots, long durationNanos, long maxSessions, String host, int port, long seed) {
+        this.bots = bots;
+        this.durationNanos = durationNanos;
+        this.maxSessions = maxSessions;
+        this.host = host;
+        this.port = port;
+        this.seed = seed;
+    }
+
+    /** Outcome of a load run. */
+    public static final class Result {
+        public final long completed, abandoned, failed, turns, unknownPrompts, nanos;
+        public final LatencyHistogram latency;
+        public final long heapPerSession;   // bytes, or -1 if not measured
+        public final int liveAtSample;
+
+        Result(long completed, long abandoned, long failed, long turns, long unknownPrompts, long nanos,
+               LatencyHistogram latency, long heapPerSession, int liveAtSample) {
+            this.completed = completed;
+            this.abandoned = abandoned;
+            this.failed = failed;
+            this.turns = turns;
+            this.unknownPrompts = unknownPrompts;
+            this.nanos = nanos;
+            this.latency = latency;
+            this.heapPerSession = heapPerSession;
+            this.liveAtSample = liveAtSample;
+        }
+    }
+
+    /**
+     * --- Run ---
+     * Starts the bots, optionally samples the heap of the in-process server
+     * halfway through, then waits for every bot to finish its current run.
+     */
+    public Result run(GameServer inProcess) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<BotPlayer> players = new ArrayList<>(bots);
+        List<Thread> threads = new ArrayList<>(bots);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = 0;
+        if (inProcess != null) {
+            System.gc();
+            baseline = memory.getHeapMemoryUsage().getUsed();
+        }
+
+        for (int i = 0; i < bots; i++) {
+            BotPlayer bot = new BotPlayer(host, port, "Bot-" + (i + 1), seeds.nextLong());
+            players.add(bot);
+            threads.add(Thread.ofVirtual().name("bot-" + (i + 1)).start(() -> playUntil(bot, deadline)));
+        }
+
+        // --- Heap Sample (in-process only) ---
+        long heapPerSession = -1;
+        int live = 0;
+        if (inProcess != null) {
+            Thread.sleep(Math.max(1, Math.min(durationNanos / 2, NANOS_PER_SECOND) / 1_000_000));
+            live = inProcess.activeSessions();
+            if (live > 0) {
+                System.gc();
+                heapPerSession = Math.max(0, memory.getHeapMemoryUsage().getUsed() - baseline) / live;
+            }
+        }
+
+        for (Thread t : threads) t.join();
+        long nanos = System.nanoTime() - start;
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long turns = 0, unknown = 0;
+        for (BotPlayer bot : players) {
+            latency.merge(bot.latency);
+            turns += bot.turns;
+            unknown += bot.unknownPrompts;
+        }
+        return new Result(completed.sum(), abandoned.sum(), failed.sum(), turns, unknown, nanos,
+                latency, heapPerSession, live);
+    }
+
+    // One bot: plays runs back to back until the deadline or the session budget is used up
+    private void playUntil(BotPlayer bot, long deadline) {
+        while (System.nanoTime() < deadline
+                && (maxSessions <= 0 || sessionsStarted.getAndIncrement() < maxSessions)) {
+            switch (bot.playSession()) {
+                case COMPLETED: completed.increment(); break;
+                case ABANDONED: abandoned.increment(); break;
+                default:
+                    failed.increment();
+                    return; // server unreachable or reset; stop this bot
+            }
+        }
+    }
+
+    /**
+     * --- Report ---
+     * Prints throughput, turn latency percentiles (microseconds) and memory.
+     */
+    public static void print(Result r, int bots, String target) {
+        double secs = r.nanos / 1e9;
+        LatencyHistogram h = r.latency;
+        System.out.println("Load test: " + bots + " bots against " + target);
+        System.out.printf(Locale.ROOT, "Elapsed:        %.2f s%n", secs);
+        System.out.printf(Locale.ROOT, "Sessions:       %d completed (%.1f/s), %d abandoned, %d failed%n",
+                r.completed, r.completed / secs, r.abandoned, r.failed);
+        System.out.printf(Locale.ROOT, "Turns:          %d (%.0f/s), %d unrecognised prompts%n",
+                r.turns, r.turns / secs, r.unknownPrompts);
+        System.out.printf(Locale.ROOT, "Turn latency:   p50 %.0f us | p90 %.0f us | p99 %.0f us | p99.9 %.0f us | max %.0f us%n",
+                h.percentile(0.50) / 1e3, h.percentile(0.90) / 1e3, h.percentile(0.99) / 1e3,
+                h.percentile(0.999) / 1e3, h.max() / 1e3);
+        if (r.heapPerSession >= 0) {
+            System.out.printf(Locale.ROOT, "Heap/session:   ~%.1f KB (after GC, %d live sessions, includes bot clients)%n",
+                    r.heapPerSession / 1024.0, r.liveAtSample);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int bots = 50;
+        double duration = 10;
+        long sessions = 0;
+        String connect = null;
+        Long seed = null;
+        String combatLogFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--bots": bots = Integer.parseInt(args[++i]); break;
+                case "--duration": duration = Double.parseDouble(args[++i]); break;
+                case "--sessions": sessions = Long.parseLong(args[++i]); break;
+                case "--connect": connect = args[++i]; break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--combat-log": combatLogFile = args[++i]; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        long botSeed = seed != null ? seed : GameSession.newSeed();
+
+        GameServer server = null;
+        CombatLogWriter combatLog = null;
+        String host;
+        int port;
+        if (connect != null) {
+            int colon = connect.lastIndexOf(':');
+            host = colon > 0 ? connect.substring(0, colon) : connect;
+            port = colon > 0 ? Integer.parseInt(connect.substring(colon + 1)) : GameServer.DEFAULT_PORT;
+        } else {
+            server = seed != null
+                    ? new GameServer(0, PacedRenderSink.Pacing.INSTANT, seed)
+                    : new GameServer(0, PacedRenderSink.Pacing.INSTANT);
+            server.setSavesEnabled(false);
+            if (combatLogFile != null) {
+                combatLog = new CombatLogWriter(Paths.get(combatLogFile));
+                server.setCombatLog(combatLog);
+            }
+            GameMetrics.registerMBeans();
+            server.start();
+            host = InetAddress.getLoopbackAddress().getHostAddress();
+            port = server.boundPort();
+        }
+
+        LoadHarness harness = new LoadHarness(bots, (long) (duration * NANOS_PER_SECOND), sessions, host, port, botSeed);
+        Result result = harness.run(server);
+        if (server != null) server.close();
+        print(result, bots, server != null ? "in-process server (port " + port + ")" : host + ":" + port);
+        if (combatLog != null) {
+            combatLog.close();
+            System.out.println("Combat log:     " + combatLog.written() + " events written to " + combatLogFile);
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: LoadHarness
+--------------------------------------------------------------------------------
+Concurrent bot driver for GameServer capacity testing (Game --load). Spawns one
+virtual thread per BotPlayer, counts finished sessions with LongAdders, merges
+the bots' LatencyHistograms for turn-latency percentiles, and estimates heap
+per live session from a post-GC sample of an in-process server.
+--------------------------------------------------------------------------------
+*/
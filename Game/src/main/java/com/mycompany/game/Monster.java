@@ -20,17 +20,30 @@ public class Monster extends Entity {
         this.def = def;
     }
 
+    /**
+     * --- Reset (pooling) ---
+     * Reinitializes a released monster for a new fight: stats, full HP and
+     * no status effects. Used by MonsterPool.
+     */
+    public void reset(String name, int hp, int atk, int def) {
+        this.name = name;
+        this.maxHp = hp;
+        this.hp = hp;
+        this.atk = atk;
+        this.def = def;
+        this.journal = null;
+        effects.clear();
+    }
+
     /**
      * --- Monster Generator ---
      * Creates a regular enemy with stats based on dungeon and level.
      * Used in dungeons for random encounters.
+     * Data structure: precomputed MonsterTable row (no name building)
      */
     public static Monster generate(String baseName, int level) {
-        String name = baseName + " Lv." + level;
-        int baseHp = 40 + level * 3;
-        int baseAtk = 8 + level;
-        int baseDef = 5 + level / 2;
-        return new Monster(name, baseHp, baseAtk, baseDef);
+        MonsterTable t = MonsterTable.regular(baseName);
+        return new Monster(t.name(level), t.hp(level), t.atk(level), t.def(level));
     }
 
     /**
@@ -38,11 +51,8 @@ public class Monster extends Entity {
      * Creates a boss monster with higher stats.
      */
     public static Monster boss(String bossName, int level) {
-        String name = bossName + " (Boss Lv." + level + ")";
-        int hp = 120 + level * 7;
-        int atk = 15 + level * 2;
-        int def = 10 + level;
-        return new Monster(name, hp, atk, def);
+        MonsterTable t = MonsterTable.boss(bossName);
+        return new Monster(t.name(level), t.hp(level), t.atk(level), t.def(level));
     }
 
     /**
@@ -62,11 +72,8 @@ public class Monster extends Entity {
      * Creates the final boss, Death, with high stats.
      */
     public static Monster deathBoss(int level) {
-        String name = "DEATH";
-        int hp = 300 + level * 10;
-        int atk = 30 + level * 2;
-        int def = 20 + level;
-        return new Monster(name, hp, atk, def);
+        MonsterTable t = MonsterTable.death();
+        return new Monster(t.name(level), t.hp(level), t.atk(level), t.def(level));
     }
 
     /**
@@ -76,7 +83,7 @@ public class Monster extends Entity {
     public void enemyAttack(Hero hero) {
         int damage = Math.max(1, atk - hero.stats[3]);
         hero.takeDamage(damage);
-        System.out.println(name + " attacks! You take " + damage + " damage.");
+        CombatEventRing.current().damage(this, hero, damage, null);
     }
 
     /**
@@ -96,6 +103,7 @@ Class: Monster
 --------------------------------------------------------------------------------
 Represents all enemy and boss entities in the game. Handles enemy stat generation,
 attack logic, and provides static methods for generating regular, boss, shadow,
-and Death monsters. Extends Entity and can use the status effect system.
+and Death monsters (stats from MonsterTable; reset() lets MonsterPool reuse
+instances). Extends Entity and can use the status effect system.
 --------------------------------------------------------------------------------
 */
\ No newline at end of file
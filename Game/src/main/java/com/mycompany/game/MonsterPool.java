@@ -0,0 +1,54 @@
+package com.mycompany.game;
+
+import java.util.ArrayDeque;
+
+/**
+ * Free list of Monster instances for short-lived encounters.
+ * acquire() resets a released monster (stats, HP, effects) from a
+ * MonsterTable row instead of allocating a new one. A pool belongs to one
+ * owner (a dungeon run, a simulation worker) and is not thread-safe.
+ */
+public final class MonsterPool {
+    private static final int MAX_IDLE = 8;
+
+    // Released monsters ready for reuse (Data structure: ArrayDeque as a stack)
+    private final ArrayDeque<Monster> idle = new ArrayDeque<>();
+
+    /** A monster reset to the given table row. */
+    public Monster acquire(MonsterTable table, int level) {
+        return acquire(table.name(level), table.hp(level), table.atk(level), table.def(level));
+    }
+
+    /** A monster reset to explicit stats (e.g. the Shadow, which mirrors the hero). */
+    public Monster acquire(String name, int hp, int atk, int def) {
+        Monster m = idle.pollLast();
+        if (m == null) return new Monster(name, hp, atk, def);
+        m.reset(name, hp, atk, def);
+        return m;
+    }
+
+    /** A regular dungeon monster. */
+    public Monster regular(String baseName, int level) {
+        return acquire(MonsterTable.regular(baseName), level);
+    }
+
+    /** A domain boss. */
+    public Monster boss(String bossName, int level) {
+        return acquire(MonsterTable.boss(bossName), level);
+    }
+
+    /** Returns a monster whose fight is over; the caller must not use it afterwards. */
+    public void release(Monster m) {
+        if (idle.size() < MAX_IDLE) idle.addLast(m);
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: MonsterPool
+--------------------------------------------------------------------------------
+Reusable Monster instances for regular encounters and batch simulations.
+Combined with MonsterTable rows, a steady stream of encounters allocates no
+Monster objects, name strings or effect arrays.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,99 @@
+package com.mycompany.game;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed stats and display names for one monster line (a dungeon's
+ * regular monster type, a boss, or Death) at every level up to MAX_LEVEL.
+ * Tables are built once per name and shared, so spawning a monster is an
+ * array lookup with no string building. Levels above MAX_LEVEL fall back
+ * to the formulas.
+ */
+public final class MonsterTable {
+    public static final int MAX_LEVEL = 128;
+
+    /** Stat formulas for each monster line. */
+    public enum Kind {
+        REGULAR {
+            String name(String base, int level) { return base + " Lv." + level; }
+            int hp(int level) { return 40 + level * 3; }
+            int atk(int level) { return 8 + level; }
+            int def(int level) { return 5 + level / 2; }
+        },
+        BOSS {
+            String name(String base, int level) { return base + " (Boss Lv." + level + ")"; }
+            int hp(int level) { return 120 + level * 7; }
+            int atk(int level) { return 15 + level * 2; }
+            int def(int level) { return 10 + level; }
+        },
+        DEATH {
+            String name(String base, int level) { return base; }
+            int hp(int level) { return 300 + level * 10; }
+            int atk(int level) { return 30 + level * 2; }
+            int def(int level) { return 20 + level; }
+        };
+
+        abstract String name(String base, int level);
+        abstract int hp(int level);
+        abstract int atk(int level);
+        abstract int def(int level);
+    }
+
+    // Shared tables by base name (Data structure: ConcurrentHashMap per kind)
+    private static final ConcurrentHashMap<String, MonsterTable> REGULARS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, MonsterTable> BOSSES = new ConcurrentHashMap<>();
+    private static final MonsterTable DEATH_TABLE = new MonsterTable(Kind.DEATH, "DEATH");
+
+    public final Kind kind;
+    public final String baseName;
+    // Level-indexed rows (Data structure: parallel arrays)
+    private final String[] names = new String[MAX_LEVEL + 1];
+    private final int[] hp = new int[MAX_LEVEL + 1];
+    private final int[] atk = new int[MAX_LEVEL + 1];
+    private final int[] def = new int[MAX_LEVEL + 1];
+
+    private MonsterTable(Kind kind, String baseName) {
+        this.kind = kind;
+        this.baseName = baseName;
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            names[level] = kind.name(baseName, level);
+            hp[level] = kind.hp(level);
+            atk[level] = kind.atk(level);
+            def[level] = kind.def(level);
+        }
+    }
+
+    /** Table for a dungeon's regular monster type (e.g. "Slothling"). */
+    public static MonsterTable regular(String baseName) {
+        return REGULARS.computeIfAbsent(baseName, n -> new MonsterTable(Kind.REGULAR, n));
+    }
+
+    /** Table for a domain boss (e.g. "Lazarin"). */
+    public static MonsterTable boss(String bossName) {
+        return BOSSES.computeIfAbsent(bossName, n -> new MonsterTable(Kind.BOSS, n));
+    }
+
+    /** Table for Death, the final boss. */
+    public static MonsterTable death() {
+        return DEATH_TABLE;
+    }
+
+    private static boolean inRange(int level) {
+        return level >= 0 && level <= MAX_LEVEL;
+    }
+
+    public String name(int level) { return inRange(level) ? names[level] : kind.name(baseName, level); }
+    public int hp(int level) { return inRange(level) ? hp[level] : kind.hp(level); }
+    public int atk(int level) { return inRange(level) ? atk[level] : kind.atk(level); }
+    public int def(int level) { return inRange(level) ? def[level] : kind.def(level); }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: MonsterTable
+--------------------------------------------------------------------------------
+Level-indexed stat and name tables for regular monsters, bosses and Death
+(formulas in Kind). Built once per name and cached, so Monster.generate/boss
+and MonsterPool never concatenate names or recompute stats per encounter.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,236 @@
+package com.mycompany.game;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RenderSink decorator that delivers narration on a timeline instead of
+ * sleeping the game thread. Each beat() starts a new segment; segments are
+ * released one beat apart by a timer, so the session thread returns
+ * immediately and simply waits for the player's next input.
+ * Reading input while narration is still pending fast-forwards it (skip).
+ */
+public class PacedRenderSink extends RenderSink {
+
+    /** Per-session narration speed. */
+    public enum Pacing {
+        DRAMATIC(900),   // original cutscene pacing
+        FAST(150),       // fast-forward
+        INSTANT(0);      // zero delay (automated runs, replays)
+
+        public final long beatMillis;
+
+        Pacing(long beatMillis) {
+            this.beatMillis = beatMillis;
+        }
+
+        /** Parses "dramatic", "fast" or "instant" (case-insensitive). */
+        public static Pacing parse(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    // Timed deliveries run on short-lived virtual threads (no carrier is held while waiting)
+    private static final Executor DELIVERY = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final RenderSink target;
+    private volatile Pacing pacing;
+
+    // Segments waiting for their beat, oldest first (Data structure: ArrayDeque)
+    private final ArrayDeque<StringBuilder> pending = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition delivered = lock.newCondition();
+    private boolean timerArmed;   // a delivery is scheduled
+    private long generation;      // bumped on fast-forward to cancel stale timers
+    // A delivery is writing to the target outside the lock; meanwhile unpaced
+    // text waits in carry and flushes are deferred to the delivery thread
+    private boolean inFlight;
+    private boolean flushWanted;
+    private final StringBuilder carry = new StringBuilder();
+
+    /**
+     * --- PacedRenderSink Constructor ---
+     * target - where text ends up (console or session sink)
+     * pacing - beat length for this session
+     */
+    public PacedRenderSink(RenderSink target, Pacing pacing) {
+        this.target = target;
+        this.pacing = pacing;
+    }
+
+    public Pacing getPacing() { return pacing; }
+
+    /** Switches this session's pacing; switching to INSTANT releases pending text. */
+    public void setPacing(Pacing pacing) {
+        this.pacing = pacing;
+        if (pacing == Pacing.INSTANT) fastForward();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return target.isEnabled();
+    }
+
+    @Override
+    public void print(String text) {
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) pending.peekLast().append(text);
+            else if (inFlight) carry.append(text);
+            else target.print(text);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void println(String text) {
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) pending.peekLast().append(text).append('\n');
+            else if (inFlight) carry.append(text).append('\n');
+            else target.println(text);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * --- Beat ---
+     * Everything written after this call is released one beat after the
+     * text before it reaches the player.
+     */
+    @Override
+    public void beat() {
+        long millis = pacing.beatMillis;
+        if (millis <= 0) return;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) flushNow(); // text so far is shown now; the beat starts from here
+            pending.addLast(new StringBuilder());
+            if (!timerArmed) arm(millis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Schedules delivery of the oldest segment after the given delay
+    private void arm(long millis) {
+        timerArmed = true;
+        long gen = generation;
+        CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS, DELIVERY)
+                .execute(() -> deliverNext(gen));
+    }
+
+    /**
+     * --- Timed Delivery ---
+     * Releases one segment and re-arms the timer if more are waiting.
+     * The write to the player happens with the lock released, so a slow
+     * client never blocks the session thread; text and flushes the session
+     * issues meanwhile are carried over and written right after, in order.
+     */
+    private void deliverNext(long gen) {
+        lock.lock();
+        try {
+            if (gen != generation) return; // fast-forwarded meanwhile
+            StringBuilder segment = pending.pollFirst();
+            if (segment != null) {
+                inFlight = true;
+                String text = segment.toString();
+                boolean flush = true;
+                do {
+                    lock.unlock();
+                    try {
+                        target.print(text);
+                        if (flush) target.flush();
+                    } finally {
+                        lock.lock();
+                    }
+                    text = carry.toString();
+                    carry.setLength(0);
+                    flush = flushWanted;
+                    flushWanted = false;
+                } while (flush);
+                target.print(text); // unflushed, like any direct write: shown on the session's next flush
+                inFlight = false;
+            }
+            if (pending.isEmpty()) {
+                timerArmed = false;
+                delivered.signalAll();
+            } else if (gen == generation) {
+                arm(pacing.beatMillis);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Flushes the target, or leaves it to a delivery that is writing right now (lock held)
+    private void flushNow() {
+        if (inFlight) flushWanted = true;
+        else target.flush();
+    }
+
+    /** Flushes text that is not waiting on a beat; paced text keeps its schedule. */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (pending.isEmpty()) flushNow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * --- Fast-Forward / Skip ---
+     * Releases every pending segment at once and cancels the running timer.
+     */
+    @Override
+    public void fastForward() {
+        lock.lock();
+        try {
+            if (pending.isEmpty()) return;
+            generation++;
+            timerArmed = false;
+            StringBuilder segment;
+            while ((segment = pending.pollFirst()) != null) {
+                if (inFlight) carry.append(segment);
+                else target.print(segment.toString());
+            }
+            flushNow();
+            if (!inFlight) delivered.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Waits (without pinning a carrier thread) until all paced text is out. */
+    @Override
+    public void drain() {
+        lock.lock();
+        try {
+            while (!pending.isEmpty() || inFlight) delivered.awaitUninterruptibly();
+            target.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: PacedRenderSink
+--------------------------------------------------------------------------------
+Scheduled narrative delivery for DeathDialogue. Replaces Thread.sleep pacing:
+beats split output into segments (ArrayDeque) released by a timer onto virtual
+threads, which write to the player outside the lock. Supports per-session
+DRAMATIC / FAST / INSTANT pacing, and skipping (fastForward) when the player
+answers while narration is still pending.
+--------------------------------------------------------------------------------
+*/
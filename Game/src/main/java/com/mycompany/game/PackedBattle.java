@@ -0,0 +1,219 @@
+package com.mycompany.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The mutable state of one fight packed into a long[].
+ * Everything a round can change (hero HP/mana/cooldowns, monster HP, both
+ * effect lists) is encoded; fixed data (stats, levels, max HP, skill
+ * catalog) stays on the Hero/Monster the state is decoded into. Copying is a
+ * System.arraycopy, equality an array compare and hashing a mix over the
+ * words, so searches can snapshot and memoize positions without touching
+ * the object model or allocating.
+ *
+ * Layout (n = hero effects + monster effects):
+ *   [0]            hero hp (high 32) | hero mana (low 32)
+ *   [1]            monster hp (high 32) | hero effect count (16) | monster effect count (16)
+ *   [2]            skill cooldowns, one byte each (skill 0 in the low byte)
+ *   [3 .. 3+t)     effect tags, four 16-bit tags per word, t = ceil(n / 4):
+ *                  type ordinal (6) | source skill (5) | source effect (5)
+ *   [3+t .. 3+t+n) effect values: duration (high 32) | magnitude (low 32)
+ * Hero effects come first, each list in application order. A tag's source
+ * indexes the hero type's skill catalog (NO_SOURCE when the effect has no
+ * catalog template), so decode restores the same StatusEffect reference.
+ */
+public final class PackedBattle {
+    public static final int MAX_SKILLS = 8;
+    public static final int MAX_COOLDOWN = 0xFF;
+    private static final int HEADER = 3;
+    private static final int NO_SOURCE = 0x1F;
+    private static final int INITIAL_EFFECTS = 16;
+    private static final EffectType[] EFFECT_TYPES = EffectType.values();
+
+    // Every effect template of each hero type's skill catalog with its (skill, effect) source bits,
+    // flattened for a tight identity scan (Data structure: Arrays indexed by HeroType ordinal)
+    private static final StatusEffect[][] TEMPLATES = new StatusEffect[HeroType.values().length][];
+    private static final int[][] TEMPLATE_SOURCES = new int[HeroType.values().length][];
+    static {
+        for (HeroType type : HeroType.values()) {
+            List<Skill> catalog = type.getSkills();
+            int count = 0;
+            for (Skill skill : catalog) count += skill.effectCount();
+            StatusEffect[] templates = new StatusEffect[count];
+            int[] sources = new int[count];
+            int k = 0;
+            for (int s = 0; s < catalog.size(); s++) {
+                Skill skill = catalog.get(s);
+                for (int e = 0; e < skill.effectCount(); e++) {
+                    templates[k] = skill.effect(e);
+                    sources[k++] = s << 5 | e;
+                }
+            }
+            TEMPLATES[type.ordinal()] = templates;
+            TEMPLATE_SOURCES[type.ordinal()] = sources;
+        }
+    }
+
+    // Encoded words (Data structure: Array; grows only if more effects are active than ever before)
+    private long[] words = new long[HEADER + (INITIAL_EFFECTS + 3) / 4 + INITIAL_EFFECTS];
+    private int length;
+
+    public PackedBattle() {
+    }
+
+    /** Packs the current state of a fight. */
+    public static PackedBattle of(Hero hero, Monster enemy) {
+        PackedBattle p = new PackedBattle();
+        p.encode(hero, enemy);
+        return p;
+    }
+
+    /**
+     * --- Encode ---
+     * Overwrites this state with the hero's and monster's current battle
+     * state. Allocation-free once the array is large enough.
+     */
+    public void encode(Hero hero, Monster enemy) {
+        int skills = hero.getSkillCount();
+        if (skills > MAX_SKILLS) throw new IllegalArgumentException("More than " + MAX_SKILLS + " skills");
+        EffectStore heroFx = hero.effects, enemyFx = enemy.effects;
+        int heroN = heroFx.size(), enemyN = enemyFx.size(), n = heroN + enemyN;
+        if (heroN > 0xFFFF || enemyN > 0xFFFF) throw new IllegalArgumentException("Too many active effects");
+        int tagWords = (n + 3) >>> 2;
+        ensureCapacity(HEADER + tagWords + n);
+        length = HEADER + tagWords + n;
+
+        words[0] = (long) hero.hp << 32 | (hero.mana & 0xFFFFFFFFL);
+        words[1] = (long) enemy.hp << 32 | (long) heroN << 16 | enemyN;
+        long cooldowns = 0;
+        for (int i = 0; i < skills; i++) {
+            int cd = hero.getSkillCooldown(i);
+            if (cd < 0 || cd > MAX_COOLDOWN) throw new IllegalArgumentException("Cooldown out of range: " + cd);
+            cooldowns |= (long) cd << (i << 3);
+        }
+        words[2] = cooldowns;
+        Arrays.fill(words, HEADER, HEADER + tagWords, 0L);
+        int typeIdx = hero.type.ordinal();
+        for (int i = 0; i < n; i++) {
+            EffectStore fx = i < heroN ? heroFx : enemyFx;
+            int slot = i < heroN ? i : i - heroN;
+            words[HEADER + (i >>> 2)] |= (long) tag(fx.type(slot), fx.source(slot), typeIdx) << ((i & 3) << 4);
+            words[HEADER + tagWords + i] = (long) fx.duration(slot) << 32 | (fx.magnitude(slot) & 0xFFFFFFFFL);
+        }
+    }
+
+    /**
+     * --- Decode ---
+     * Restores the packed state into a hero of the same type and a monster
+     * (stats and other fixed data are left as they are).
+     */
+    public void decode(Hero hero, Monster enemy) {
+        hero.hp = (int) (words[0] >> 32);
+        hero.mana = (int) words[0];
+        enemy.hp = (int) (words[1] >> 32);
+        int heroN = (int) (words[1] >>> 16) & 0xFFFF, enemyN = (int) words[1] & 0xFFFF;
+        int n = heroN + enemyN, tagWords = (n + 3) >>> 2;
+        long cooldowns = words[2];
+        for (int i = 0; i < hero.getSkillCount(); i++) {
+            hero.setSkillCooldown(i, (int) (cooldowns >>> (i << 3)) & MAX_COOLDOWN);
+        }
+        List<Skill> catalog = hero.type.getSkills();
+        hero.effects.clear();
+        enemy.effects.clear();
+        for (int i = 0; i < n; i++) {
+            int tag = (int) (words[HEADER + (i >>> 2)] >>> ((i & 3) << 4)) & 0xFFFF;
+            long value = words[HEADER + tagWords + i];
+            int skill = (tag >>> 5) & 0x1F, effect = tag & 0x1F;
+            StatusEffect source = skill == NO_SOURCE ? null : catalog.get(skill).effect(effect);
+            (i < heroN ? hero.effects : enemy.effects)
+                    .add(EFFECT_TYPES[tag >>> 10], (int) (value >> 32), (int) value, source);
+        }
+    }
+
+    // type (6 bits) | catalog skill (5) | effect within the skill (5)
+    private static int tag(EffectType type, StatusEffect source, int heroType) {
+        int src = NO_SOURCE << 5;
+        if (source != null) {
+            StatusEffect[] templates = TEMPLATES[heroType];
+            for (int k = 0; k < templates.length; k++) {
+                if (templates[k] == source) {
+                    src = TEMPLATE_SOURCES[heroType][k];
+                    break;
+                }
+            }
+        }
+        return type.ordinal() << 10 | src;
+    }
+
+    // --- Copy, Equality, Hashing ---
+
+    /** Makes this state equal to another (no allocation if it fits). */
+    public void copyFrom(PackedBattle other) {
+        ensureCapacity(other.length);
+        System.arraycopy(other.words, 0, words, 0, other.length);
+        length = other.length;
+    }
+
+    public PackedBattle copy() {
+        PackedBattle p = new PackedBattle();
+        p.copyFrom(this);
+        return p;
+    }
+
+    /**
+     * --- 64-bit Hash ---
+     * SplitMix64-style mix over the words; suitable as a transposition key.
+     */
+    public long hash64() {
+        long h = length;
+        for (int i = 0; i < length; i++) h = mix(h ^ words[i]);
+        return h;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = hash64();
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PackedBattle)) return false;
+        PackedBattle other = (PackedBattle) o;
+        return Arrays.equals(words, 0, length, other.words, 0, other.length);
+    }
+
+    // --- Field Access (read-only views of the packed words) ---
+    public int heroHp() { return (int) (words[0] >> 32); }
+    public int heroMana() { return (int) words[0]; }
+    public int enemyHp() { return (int) (words[1] >> 32); }
+    public int heroEffectCount() { return (int) (words[1] >>> 16) & 0xFFFF; }
+    public int enemyEffectCount() { return (int) words[1] & 0xFFFF; }
+    public int cooldown(int skill) { return (int) (words[2] >>> (skill << 3)) & MAX_COOLDOWN; }
+    public int length() { return length; }
+    public long word(int i) { return words[i]; }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (words.length < needed) words = Arrays.copyOf(words, Math.max(needed, words.length * 2));
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: PackedBattle
+--------------------------------------------------------------------------------
+Primitive snapshot of a battle in progress: HP, mana, cooldowns and both effect
+lists in a variable-length long[] (header, 16-bit effect tags, 64-bit effect
+values). Encodes from / decodes into Hero + Monster, and copies, compares and
+hashes without allocation. Used by BattleSolver for search snapshots and
+transposition keys.
+--------------------------------------------------------------------------------
+*/
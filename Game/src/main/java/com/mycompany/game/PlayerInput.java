@@ -0,0 +1,70 @@
+package com.mycompany.game;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+/**
+ * Line-based player input for menus and prompts.
+ * Reading a line is the end of a turn or menu, so nextLine() first flushes
+ * the thread's RenderSink: buffered output reaches the player in one write,
+ * right before the game waits for their answer.
+ */
+public class PlayerInput {
+    // Shared console input (one Scanner over System.in for the whole game)
+    private static final PlayerInput CONSOLE = new PlayerInput(System.in);
+    // Input bound to the current thread (Data structure: ThreadLocal)
+    private static final ThreadLocal<PlayerInput> CURRENT = ThreadLocal.withInitial(() -> CONSOLE);
+
+    private final Scanner scanner;
+
+    public PlayerInput(InputStream in) {
+        this.scanner = new Scanner(in, StandardCharsets.UTF_8);
+    }
+
+    /** For inputs that supply their own lines (recorders, scripted replays). */
+    protected PlayerInput() {
+        this.scanner = null;
+    }
+
+    /** Returns the input bound to the calling thread (System.in by default). */
+    public static PlayerInput current() {
+        return CURRENT.get();
+    }
+
+    /** Binds an input to the calling thread and returns the previously bound one. */
+    public static PlayerInput bind(PlayerInput input) {
+        PlayerInput previous = CURRENT.get();
+        CURRENT.set(input);
+        return previous;
+    }
+
+    /**
+     * --- Read Line ---
+     * Flushes pending output, then blocks for the next line of input.
+     * Answering while paced narration is still playing skips the rest of it.
+     * Throws NoSuchElementException when the input is closed (like Scanner).
+     */
+    public String nextLine() {
+        RenderSink out = RenderSink.current();
+        out.flush();
+        String line = readLine();
+        out.fastForward();
+        return line;
+    }
+
+    /** Source of the next raw line; subclasses override to record or script input. */
+    protected String readLine() {
+        return scanner.nextLine();
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: PlayerInput
+--------------------------------------------------------------------------------
+Wraps the Scanner used for all menu input. Every read marks a turn/menu
+boundary and flushes the bound RenderSink first. One shared console instance
+replaces the separate Scanners previously created over System.in.
+--------------------------------------------------------------------------------
+*/
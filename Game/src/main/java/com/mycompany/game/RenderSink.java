@@ -0,0 +1,139 @@
+package com.mycompany.game;
+
+import java.io.PrintStream;
+
+/**
+ * Destination for all game text (combat lines, menus, narration).
+ * Each thread writes to its own bound sink, so the console game, headless
+ * simulations and other runners can share the same rules code.
+ */
+public abstract class RenderSink {
+
+    // --- Built-in Sinks ---
+    /** Writes straight to System.out (the classic console game). */
+    public static final RenderSink CONSOLE = new PrintStreamSink(System.out);
+    /** Discards everything; used for headless battles and simulations. */
+    public static final RenderSink NULL = new NullSink();
+
+    // Sink bound to the current thread (Data structure: ThreadLocal)
+    private static final ThreadLocal<RenderSink> CURRENT = ThreadLocal.withInitial(() -> CONSOLE);
+
+    /**
+     * --- Current Sink ---
+     * Returns the sink bound to the calling thread (console by default).
+     */
+    public static RenderSink current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * --- Bind Sink ---
+     * Binds a sink to the calling thread and returns the previously bound one,
+     * so callers can restore it when they are done.
+     */
+    public static RenderSink bind(RenderSink sink) {
+        RenderSink previous = CURRENT.get();
+        CURRENT.set(sink);
+        return previous;
+    }
+
+    public abstract void print(String text);
+
+    public abstract void println(String text);
+
+    public void println() {
+        println("");
+    }
+
+    public void printf(String format, Object... args) {
+        if (isEnabled()) print(String.format(format, args));
+    }
+
+    /** Pushes any buffered text to the underlying destination. */
+    public void flush() {
+    }
+
+    /**
+     * Returns false when the sink drops everything, so hot paths can skip
+     * building strings nobody will read.
+     */
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * --- Dramatic Beat ---
+     * Marks a narrative pause: text written after the beat is delivered a
+     * moment after the text before it. Plain sinks have no pacing, so the
+     * default does nothing (zero delay for automated runs).
+     */
+    public void beat() {
+    }
+
+    /** Delivers any text still waiting on a beat immediately (player skipped ahead). */
+    public void fastForward() {
+    }
+
+    /** Waits until all paced text has been delivered, then flushes. */
+    public void drain() {
+        flush();
+    }
+
+    // --- Console Sink ---
+    private static final class PrintStreamSink extends RenderSink {
+        private final PrintStream stream;
+
+        PrintStreamSink(PrintStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public void print(String text) {
+            stream.print(text);
+        }
+
+        @Override
+        public void println(String text) {
+            stream.println(text);
+        }
+
+        @Override
+        public void flush() {
+            stream.flush();
+        }
+    }
+
+    // --- Null Sink ---
+    private static final class NullSink extends RenderSink {
+        @Override
+        public void print(String text) {
+        }
+
+        @Override
+        public void println(String text) {
+        }
+
+        @Override
+        public void println() {
+        }
+
+        @Override
+        public void printf(String format, Object... args) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: RenderSink
+--------------------------------------------------------------------------------
+Output abstraction for the game. Entities and the battle engine write through
+the sink bound to their thread (ThreadLocal) instead of System.out, so the same
+rules run interactively (CONSOLE) or silently for headless fights (NULL).
+--------------------------------------------------------------------------------
+*/
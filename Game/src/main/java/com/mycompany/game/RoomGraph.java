@@ -0,0 +1,171 @@
+package com.mycompany.game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, int-indexed room layout for one domain.
+ * Rooms are numbered 0..size-1 (0 is the entrance). The layout is a tree:
+ * a long main passage with dead-end side branches, so moving back is just
+ * parent[room] (O(1), no stack) and the explored path is the parent chain.
+ * Forward exits are stored in flat CSR arrays and every room label is built
+ * once, so walking the dungeon allocates nothing.
+ * Layouts are generated from a seed and cached, so every session exploring
+ * the same domain shares one instance. The main passage has no end: a
+ * player reaching its last room asks for extended(), a longer layout from
+ * the same seed in which every existing room keeps its id.
+ */
+public final class RoomGraph {
+    // Rooms along the main passage (after the entrance) when a layout is first generated
+    public static final int INITIAL_MAIN_LENGTH = 24;
+    private static final double BRANCH_CHANCE = 0.35;
+    private static final int MAX_BRANCH_LENGTH = 3;
+
+    // Layout cache by seed (Data structure: ConcurrentHashMap)
+    private static final ConcurrentHashMap<Long, RoomGraph> CACHE = new ConcurrentHashMap<>();
+
+    // --- Room Arrays (index = room id) ---
+    private final int[] parent;     // room you return to when moving back (-1 for the entrance)
+    private final int[] depth;      // rooms walked from the entrance
+    private final int[] exitStart;  // forward exits of room r: exits[exitStart[r] .. exitStart[r + 1])
+    private final int[] exits;
+    private final String[] labels;  // "Room 3", "Room 3b" ... (built once)
+    private final int maxDepth;
+    private final long seed;
+    private final int mainLength;
+    private final int passageEnd;   // last room of the main passage
+
+    private RoomGraph(long seed, int mainLength, int passageEnd,
+                      int[] parent, int[] depth, int[] exitStart, int[] exits, String[] labels) {
+        this.seed = seed;
+        this.mainLength = mainLength;
+        this.passageEnd = passageEnd;
+        this.parent = parent;
+        this.depth = depth;
+        this.exitStart = exitStart;
+        this.exits = exits;
+        this.labels = labels;
+        this.maxDepth = Arrays.stream(depth).max().orElse(0);
+    }
+
+    /**
+     * --- Domain Layout ---
+     * Returns the cached layout for a domain, generating it on first use.
+     * The seed is derived from the domain name, so the layout is stable
+     * across sessions and restarts.
+     */
+    public static RoomGraph forDomain(String domainName) {
+        return forSeed(0x5EED_D0E5L ^ ((long) domainName.hashCode() << 17));
+    }
+
+    /** Returns the cached layout generated from the given seed. */
+    public static RoomGraph forSeed(long seed) {
+        return CACHE.computeIfAbsent(seed, s -> generate(s, INITIAL_MAIN_LENGTH));
+    }
+
+    /**
+     * --- Extend Main Passage ---
+     * Returns a layout from the same seed whose main passage is at least
+     * twice as long (the cached one if another session already grew it).
+     * Generation draws from the seed in room order and numbers rooms in
+     * that order, so every room of this layout keeps its id, parent and
+     * depth; only the last passage room may gain a side branch.
+     */
+    public RoomGraph extended() {
+        return CACHE.compute(seed, (s, cached) -> cached != null && cached.mainLength > mainLength
+                ? cached : generate(s, mainLength * 2));
+    }
+
+    /**
+     * --- Layout Generation ---
+     * Main passage of mainLength rooms; each passage room but the last may
+     * open a side branch of 1..MAX_BRANCH_LENGTH rooms that ends in a dead end.
+     */
+    private static RoomGraph generate(long seed, int mainLength) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        int capacity = 1 + mainLength * (1 + MAX_BRANCH_LENGTH);
+        int[] parent = new int[capacity];
+        int[] depth = new int[capacity];
+        int[] branchOf = new int[capacity]; // 1 = room on a side branch
+        int size = 1;
+        parent[0] = -1;
+        int prev = 0;
+        for (int d = 1; d <= mainLength; d++) {
+            int room = size++;
+            parent[room] = prev;
+            depth[room] = d;
+            if (d < mainLength && rng.nextDouble() < BRANCH_CHANCE) {
+                int len = 1 + rng.nextInt(MAX_BRANCH_LENGTH);
+                int at = prev;
+                for (int i = 0; i < len; i++) {
+                    int side = size++;
+                    parent[side] = at;
+                    depth[side] = d + i;
+                    branchOf[side] = 1;
+                    at = side;
+                }
+            }
+            prev = room;
+        }
+        parent = Arrays.copyOf(parent, size);
+        depth = Arrays.copyOf(depth, size);
+
+        // Forward exits in CSR form (children grouped by parent, in id order)
+        int[] exitStart = new int[size + 1];
+        for (int r = 1; r < size; r++) exitStart[parent[r] + 1]++;
+        for (int r = 0; r < size; r++) exitStart[r + 1] += exitStart[r];
+        int[] exits = new int[size - 1];
+        int[] fill = Arrays.copyOf(exitStart, size);
+        for (int r = 1; r < size; r++) exits[fill[parent[r]]++] = r;
+
+        String[] labels = new String[size];
+        labels[0] = "Entrance";
+        for (int r = 1; r < size; r++) {
+            labels[r] = "Room " + depth[r] + (branchOf[r] != 0 ? "b" : "");
+        }
+        return new RoomGraph(seed, mainLength, prev, parent, depth, exitStart, exits, labels);
+    }
+
+    // --- Queries (all O(1)) ---
+    public int size() { return parent.length; }
+    public int parent(int room) { return parent[room]; }
+    public int depth(int room) { return depth[room]; }
+    public int exitCount(int room) { return exitStart[room + 1] - exitStart[room]; }
+    /** The i-th forward exit of a room (0 = main passage when there is a branch). */
+    public int exit(int room, int i) { return exits[exitStart[room] + i]; }
+    public String label(int room) { return labels[room]; }
+    /** True for the last room of the main passage (see extended()). */
+    public boolean isPassageEnd(int room) { return room == passageEnd; }
+
+    /**
+     * --- Path Rendering ---
+     * Prints entrance-to-room path (excluding the entrance), marking the
+     * current room. Walks the parent chain once into a reused int buffer.
+     */
+    public void printPath(RenderSink out, int room, int[] scratch) {
+        int n = depth[room];
+        for (int r = room, i = n - 1; i >= 0; r = parent[r], i--) scratch[i] = r;
+        for (int i = 0; i < n; i++) {
+            out.println("  " + labels[scratch[i]] + (i == n - 1 ? " <== (Current Room)" : ""));
+        }
+    }
+
+    /** Deepest room depth, i.e. the scratch size printPath needs for this layout. */
+    public int maxDepth() {
+        return maxDepth;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: RoomGraph
+--------------------------------------------------------------------------------
+Compact dungeon layout replacing the LinkedList<String> history and Stack<String>
+backtracking in Dungeon. Int room ids with parent/depth arrays (O(1) back
+moves), CSR forward exits (branching passages), labels built once per layout,
+and a per-seed cache so all sessions share one immutable layout per domain.
+The main passage is unbounded: reaching its end swaps in a layout twice as
+long, regenerated from the same seed with the same room ids.
+--------------------------------------------------------------------------------
+*/
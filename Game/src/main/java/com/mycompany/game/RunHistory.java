@@ -0,0 +1,444 @@
+package com.mycompany.game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Append-only store of finished runs (the end-of-game journey summary) with
+ * the leaderboard indexes kept in a fixed header, all in one memory-mapped
+ * file. Appends write one fixed-size record and update the header; queries
+ * read the header and follow record links, so they never scan the history.
+ * The committed count is the commit point: the indexes are derived from the
+ * committed records afterwards, and rebuilt from them if an append died
+ * in between.
+ *
+ * Layout (big-endian):
+ *   header (HEADER_BYTES)
+ *     int magic 'DGRH' | short version | short record size
+ *     long  committed record count (the commit point of an append)
+ *     int   [MAX_DOMAINS] newest record per domains-cleared count (-1 = none)
+ *     long  [MAX_TYPES] runs, then long [MAX_TYPES] wins, by final HeroType ordinal
+ *     int   kept fastest clears, then FASTEST_KEPT x (long play ms, int record), fastest first
+ *     long  records folded into the indexes above (less than the committed count only after a crash)
+ *   records (RECORD_BYTES each, record i at HEADER_BYTES + i * RECORD_BYTES)
+ *     long seed | long finished (epoch ms) | long play ms
+ *     int  previous record with the same domains-cleared count (-1 = none; index data)
+ *     int  final level | short cleared sin domains (bit i = Game.DUNGEON_KEYS.get(i))
+ *     byte domains cleared | byte flags (1 = won) | byte final HeroType (-1 = none)
+ *     byte mask count, MAX_MASKS HeroType ordinals (in order worn)
+ *     byte name length, byte reserved, NAME_BYTES of UTF-8 name (truncated)
+ * The file is mapped with spare record capacity and remapped (doubled) as it
+ * fills, or when another process sharing it has grown it; one file holds
+ * about 22 million runs.
+ */
+public final class RunHistory implements AutoCloseable {
+    public static final int MAGIC = 0x44475248; // "DGRH"
+    public static final short VERSION = 1;
+    public static final int MAX_DOMAINS = 16;
+    public static final int MAX_TYPES = 8;
+    public static final int MAX_MASKS = 8;
+    public static final int NAME_BYTES = 48;
+    public static final int FASTEST_KEPT = 64;
+    public static final int HEADER_BYTES = 1024;
+    public static final int RECORD_BYTES = 96;
+    // Shared history next to the saves (relative to the working directory)
+    public static final Path DEFAULT_FILE = SaveFile.SAVE_DIR.resolve("history.runs");
+
+    private static final int COUNT = 8, HEADS = 16, RUNS = HEADS + 4 * MAX_DOMAINS, WINS = RUNS + 8 * MAX_TYPES;
+    private static final int FASTEST = WINS + 8 * MAX_TYPES, FASTEST_ENTRY = 12;
+    private static final int INDEXED = FASTEST + 4 + FASTEST_KEPT * FASTEST_ENTRY + 4; // 8-byte aligned
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long MAX_RECORDS = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+    private static final byte WON = 1;
+    private static final HeroType[] TYPES = HeroType.values();
+
+    private static RunHistory shared;
+
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer map; // header + `capacity` record slots
+    private long capacity;
+
+    /**
+     * --- Run ---
+     * One journey summary as stored (id is the record index, -1 before append).
+     */
+    public static final class Run {
+        public final long id;
+        public final String name;
+        public final long seed;
+        public final long finishedAt;      // epoch ms
+        public final long playMillis;      // play time over every sitting of the run
+        public final int domainsCleared;   // sins cleared, plus Mirror and Death for a won run
+        public final short clearedBits;    // sins cleared (bit i = Game.DUNGEON_KEYS.get(i))
+        public final boolean won;          // reached an ending after the Mirror and Death
+        public final HeroType finalType;   // null if no hero was ever chosen
+        public final int finalLevel;
+        public final List<HeroType> masks; // in the order they were worn
+
+        public Run(long id, String name, long seed, long finishedAt, long playMillis, int domainsCleared,
+                   short clearedBits, boolean won, HeroType finalType, int finalLevel, List<HeroType> masks) {
+            this.id = id;
+            this.name = name;
+            this.seed = seed;
+            this.finishedAt = finishedAt;
+            this.playMillis = playMillis;
+            this.domainsCleared = domainsCleared;
+            this.clearedBits = clearedBits;
+            this.won = won;
+            this.finalType = finalType;
+            this.finalLevel = finalLevel;
+            this.masks = masks;
+        }
+    }
+
+    private RunHistory(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * --- Shared History ---
+     * The JVM-wide history at DEFAULT_FILE, opened on first use; every
+     * session of a console game or server appends to it.
+     */
+    public static synchronized RunHistory shared() throws IOException {
+        if (shared == null) shared = open(DEFAULT_FILE);
+        return shared;
+    }
+
+    /**
+     * --- Open History ---
+     * Opens (or creates) a history file and maps it. Under the file lock, so
+     * a new file is initialised once, and indexes left behind by an append
+     * that died after its commit point are rebuilt.
+     */
+    public static RunHistory open(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        RunHistory history = new RunHistory(file, ch);
+        try {
+            FileLock lock = ch.lock();
+            try {
+                boolean fresh = ch.size() == 0;
+                history.remap(fresh ? INITIAL_CAPACITY : Math.max(INITIAL_CAPACITY, (ch.size() - HEADER_BYTES) / RECORD_BYTES));
+                if (fresh) {
+                    history.initHeader();
+                } else if (history.map.getInt(0) != MAGIC) {
+                    throw new IOException("Not a Death's Game run history: " + file);
+                } else if (history.map.getShort(4) != VERSION || history.map.getShort(6) != RECORD_BYTES) {
+                    throw new IOException("Unsupported run history version " + history.map.getShort(4) + ": " + file);
+                }
+                history.reindexIfBehind();
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+        return history;
+    }
+
+    private void initHeader() {
+        map.putInt(0, MAGIC).putShort(4, VERSION).putShort(6, (short) RECORD_BYTES);
+        map.putLong(COUNT, 0);
+        map.putLong(INDEXED, 0);
+        for (int d = 0; d < MAX_DOMAINS; d++) map.putInt(HEADS + 4 * d, -1);
+        map.force();
+    }
+
+    // Maps the header plus `records` slots (the file grows to match)
+    private void remap(long records) throws IOException {
+        if (records > MAX_RECORDS) throw new IOException("Run history full: " + file);
+        capacity = records;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + records * RECORD_BYTES);
+    }
+
+    /** Number of runs recorded. */
+    public synchronized long size() {
+        return map.getLong(COUNT);
+    }
+
+    // --- Append ---
+
+    /**
+     * --- Append Run ---
+     * Writes and flushes the run's record, then bumps the committed count
+     * (the commit point), then folds the record into the indexes: its
+     * domains-cleared chain, the per-type counters and the fastest-clear
+     * table, and flushes again. Holds a file lock so separate
+     * processes sharing the file append one at a time; another process may
+     * have appended since, so the mapping is first grown to cover the next
+     * record. Returns the record id.
+     */
+    public synchronized long append(Run run) throws IOException {
+        FileLock lock = channel.lock();
+        try {
+            long id = map.getLong(COUNT);
+            reindexIfBehind();
+            cover(id + 1);
+            int domains = Math.max(0, Math.min(MAX_DOMAINS - 1, run.domainsCleared));
+            int at = offset(id);
+            map.putLong(at, run.seed);
+            map.putLong(at + 8, run.finishedAt);
+            map.putLong(at + 16, run.playMillis);
+            map.putInt(at + 24, -1); // linked by index()
+            map.putInt(at + 28, run.finalLevel);
+            map.putShort(at + 32, run.clearedBits);
+            map.put(at + 34, (byte) domains);
+            map.put(at + 35, run.won ? WON : 0);
+            map.put(at + 36, (byte) (run.finalType != null ? run.finalType.ordinal() : -1));
+            int masks = Math.min(MAX_MASKS, run.masks.size());
+            map.put(at + 37, (byte) masks);
+            for (int i = 0; i < MAX_MASKS; i++) map.put(at + 38 + i, (byte) (i < masks ? run.masks.get(i).ordinal() : -1));
+            byte[] name = truncatedUtf8(run.name);
+            map.put(at + 46, (byte) name.length);
+            map.put(at + 47, (byte) 0);
+            map.put(at + 48, name);
+            for (int i = name.length; i < NAME_BYTES; i++) map.put(at + 48 + i, (byte) 0);
+            map.force();
+
+            map.putLong(COUNT, id + 1);
+            index(id);
+            map.putLong(INDEXED, id + 1);
+            map.force();
+            return id;
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * --- Cover Records ---
+     * Remaps so at least `records` slots are mapped. The file may already be
+     * longer than this process's mapping (grown by another process), so the
+     * new mapping is at least the file's size, doubled until it fits.
+     */
+    private void cover(long records) throws IOException {
+        if (records <= capacity) return;
+        long grown = Math.max(capacity, (channel.size() - HEADER_BYTES) / RECORD_BYTES);
+        while (grown < records) grown *= 2;
+        remap(Math.min(MAX_RECORDS, grown));
+        if (records > capacity) throw new IOException("Run history full: " + file);
+    }
+
+    // Folds committed record id into the header indexes (records must be folded in id order)
+    private void index(long id) {
+        int at = offset(id);
+        int domains = map.get(at + 34);
+        map.putInt(at + 24, map.getInt(HEADS + 4 * domains));
+        map.putInt(HEADS + 4 * domains, (int) id);
+        int type = map.get(at + 36);
+        boolean won = (map.get(at + 35) & WON) != 0;
+        if (type >= 0) {
+            map.putLong(RUNS + 8 * type, map.getLong(RUNS + 8 * type) + 1);
+            if (won) map.putLong(WINS + 8 * type, map.getLong(WINS + 8 * type) + 1);
+        }
+        if (won) insertFastest(map.getLong(at + 16), (int) id);
+    }
+
+    /**
+     * --- Rebuild Indexes ---
+     * If the indexes do not cover exactly the committed records (an append
+     * died after its commit point, possibly half-way through index()), clears
+     * them and folds every committed record in again. Called under the file
+     * lock. Files written before the indexed count existed are rebuilt once.
+     */
+    private void reindexIfBehind() throws IOException {
+        long count = map.getLong(COUNT);
+        if (map.getLong(INDEXED) == count) return;
+        cover(count);
+        for (int d = 0; d < MAX_DOMAINS; d++) map.putInt(HEADS + 4 * d, -1);
+        for (int t = 0; t < MAX_TYPES; t++) {
+            map.putLong(RUNS + 8 * t, 0);
+            map.putLong(WINS + 8 * t, 0);
+        }
+        map.putInt(FASTEST, 0);
+        for (long id = 0; id < count; id++) index(id);
+        map.putLong(INDEXED, count);
+        map.force();
+    }
+
+    // Keeps the FASTEST_KEPT quickest wins sorted by play time (insertion into the header table)
+    private void insertFastest(long millis, int id) {
+        int kept = map.getInt(FASTEST);
+        int pos = kept;
+        while (pos > 0 && map.getLong(fastestAt(pos - 1)) > millis) pos--;
+        if (pos == FASTEST_KEPT) return;
+        for (int i = Math.min(kept, FASTEST_KEPT - 1); i > pos; i--) {
+            map.putLong(fastestAt(i), map.getLong(fastestAt(i - 1)));
+            map.putInt(fastestAt(i) + 8, map.getInt(fastestAt(i - 1) + 8));
+        }
+        map.putLong(fastestAt(pos), millis);
+        map.putInt(fastestAt(pos) + 8, id);
+        if (kept < FASTEST_KEPT) map.putInt(FASTEST, kept + 1);
+    }
+
+    private static int fastestAt(int i) {
+        return FASTEST + 4 + i * FASTEST_ENTRY;
+    }
+
+    private static int offset(long id) {
+        return (int) (HEADER_BYTES + id * RECORD_BYTES);
+    }
+
+    // UTF-8 bytes of a name, cut to NAME_BYTES on a character boundary
+    private static byte[] truncatedUtf8(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= NAME_BYTES) return bytes;
+        int len = NAME_BYTES;
+        while (len > 0 && (bytes[len] & 0xC0) == 0x80) len--;
+        byte[] cut = new byte[len];
+        System.arraycopy(bytes, 0, cut, 0, len);
+        return cut;
+    }
+
+    // --- Queries ---
+
+    /** Reads one record (possibly appended by another process since this one mapped the file). */
+    public synchronized Run get(long id) {
+        if (id < 0 || id >= map.getLong(COUNT)) throw new IndexOutOfBoundsException("No run " + id);
+        try {
+            cover(id + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int at = offset(id);
+        int masks = map.get(at + 37);
+        List<HeroType> worn = new ArrayList<>(masks);
+        for (int i = 0; i < masks; i++) worn.add(TYPES[map.get(at + 38 + i)]);
+        byte[] name = new byte[map.get(at + 46)];
+        map.get(at + 48, name);
+        int type = map.get(at + 36);
+        return new Run(id, new String(name, StandardCharsets.UTF_8), map.getLong(at), map.getLong(at + 8),
+                map.getLong(at + 16), map.get(at + 34), map.getShort(at + 32), (map.get(at + 35) & WON) != 0,
+                type >= 0 ? TYPES[type] : null, map.getInt(at + 28), worn);
+    }
+
+    /**
+     * --- Top Runs by Domains Cleared ---
+     * Walks the per-count chains from the highest count down (newest first
+     * within a count), reading only the n records returned.
+     */
+    public synchronized List<Run> topByDomains(int n) {
+        List<Run> top = new ArrayList<>(Math.min(n, 64));
+        for (int d = MAX_DOMAINS - 1; d >= 0 && top.size() < n; d--) {
+            for (int id = map.getInt(HEADS + 4 * d); id >= 0 && top.size() < n; id = map.getInt(offset(id) + 24)) {
+                top.add(get(id));
+            }
+        }
+        return top;
+    }
+
+    /** The n quickest won runs by play time (n is capped at FASTEST_KEPT). */
+    public synchronized List<Run> fastestClears(int n) {
+        int kept = Math.min(n, map.getInt(FASTEST));
+        List<Run> fastest = new ArrayList<>(kept);
+        for (int i = 0; i < kept; i++) fastest.add(get(map.getInt(fastestAt(i) + 8)));
+        return fastest;
+    }
+
+    /** Finished runs whose last mask was this type. */
+    public synchronized long runs(HeroType type) {
+        return map.getLong(RUNS + 8 * type.ordinal());
+    }
+
+    /** Won runs whose last mask was this type. */
+    public synchronized long wins(HeroType type) {
+        return map.getLong(WINS + 8 * type.ordinal());
+    }
+
+    /** Share of this type's runs that were won (0 with no runs). */
+    public double winRate(HeroType type) {
+        long runs = runs(type);
+        return runs == 0 ? 0.0 : (double) wins(type) / runs;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+
+    // --- Leaderboard Report ---
+
+    /**
+     * --- Print Leaderboard ---
+     * Writes the top runs by domains cleared, the fastest clears and the win
+     * rate of each HeroType to the current RenderSink.
+     */
+    public void printLeaderboard(int n) {
+        RenderSink out = RenderSink.current();
+        Game.printTitle("LEADERBOARD (" + size() + " runs)");
+        out.println("Most domains cleared:");
+        int rank = 1;
+        for (Run r : topByDomains(n)) {
+            out.println(String.format(Locale.ROOT, "%3d. %-20s %d domain(s)%s  %s Lv.%d",
+                    rank++, r.name, r.domainsCleared, r.won ? " [won]" : "",
+                    r.finalType != null ? r.finalType.name : "-", r.finalLevel));
+        }
+        out.println("Fastest full clears:");
+        rank = 1;
+        for (Run r : fastestClears(n)) {
+            long s = r.playMillis / 1000;
+            out.println(String.format(Locale.ROOT, "%3d. %-20s %d:%02d:%02d  %s, %d mask(s)",
+                    rank++, r.name, s / 3600, s / 60 % 60, s % 60,
+                    r.finalType != null ? r.finalType.name : "-", r.masks.size()));
+        }
+        out.println("Win rate by final mask:");
+        for (HeroType t : TYPES) {
+            out.println(String.format(Locale.ROOT, "  %-8s %5.1f%% (%d/%d)", t.name, winRate(t) * 100, wins(t), runs(t)));
+        }
+    }
+
+    /**
+     * --- Command Line Entry ---
+     * Usage: Game --leaderboard [--top N] [--file path]
+     */
+    public static void main(String[] args) throws IOException {
+        int top = 10;
+        Path path = DEFAULT_FILE;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--top": top = Integer.parseInt(args[++i]); break;
+                case "--file": path = Path.of(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        RenderSink out = new BufferedRenderSink(System.out);
+        RenderSink previous = RenderSink.bind(out);
+        try (RunHistory history = open(path)) {
+            history.printLeaderboard(top);
+        } finally {
+            out.drain();
+            RenderSink.bind(previous);
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: RunHistory
+--------------------------------------------------------------------------------
+Persistent leaderboard. GameSession.endGame appends each finished journey to a
+memory-mapped, append-only file of fixed records. Secondary indexes live in the
+header: per domains-cleared chain heads (records link to the previous record
+with the same count), per-HeroType run/win counters and a sorted table of the
+fastest wins, so top-N, fastest-clear and win-rate queries touch only the
+records they return. The indexes are derived from committed records after the
+commit point and rebuilt on open if a crash left them behind.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,114 @@
+package com.mycompany.game;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Headless replayer for InputRecordings.
+ * Re-runs the recorded session with the same seed and inputs under
+ * RenderSink.NULL (no console output, no dialogue beats, no saves), so a
+ * full playthrough replays in milliseconds, then compares the final state
+ * against the recorded fingerprint and reports every field that diverged.
+ *
+ * Usage: Game --replay <recording>... (exit code 1 if any replay diverged)
+ */
+public final class RunReplayer {
+
+    private RunReplayer() {
+    }
+
+    /** Outcome of one replay. */
+    public static final class Report {
+        public final boolean diverged;
+        public final List<String> differences;
+        public final int linesConsumed, linesRecorded;
+        public final long nanos;
+
+        Report(List<String> differences, int linesConsumed, int linesRecorded, long nanos) {
+            this.diverged = !differences.isEmpty();
+            this.differences = differences;
+            this.linesConsumed = linesConsumed;
+            this.linesRecorded = linesRecorded;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * --- Replay ---
+     * Runs the recording on the calling thread and returns the comparison.
+     */
+    public static Report replay(InputRecording rec) {
+        InputRecording.Script script = new InputRecording.Script(rec.lines);
+        GameSession session = new GameSession(script, RenderSink.NULL, rec.seed);
+        session.setSavesEnabled(false);
+        boolean eof = false;
+        long start = System.nanoTime();
+        try {
+            session.run();
+        } catch (NoSuchElementException e) {
+            eof = true;
+        }
+        long nanos = System.nanoTime() - start;
+
+        List<String> diffs = new ArrayList<>();
+        if (eof != rec.endedByEof) {
+            diffs.add(eof ? "run needed more input than was recorded (stopped after "
+                    + script.consumed() + " lines)" : "run ended before the recording did");
+        }
+        if (script.consumed() != rec.lines.size()) {
+            diffs.add("lines consumed: expected " + rec.lines.size() + ", got " + script.consumed());
+        }
+        Map<String, String> expected = fields(rec.finalState), actual = fields(session.stateSummary());
+        for (Map.Entry<String, String> e : expected.entrySet()) {
+            String got = actual.get(e.getKey());
+            if (!e.getValue().equals(got)) diffs.add(e.getKey() + ": expected " + e.getValue() + ", got " + got);
+        }
+        for (String key : actual.keySet()) {
+            if (!expected.containsKey(key)) diffs.add(key + ": not recorded, got " + actual.get(key));
+        }
+        return new Report(diffs, script.consumed(), rec.lines.size(), nanos);
+    }
+
+    // Splits a state summary into its key=value fields, in order
+    private static Map<String, String> fields(String summary) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String token : summary.trim().split(" +")) {
+            int eq = token.indexOf('=');
+            if (eq > 0) map.put(token.substring(0, eq), token.substring(eq + 1));
+        }
+        return map;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: Game --replay <recording>...");
+            System.exit(2);
+        }
+        int diverged = 0;
+        for (String arg : args) {
+            Path file = Paths.get(arg);
+            Report r = replay(InputRecording.read(file));
+            System.out.printf("%s: %s (%d/%d inputs, %.2f ms)%n", file, r.diverged ? "DIVERGED" : "OK",
+                    r.linesConsumed, r.linesRecorded, r.nanos / 1e6);
+            for (String d : r.differences) System.out.println("  - " + d);
+            if (r.diverged) diverged++;
+        }
+        if (diverged > 0) System.exit(1);
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: RunReplayer
+--------------------------------------------------------------------------------
+Max-speed, headless re-execution of recorded runs (seed + inputs): NULL sink,
+no pacing, no saves. Reports divergence of the final state field by field, so
+player bug reports and long runs become millisecond regression checks.
+--------------------------------------------------------------------------------
+*/
@@ -0,0 +1,386 @@
+package com.mycompany.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Compact, versioned binary save format for a GameSession.
+ * Fields are written by hand into a ByteBuffer (no reflection, no object
+ * graph), files are replaced atomically, and loads copy the file onto the heap.
+ *
+ * Layout (big-endian), version 2:
+ *   int    magic 'DGSV'
+ *   short  version
+ *   short  payload length (bytes after this field, excluding the CRC)
+ *   --- payload ---
+ *   string player name (u16 length + UTF-8)
+ *   byte   lives left
+ *   byte   used mask count, then one HeroType ordinal per mask (in order)
+ *   short  cleared dungeons, all lives (bit i = Game.DUNGEON_KEYS.get(i))
+ *   short  cleared dungeons, current life (same bits)
+ *   byte   1 if a hero follows, else 0
+ *   hero   type ordinal (byte), level, exp, hp, maxHp, mana, maxMana (ints),
+ *          stats (byte count + ints), cooldowns (byte count + ints),
+ *          effects (u16 count + per slot: type byte, duration int,
+ *          magnitude int, source skill byte, source effect byte; -1 = none)
+ *   long   play time of the run so far, ms (version 2; absent in version 1)
+ *   --- end payload ---
+ *   int    CRC32 of the payload
+ */
+public final class SaveFile {
+    public static final int MAGIC = 0x44475356; // "DGSV"
+    public static final short VERSION = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_NAME_BYTES = 1024;
+    // Directory holding one save per player name (relative to the working directory)
+    public static final Path SAVE_DIR = Paths.get("saves");
+    // Saves currently claimed by a session of this process (Data structure: concurrent Set)
+    private static final Set<Path> CLAIMED = ConcurrentHashMap.newKeySet();
+
+    private SaveFile() {
+    }
+
+    /**
+     * Save file used for a player name: a readable prefix (unsafe characters
+     * replaced) plus a hash of the whole case-folded name, so different names
+     * never share a save or journal.
+     */
+    public static Path pathFor(String playerName) {
+        String key = playerName.trim().toLowerCase(Locale.ROOT);
+        String safe = key.replaceAll("[^a-z0-9_-]", "_");
+        if (safe.length() > 40) safe = safe.substring(0, 40);
+        return SAVE_DIR.resolve(safe + "-" + nameHash(key) + ".sav");
+    }
+
+    /** Where saves were kept before names were hashed (many names could share one file). */
+    static Path legacyPathFor(String playerName) {
+        String safe = playerName.trim().toLowerCase().replaceAll("[^a-z0-9_-]", "_");
+        if (safe.length() > 40) safe = safe.substring(0, 40);
+        return SAVE_DIR.resolve(safe + ".sav");
+    }
+
+    /** True if two player names map to the same save (same trimmed, case-folded name). */
+    static boolean sameOwner(String a, String b) {
+        return a.trim().toLowerCase(Locale.ROOT).equals(b.trim().toLowerCase(Locale.ROOT));
+    }
+
+    // First 8 bytes of the SHA-256 of the name, in hex
+    private static String nameHash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e); // required on every Java platform
+        }
+    }
+
+    // --- Claims ---
+
+    /**
+     * --- Save Claim ---
+     * Exclusive hold on one save (and its journal) while a session has it
+     * open: a set entry for sessions of this process plus an OS file lock on
+     * "<save>.lock" for other processes. Closing it releases both. The lock
+     * file itself is left in place (deleting it would race with a new claim).
+     */
+    public static final class Claim implements Closeable {
+        private final Path key;
+        private final FileChannel channel;
+        private final FileLock lock;
+
+        private Claim(Path key, FileChannel channel, FileLock lock) {
+            this.key = key;
+            this.channel = channel;
+            this.lock = lock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                lock.release();
+                channel.close();
+            } finally {
+                CLAIMED.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Claims a save for the calling session. Returns null if another
+     * session (in this process or another one) already has it open.
+     */
+    public static Claim claim(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        if (!CLAIMED.add(key)) return null;
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(key.getParent());
+            channel = FileChannel.open(key.resolveSibling(key.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock != null) return new Claim(key, channel, lock);
+            channel.close();
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) channel.close();
+            CLAIMED.remove(key);
+            throw e;
+        }
+        CLAIMED.remove(key);
+        return null;
+    }
+
+    // --- File I/O ---
+
+    /**
+     * --- Atomic Write ---
+     * Writes the encoded save to a uniquely named temp file next to the
+     * target, then moves it over the old save in one step, so a crash never
+     * leaves a half-written file and concurrent writers never share a temp file.
+     */
+    public static void write(Path file, ByteBuffer encoded) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (encoded.hasRemaining()) ch.write(encoded);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    /**
+     * --- Read ---
+     * Reads the whole save onto the heap and checks magic, version and
+     * checksum. Returns the buffer positioned at the start of the payload.
+     * Nothing stays mapped or open, so the file can be replaced right after
+     * (a mapped file cannot be replaced on Windows). Saves are a few hundred
+     * bytes, so the copy costs nothing.
+     */
+    public static ByteBuffer read(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buf.remaining() < HEADER_BYTES + 4 || buf.getInt() != MAGIC) {
+            throw new IOException("Not a Death's Game save: " + file);
+        }
+        short version = buf.getShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported save version " + version + ": " + file);
+        }
+        int length = buf.getShort() & 0xFFFF;
+        if (buf.remaining() != length + 4) throw new IOException("Truncated save: " + file);
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(HEADER_BYTES, length));
+        if ((int) crc.getValue() != buf.getInt(HEADER_BYTES + length)) {
+            throw new IOException("Corrupt save (checksum mismatch): " + file);
+        }
+        return buf.slice(HEADER_BYTES, length);
+    }
+
+    // --- Envelope ---
+
+    /** Allocates a buffer for an encoder and reserves room for the header. */
+    static ByteBuffer begin(int payloadCapacity) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + payloadCapacity + 4);
+        buf.position(HEADER_BYTES);
+        return buf;
+    }
+
+    /**
+     * Fills in the header and checksum; returns the buffer ready to write.
+     * Throws IOException if the payload does not fit the u16 length field
+     * (the save is then skipped like any other failed write).
+     */
+    static ByteBuffer finish(ByteBuffer buf) throws IOException {
+        int length = buf.position() - HEADER_BYTES;
+        if (length > 0xFFFF) throw new IOException("Save payload too large: " + length + " bytes");
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(HEADER_BYTES, length));
+        buf.putInt((int) crc.getValue());
+        buf.putInt(0, MAGIC).putShort(4, VERSION).putShort(6, (short) length);
+        return buf.flip();
+    }
+
+    /** The payload part of a buffer returned by finish() (what read() returns on load). */
+    static ByteBuffer payload(ByteBuffer encoded) {
+        return encoded.slice(HEADER_BYTES, encoded.limit() - HEADER_BYTES - 4);
+    }
+
+    // --- Field Codecs ---
+
+    static int stringBytes(String s) {
+        return 2 + s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    static void putString(ByteBuffer buf, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        buf.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer buf) throws IOException {
+        int len = buf.getShort() & 0xFFFF;
+        if (len > MAX_NAME_BYTES || len > buf.remaining()) throw new IOException("Bad string length " + len);
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Upper bound on the bytes putHero writes for this hero. */
+    static int heroBytes(Hero hero) {
+        return 1 + 6 * 4 + 1 + hero.stats.length * 4 + combatBytes(hero);
+    }
+
+    /**
+     * --- Hero Encoder ---
+     * Stats, progress, cooldowns and active effect slots.
+     * An effect's source is stored as (skill, effect) indices into the
+     * hero type's shared skill catalog, so it is restored to the same template.
+     */
+    static void putHero(ByteBuffer buf, Hero hero) {
+        buf.put((byte) hero.type.ordinal());
+        buf.putInt(hero.level).putInt(hero.exp);
+        buf.putInt(hero.hp).putInt(hero.maxHp);
+        buf.putInt(hero.mana).putInt(hero.maxMana);
+        buf.put((byte) hero.stats.length);
+        for (int s : hero.stats) buf.putInt(s);
+        putCombat(buf, hero);
+    }
+
+    /** Bytes putCombat writes for this hero. */
+    static int combatBytes(Hero hero) {
+        return 1 + hero.getSkillCount() * 4 + 2 + hero.effects.size() * 11;
+    }
+
+    /**
+     * Length of the putCombat record starting at the buffer's position, read
+     * without moving it. Throws IndexOutOfBoundsException if even its counts
+     * are cut off.
+     */
+    static int combatLength(ByteBuffer buf) {
+        int p = buf.position();
+        int skills = buf.get(p);
+        int slots = buf.getShort(p + 1 + skills * 4) & 0xFFFF;
+        return 1 + skills * 4 + 2 + slots * 11;
+    }
+
+    /**
+     * --- Combat State Encoder ---
+     * Skill cooldowns and active effect slots: the part of putHero that
+     * changes turn by turn (GameJournal writes it after every fight).
+     */
+    static void putCombat(ByteBuffer buf, Hero hero) {
+        int skills = hero.getSkillCount();
+        buf.put((byte) skills);
+        for (int i = 0; i < skills; i++) buf.putInt(hero.getSkillCooldown(i));
+        EffectStore fx = hero.effects;
+        buf.putShort((short) fx.size());
+        List<Skill> catalog = hero.type.getSkills();
+        for (int i = 0; i < fx.size(); i++) {
+            buf.put((byte) fx.type(i).ordinal());
+            buf.putInt(fx.duration(i)).putInt(fx.magnitude(i));
+            int skillIdx = -1, effectIdx = -1;
+            StatusEffect src = fx.source(i);
+            for (int s = 0; src != null && skillIdx < 0 && s < catalog.size(); s++) {
+                Skill skill = catalog.get(s);
+                for (int e = 0; e < skill.effectCount(); e++) {
+                    if (skill.effect(e) == src) { skillIdx = s; effectIdx = e; break; }
+                }
+            }
+            buf.put((byte) skillIdx).put((byte) effectIdx);
+        }
+    }
+
+    /** Rebuilds a hero written by putHero. */
+    static Hero getHero(ByteBuffer buf, String name) throws IOException {
+        try {
+            HeroType type = HeroType.values()[buf.get()];
+            Hero hero = new Hero(name, type);
+            hero.level = buf.getInt();
+            hero.exp = buf.getInt();
+            hero.hp = buf.getInt();
+            hero.maxHp = buf.getInt();
+            hero.mana = buf.getInt();
+            hero.maxMana = buf.getInt();
+            int stats = buf.get();
+            for (int i = 0; i < stats; i++) hero.stats[i] = buf.getInt();
+            getCombat(buf, hero);
+            return hero;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Malformed hero record", e);
+        }
+    }
+
+    /**
+     * Restores cooldowns and effect slots written by putCombat, replacing the
+     * hero's current effects. Throws IndexOutOfBoundsException or
+     * BufferUnderflowException on a malformed or truncated record.
+     */
+    static void getCombat(ByteBuffer buf, Hero hero) {
+        int skills = buf.get();
+        for (int i = 0; i < skills; i++) hero.setSkillCooldown(i, buf.getInt());
+        int slots = buf.getShort() & 0xFFFF;
+        List<Skill> catalog = hero.type.getSkills();
+        EffectType[] effectTypes = EffectType.values();
+        hero.effects.clear();
+        for (int i = 0; i < slots; i++) {
+            EffectType fxType = effectTypes[buf.get()];
+            int duration = buf.getInt();
+            int magnitude = buf.getInt();
+            int skillIdx = buf.get(), effectIdx = buf.get();
+            StatusEffect src = skillIdx >= 0 ? catalog.get(skillIdx).effect(effectIdx) : null;
+            hero.effects.add(fxType, duration, magnitude, src);
+        }
+    }
+
+    /** Packs a set of dungeon keys into a bitmask over Game.DUNGEON_KEYS. */
+    static short dungeonBits(Iterable<String> keys) {
+        int bits = 0;
+        for (String key : keys) {
+            int i = Game.DUNGEON_KEYS.indexOf(key);
+            if (i >= 0) bits |= 1 << i;
+        }
+        return (short) bits;
+    }
+
+    /** Adds the keys whose bits are set to the given collection. */
+    static void addDungeons(short bits, Collection<String> into) {
+        for (int i = 0; i < Game.DUNGEON_KEYS.size(); i++) {
+            if ((bits & (1 << i)) != 0) into.add(Game.DUNGEON_KEYS.get(i));
+        }
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: SaveFile
+--------------------------------------------------------------------------------
+Binary save/load support. Replaces the old ObjectOutputStream attempt (which
+failed with NotSerializableException on Hero) with a hand-written, versioned
+layout: magic + version + length header, compact payload, CRC32 trailer.
+Writes go to a unique temp file and are moved into place atomically; loads read
+the file onto the heap, so no mapping pins it. Saves are keyed by a hash of the player
+name, and a Claim keeps a save to one session at a time. GameSession decides
+what goes in the payload.
+--------------------------------------------------------------------------------
+*/
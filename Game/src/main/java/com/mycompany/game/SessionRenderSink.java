@@ -0,0 +1,59 @@
+package com.mycompany.game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Per-session RenderSink for networked (telnet-style) play.
+ * Buffers a turn/menu like BufferedRenderSink, uses CRLF line endings, and
+ * remembers a broken connection so the session can end instead of failing
+ * on every following write.
+ */
+public class SessionRenderSink extends BufferedRenderSink {
+    private volatile boolean disconnected;
+
+    public SessionRenderSink(OutputStream socketOut) {
+        super(new OutputStreamWriter(socketOut, StandardCharsets.UTF_8), "\r\n");
+    }
+
+    /** True once a write to the client has failed. */
+    public boolean isDisconnected() {
+        return disconnected;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !disconnected;
+    }
+
+    @Override
+    public void print(String text) {
+        if (!disconnected) super.print(text);
+    }
+
+    @Override
+    public void println(String text) {
+        if (!disconnected) super.println(text);
+    }
+
+    @Override
+    public void printf(String format, Object... args) {
+        if (!disconnected) super.printf(format, args);
+    }
+
+    @Override
+    protected void onWriteFailure(IOException e) {
+        disconnected = true;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: SessionRenderSink
+--------------------------------------------------------------------------------
+Socket-backed, buffered RenderSink for one connected player. Flushed once per
+turn or menu (by PlayerInput); stops buffering after the client disconnects.
+--------------------------------------------------------------------------------
+*/
@@ -4,15 +4,33 @@ package com.mycompany.game;
  * Represents a skill for a hero (active, passive, or ultimate).
  * Each skill has a name, description, power, stat index, mana cost, cooldown,
  * and optionally status effects.
+ * Skills are immutable flyweights shared by every hero of a type (see HeroType);
+ * cooldowns are tracked per Hero.
  */
 public class Skill {
-    public String name, desc;
-    public int power, statIndex; // statIndex: 0-STR, 1-INT, 2-AGI, 3-DEF, 4-LUK
-    public int manaCost;
-    public int cooldown;
-    public StatusEffect[] effects; // Array of status effects applied by the skill
-    public boolean isPassive;      // True if this is a passive skill
-    public boolean isUltimate;     // True if this is an ultimate skill
+    private static final StatusEffect[] NO_EFFECTS = new StatusEffect[0];
+
+    public final String name, desc;
+    public final int power, statIndex; // statIndex: 0-STR, 1-INT, 2-AGI, 3-DEF, 4-LUK
+    public final int manaCost;
+    public final int cooldown;
+    // Shared templates of the effects the skill applies; slots refer to them by reference,
+    // so the array is private (read through effectCount/effect) and never handed out
+    private final StatusEffect[] effects;
+    public final boolean isPassive;      // True if this is a passive skill
+    public final boolean isUltimate;     // True if this is an ultimate skill
+    public final Targeting targeting;    // Which foes it strikes (see Targeting)
+    public final int hits;               // Strikes per cast (RANDOM_FOES)
+
+    /**
+     * Who a skill reaches. In a one-on-one fight the lone enemy stands in for
+     * the whole pack: it takes the one ALL_FOES strike or every RANDOM_FOES strike.
+     */
+    public enum Targeting {
+        SINGLE,      // the chosen foe only: effects, no power strike
+        ALL_FOES,    // one power strike at every standing foe
+        RANDOM_FOES  // `hits` power strikes, each at a random standing foe
+    }
 
     /**
      * --- Skill Constructor (Basic) ---
@@ -25,18 +43,53 @@ public class Skill {
     /**
      * --- Skill Constructor (Full) ---
      * For skills with effects or special flags.
-     * Data Structure: StatusEffect[] (array of effects)
+     * Data Structure: StatusEffect[] (array of effects, copied so the catalog cannot be changed through it)
      */
     public Skill(String name, String desc, int power, int statIndex, int manaCost, int cooldown, StatusEffect[] effects, boolean isPassive, boolean isUltimate) {
+        this(name, desc, power, statIndex, manaCost, cooldown, effects, isPassive, isUltimate, Targeting.SINGLE, 1);
+    }
+
+    /**
+     * --- Skill Constructor (Group) ---
+     * For skills that strike several foes of an EnemyGroup.
+     */
+    public Skill(String name, String desc, int power, int statIndex, int manaCost, int cooldown, StatusEffect[] effects,
+                 boolean isPassive, boolean isUltimate, Targeting targeting, int hits) {
         this.name = name;
         this.desc = desc;
         this.power = power;
         this.statIndex = statIndex;
         this.manaCost = manaCost;
         this.cooldown = cooldown;
-        this.effects = effects;
+        this.effects = effects == null ? NO_EFFECTS : effects.clone();
         this.isPassive = isPassive;
         this.isUltimate = isUltimate;
+        this.targeting = targeting;
+        this.hits = hits;
+    }
+
+    /** Number of status effects the skill applies (0 for none). */
+    public int effectCount() { return effects.length; }
+
+    /** The i-th effect template (shared by every hero of the type; never modify). */
+    public StatusEffect effect(int i) { return effects[i]; }
+
+    /**
+     * --- Strike Damage ---
+     * Damage of one power strike: max(1, power + caster stat - foe DEF) plus
+     * the foe's marks. The single rule for packs, one-on-one fights and EntityArena.
+     */
+    public int strikeDamage(int casterStat, int foeDef, int foeMark) {
+        return Math.max(1, power + casterStat - foeDef) + foeMark;
+    }
+
+    /** Power strikes a cast lands on a lone enemy: 1 for ALL_FOES, hits for RANDOM_FOES, none for SINGLE. */
+    public int strikesOnLoneFoe() {
+        switch (targeting) {
+            case ALL_FOES: return 1;
+            case RANDOM_FOES: return hits;
+            default: return 0;
+        }
     }
 }
 
@@ -46,6 +99,7 @@ Class: Skill
 --------------------------------------------------------------------------------
 Represents a hero's skill, which can be active, passive, or ultimate. Each skill
 has a name, description, stat scaling, mana cost, cooldown, and optional status
-effect array. Used by HeroType and Hero for combat and menu options.
+effect array, plus its reach against an EnemyGroup (single foe, all foes, or
+random strikes). Used by HeroType and Hero for combat and menu options.
 --------------------------------------------------------------------------------
 */
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.mycompany.game;
+
+/**
+ * BattlePolicy that plays the BattleSolver's best action every turn.
+ * Each thread gets its own solver (search scratch and transposition table),
+ * so one instance can be shared by all simulator workers.
+ */
+public class SolverPolicy implements BattlePolicy {
+    private static final GreedySkillPolicy GREEDY = new GreedySkillPolicy();
+    private final ThreadLocal<BattleSolver> solvers;
+
+    /** depth - player turns the solver looks ahead */
+    public SolverPolicy(int depth) {
+        this.solvers = ThreadLocal.withInitial(() -> new BattleSolver(depth));
+    }
+
+    @Override
+    public BattleAction chooseAction(Hero hero, Monster enemy, Encounter encounter) {
+        return solvers.get().evaluate(hero, enemy, encounter).best;
+    }
+
+    /** The solver models one-on-one fights only; packs are played greedily. */
+    @Override
+    public BattleAction chooseAction(Hero hero, EnemyGroup group, Encounter encounter) {
+        return GREEDY.chooseAction(hero, group, encounter);
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: SolverPolicy
+--------------------------------------------------------------------------------
+Search-based automated player (expectimax via BattleSolver) for balance runs:
+shows how each class fares with near-optimal skill use, next to the greedy and
+attack-only baselines.
+--------------------------------------------------------------------------------
+*/
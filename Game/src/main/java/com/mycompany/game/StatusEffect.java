@@ -6,12 +6,15 @@ package com.mycompany.game;
  * Used in a Stack or Queue for each Entity (Hero/Monster).
  */
 public class StatusEffect {
-    public String name;
-    public String description;
-    public int duration;  // turns remaining
-    public int magnitude; // effect power (e.g., HP lost/gained, stat change)
-    public boolean isBuff; // true: buff, false: debuff
-    public String statTarget; // e.g., "HP", "STR", etc.
+    // Immutable template, shared by every entity it is applied to; the turns
+    // left on an applied effect live in that entity's EffectStore
+    public final String name;
+    public final String description;
+    public final int duration;  // turns it lasts when applied
+    public final int magnitude; // effect power (e.g., HP lost/gained, stat change)
+    public final boolean isBuff; // true: buff, false: debuff
+    public final String statTarget; // e.g., "HP", "STR", etc.
+    public final EffectType type;   // resolved once from name; drives the effect engine
 
     /**
      * --- StatusEffect Constructor ---
@@ -29,11 +32,7 @@ public class StatusEffect {
         this.magnitude = magnitude;
         this.isBuff = isBuff;
         this.statTarget = statTarget;
-    }
-
-    /** Clones this status effect for fresh application. */
-    public StatusEffect copy() {
-        return new StatusEffect(name, description, duration, magnitude, isBuff, statTarget);
+        this.type = EffectType.fromName(name);
     }
 }
 
@@ -42,7 +41,8 @@ public class StatusEffect {
 Class: StatusEffect
 --------------------------------------------------------------------------------
 Encapsulates a buff or debuff that can be applied to entities in battle, such as
-poison, burn, healing, shield, or stat changes. Used with LinkedList/Queue in
-Entity, Hero, and Monster for per-turn status management.
+poison, burn, healing, shield, or stat changes. Applied to entities through
+Entity.enqueue, which copies its type, duration and magnitude into the entity's
+EffectStore; the template itself is immutable and shared.
 --------------------------------------------------------------------------------
 */
\ No newline at end of file
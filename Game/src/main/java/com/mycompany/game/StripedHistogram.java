@@ -0,0 +1,61 @@
+package com.mycompany.game;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe log-linear histogram for hot-path recording.
+ * Uses LatencyHistogram's buckets, but spreads writers over a few stripes
+ * (picked by thread id), each an AtomicLongArray of bucket counts plus a
+ * running sum and max. record() is a couple of uncontended atomic updates:
+ * no locks and no allocation. snapshot() folds the stripes into a
+ * LatencyHistogram for percentiles; it is not atomic with concurrent
+ * writers, which is fine for monitoring.
+ */
+public final class StripedHistogram {
+    private static final int MAX_STRIPES = 16;
+    private static final int SUM = LatencyHistogram.BUCKETS;
+    private static final int MAX = SUM + 1;
+
+    // One counter array per stripe (Data structure: Array of AtomicLongArray)
+    private final AtomicLongArray[] stripes;
+    private final int mask;
+
+    public StripedHistogram() {
+        int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        n = Math.min(MAX_STRIPES, n);
+        stripes = new AtomicLongArray[n];
+        for (int i = 0; i < n; i++) stripes[i] = new AtomicLongArray(LatencyHistogram.BUCKETS + 2);
+        mask = n - 1;
+    }
+
+    /** Adds one sample (negative values count as 0). */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        AtomicLongArray stripe = stripes[(int) PackedBattle.mix(Thread.currentThread().threadId()) & mask];
+        stripe.getAndIncrement(LatencyHistogram.bucket(v));
+        stripe.getAndAdd(SUM, v);
+        long max = stripe.get(MAX);
+        while (v > max && !stripe.compareAndSet(MAX, max, v)) max = stripe.get(MAX);
+    }
+
+    /** Current contents as a (single-threaded) LatencyHistogram. */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram h = new LatencyHistogram();
+        long[] counts = new long[LatencyHistogram.BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < counts.length; i++) counts[i] = stripe.get(i);
+            h.addBuckets(counts, stripe.get(SUM), stripe.get(MAX));
+        }
+        return h;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: StripedHistogram
+--------------------------------------------------------------------------------
+Lock-free, many-writer histogram for GameMetrics (turn latency, effects per
+turn): per-thread-hashed stripes of atomic bucket counters, merged into a
+LatencyHistogram when the metrics are read.
+--------------------------------------------------------------------------------
+*/
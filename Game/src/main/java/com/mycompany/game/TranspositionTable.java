@@ -0,0 +1,93 @@
+package com.mycompany.game;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of search results keyed by 64-bit state keys.
+ * Slots come in pairs: the first keeps the deepest result seen for its
+ * bucket, the second is always overwritten, so deep (expensive) entries
+ * survive while recent shallow ones still get cached. Memory is bounded
+ * by the capacity chosen up front; nothing is allocated after construction.
+ * Not thread-safe (one table per solver).
+ */
+public final class TranspositionTable {
+    private static final long EMPTY = 0;
+
+    // Slot arrays (Data structure: parallel Arrays, open addressing in 2-slot buckets)
+    private final long[] keys;
+    private final double[] values;
+    private final byte[] depths;
+    private final int shift;
+
+    private long hits, misses;
+
+    /** Creates a table with 2^bits slots (bits 1..30). */
+    public TranspositionTable(int bits) {
+        if (bits < 1 || bits > 30) throw new IllegalArgumentException("bits must be 1..30: " + bits);
+        keys = new long[1 << bits];
+        values = new double[1 << bits];
+        depths = new byte[1 << bits];
+        shift = 64 - bits;
+    }
+
+    /**
+     * --- Probe ---
+     * Value stored for the key from a search at least as deep as depth,
+     * or NaN if there is none.
+     */
+    public double probe(long key, int depth) {
+        key = nonEmpty(key);
+        int b = bucket(key);
+        for (int i = b; i <= b + 1; i++) {
+            if (keys[i] == key && depths[i] >= depth) {
+                hits++;
+                return values[i];
+            }
+        }
+        misses++;
+        return Double.NaN;
+    }
+
+    /**
+     * --- Store ---
+     * Records a value searched to the given depth (depth-preferred slot
+     * first, otherwise the always-replace slot).
+     */
+    public void store(long key, int depth, double value) {
+        key = nonEmpty(key);
+        int b = bucket(key);
+        int slot = keys[b] == key || keys[b] == EMPTY || depths[b] <= depth ? b : b + 1;
+        keys[slot] = key;
+        values[slot] = value;
+        depths[slot] = (byte) Math.min(depth, Byte.MAX_VALUE);
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        hits = 0;
+        misses = 0;
+    }
+
+    public int capacity() { return keys.length; }
+    public long hits() { return hits; }
+    public long misses() { return misses; }
+
+    // Top bits of a Fibonacci-hashed key, rounded down to the bucket's first slot
+    private int bucket(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift) & ~1;
+    }
+
+    private static long nonEmpty(long key) {
+        return key == EMPTY ? 1 : key;
+    }
+}
+
+/*
+--------------------------------------------------------------------------------
+Class: TranspositionTable
+--------------------------------------------------------------------------------
+Bounded memo for BattleSolver: state key -> (search depth, win probability).
+Two-slot buckets (depth-preferred + always-replace) in flat primitive arrays,
+so repeated battle states reached by different action orders are searched once.
+--------------------------------------------------------------------------------
+*/